@@ -20,6 +20,7 @@ import com.wrenchit.api.service.PortalDataService;
 import com.wrenchit.api.service.UserService;
 import com.wrenchit.engagement.entity.StoreReview;
 import com.wrenchit.engagement.service.ReviewService;
+import com.wrenchit.stores.search.StoreChangePublisher;
 import com.wrenchit.stores.service.StoreService;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
@@ -32,15 +33,18 @@ public class ReviewController {
     private final StoreService storeService;
     private final UserService userService;
     private final PortalDataService portalDataService;
+    private final StoreChangePublisher storeChangePublisher;
 
     public ReviewController(ReviewService reviewService,
                             StoreService storeService,
                             UserService userService,
-                            PortalDataService portalDataService) {
+                            PortalDataService portalDataService,
+                            StoreChangePublisher storeChangePublisher) {
         this.reviewService = reviewService;
         this.storeService = storeService;
         this.userService = userService;
         this.portalDataService = portalDataService;
+        this.storeChangePublisher = storeChangePublisher;
     }
 
     @GetMapping
@@ -64,6 +68,7 @@ public class ReviewController {
                 request.rating,
                 request.comment
         );
+        storeChangePublisher.storesChanged(List.of(storeId));
         return toResponse(review);
     }
 
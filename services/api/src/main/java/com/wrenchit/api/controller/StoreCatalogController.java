@@ -1,26 +1,42 @@
 package com.wrenchit.api.controller;
 
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.wrenchit.api.dto.ServiceCompareItem;
+import com.wrenchit.api.dto.ServiceCompareResponse;
 import com.wrenchit.api.service.PortalDataService;
+import com.wrenchit.stores.dto.ServiceCompareSort;
+import com.wrenchit.stores.dto.ServiceQuote;
+import com.wrenchit.stores.dto.ServiceQuotePage;
+import com.wrenchit.stores.service.ServiceComparisonService;
 
 @RestController
 @RequestMapping("/api/stores")
+@Validated
 public class StoreCatalogController {
 
     private final PortalDataService portalDataService;
+    private final ServiceComparisonService serviceComparisonService;
 
-    public StoreCatalogController(PortalDataService portalDataService) {
+    public StoreCatalogController(PortalDataService portalDataService,
+                                  ServiceComparisonService serviceComparisonService) {
         this.portalDataService = portalDataService;
+        this.serviceComparisonService = serviceComparisonService;
     }
 
     @GetMapping("/services")
@@ -29,15 +45,41 @@ public class StoreCatalogController {
     }
 
     @GetMapping("/compare-by-service")
-    public Map<String, Object> compareByService(@RequestParam("service") String service) {
-        Map<String, Object> out = new LinkedHashMap<>();
-        out.put("service", service);
-        out.put("stores", portalDataService.compareByService(service));
-        return out;
+    public ServiceCompareResponse compareByService(@RequestParam("service") @Size(min = 1, max = 120) String service,
+                                                   @RequestParam(value = "lat", required = false) @DecimalMin("-90.0") @DecimalMax("90.0") Double lat,
+                                                   @RequestParam(value = "lng", required = false) @DecimalMin("-180.0") @DecimalMax("180.0") Double lng,
+                                                   @RequestParam(value = "radiusKm", required = false) @DecimalMin("0.1") @DecimalMax("500.0") Double radiusKm,
+                                                   @RequestParam(value = "sort", required = false) String sort,
+                                                   @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+                                                   @RequestParam(value = "cursor", required = false) String cursor) {
+        ServiceQuotePage page = serviceComparisonService.compare(service, lat, lng, radiusKm,
+                ServiceCompareSort.from(sort), limit, cursor);
+
+        ServiceCompareResponse response = new ServiceCompareResponse();
+        response.service = page.getService();
+        response.stores = page.getQuotes().stream().map(this::toItem).toList();
+        response.limit = page.getLimit();
+        response.hasMore = page.isHasMore();
+        response.nextCursor = page.getNextCursor();
+        return response;
     }
 
     @GetMapping("/{storeId}/services")
     public List<Map<String, Object>> servicesForStore(@PathVariable UUID storeId) {
         return portalDataService.listServicesForStore(storeId);
     }
+
+    private ServiceCompareItem toItem(ServiceQuote quote) {
+        ServiceCompareItem item = new ServiceCompareItem();
+        item.id = quote.getStoreId();
+        item.name = quote.getName();
+        item.location = quote.getLocation();
+        item.rating = quote.getRating();
+        item.reviewCount = quote.getReviewCount();
+        item.price = quote.getPriceCents() == null ? null : quote.getPriceCents() / 100.0;
+        item.durationMinutes = quote.getDurationMinutes();
+        item.hasVerifiedMechanic = quote.isHasVerifiedMechanic();
+        item.distanceKm = quote.getDistanceKm();
+        return item;
+    }
 }
@@ -1,42 +1,76 @@
 package com.wrenchit.api.controller;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.wrenchit.api.dto.CompareSort;
 import com.wrenchit.api.dto.ReviewSummaryResponse;
 import com.wrenchit.api.dto.SortDirection;
+import com.wrenchit.api.dto.StoreClusterItem;
+import com.wrenchit.api.dto.StoreClusterResponse;
 import com.wrenchit.api.dto.StoreCompareItem;
 import com.wrenchit.api.dto.StoreCompareResponse;
 import com.wrenchit.api.dto.StoreDetailResponse;
+import com.wrenchit.api.dto.StorePageResponse;
+import com.wrenchit.api.dto.StorePagesResponse;
+import com.wrenchit.api.dto.StoreSearchRequest;
 import com.wrenchit.api.dto.StoreSearchResponse;
+import com.wrenchit.api.dto.StoreSuggestResponse;
+import com.wrenchit.api.dto.StoreSuggestionItem;
 import com.wrenchit.api.dto.StoreSummaryResponse;
+import com.wrenchit.api.service.StorePageService;
+import com.wrenchit.api.service.StorePageService.StorePage;
+import com.wrenchit.api.service.UserService;
 import com.wrenchit.engagement.dto.ReviewSummary;
 import com.wrenchit.engagement.service.ReviewService;
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.dto.StoreCluster;
 import com.wrenchit.stores.dto.StoreFilters;
 import com.wrenchit.stores.dto.StoreSearchCriteria;
 import com.wrenchit.stores.dto.StoreSearchResult;
-import com.wrenchit.stores.dto.StoreSort;
 import com.wrenchit.stores.entity.Store;
+import com.wrenchit.stores.search.StoreSuggestIndex;
+import com.wrenchit.stores.search.StoreSuggestion;
+import com.wrenchit.stores.service.StoreClusterService;
+import com.wrenchit.stores.service.StoreSearchCoalescer;
+import com.wrenchit.stores.service.StoreSearchStreamer;
+import com.wrenchit.stores.service.StoreSearchStreamer.StreamedSearch;
 import com.wrenchit.stores.service.StoreService;
 
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 @RestController
@@ -44,46 +78,111 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 @RequestMapping("/api/stores")
 public class StoreController {
 
+    private static final long SEARCH_STREAM_TIMEOUT_MILLIS = 30_000L;
+
     private final StoreService storeService;
+    private final StoreSearchCoalescer storeSearchCoalescer;
+    private final StoreClusterService storeClusterService;
+    private final StoreSuggestIndex storeSuggestIndex;
     private final ReviewService reviewService;
+    private final StorePageService storePageService;
+    private final UserService userService;
+    private final StoreSearchStreamer storeSearchStreamer;
 
-    public StoreController(StoreService storeService, ReviewService reviewService) {
+    public StoreController(StoreService storeService,
+                           StoreSearchCoalescer storeSearchCoalescer,
+                           StoreClusterService storeClusterService,
+                           StoreSuggestIndex storeSuggestIndex,
+                           ReviewService reviewService,
+                           StorePageService storePageService,
+                           UserService userService,
+                           StoreSearchStreamer storeSearchStreamer) {
         this.storeService = storeService;
+        this.storeSearchCoalescer = storeSearchCoalescer;
+        this.storeClusterService = storeClusterService;
+        this.storeSuggestIndex = storeSuggestIndex;
         this.reviewService = reviewService;
+        this.storePageService = storePageService;
+        this.userService = userService;
+        this.storeSearchStreamer = storeSearchStreamer;
+    }
+
+    @InitBinder("storeSearchRequest")
+    void initSearchBinder(WebDataBinder binder) {
+        binder.initDirectFieldAccess();
     }
 
     @GetMapping("/search")
-    public StoreSearchResponse search(@RequestParam(value = "q", required = false) String query,
-                                      @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
-                                      @RequestParam(value = "offset", defaultValue = "0") @Min(0) int offset,
-                                      @RequestParam(value = "sort", defaultValue = "RATING") StoreSort sort,
-                                      @RequestParam(value = "direction", defaultValue = "DESC") com.wrenchit.stores.dto.SortDirection direction,
-                                      @RequestParam(value = "lat", required = false) @DecimalMin("-90.0") @DecimalMax("90.0") Double lat,
-                                      @RequestParam(value = "lng", required = false) @DecimalMin("-180.0") @DecimalMax("180.0") Double lng,
-                                      @RequestParam(value = "radiusKm", required = false) @DecimalMin("0.1") @DecimalMax("500.0") Double radiusKm,
-                                      @RequestParam(value = "minRating", required = false) @DecimalMin("0.0") @DecimalMax("5.0") Double minRating,
-                                      @RequestParam(value = "services", required = false) String services,
-                                      @RequestParam(value = "city", required = false) String city,
-                                      @RequestParam(value = "state", required = false) String state,
-                                      @RequestParam(value = "priceRange", required = false) String priceRange,
-                                      @RequestParam(value = "hasWebsite", required = false) Boolean hasWebsite,
-                                      @RequestParam(value = "hasPhone", required = false) Boolean hasPhone,
-                                      @RequestParam(value = "openNow", required = false) Boolean openNow) {
-        StoreFilters filters = new StoreFilters(minRating, services, city, state, priceRange, hasWebsite, hasPhone, openNow);
-        StoreSearchCriteria criteria = new StoreSearchCriteria(query, limit, offset, sort, direction, lat, lng, radiusKm, filters);
-        StoreSearchResult result = storeService.search(criteria);
-        Map<UUID, String> priceRanges = storeService.getPriceRanges(result.getStores());
+    public StoreSearchResponse search(@Valid @ModelAttribute StoreSearchRequest request) {
+        return toSearchResponse(storeSearchCoalescer.search(toCriteria(request)));
+    }
 
-        StoreSearchResponse response = new StoreSearchResponse();
-        response.items = result.getStores().stream()
-                .map(store -> toSummary(store, priceRanges.get(store.getId())))
+    @GetMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter searchStream(@Valid @ModelAttribute StoreSearchRequest request) {
+        StreamedSearch search = storeSearchStreamer.start(toCriteria(request));
+
+        SseEmitter emitter = new SseEmitter(SEARCH_STREAM_TIMEOUT_MILLIS);
+        emitter.onTimeout(() -> search.merged().cancel(true));
+        emitter.onError(failure -> search.merged().cancel(true));
+        emitter.onCompletion(() -> search.merged().cancel(true));
+        try {
+            emitter.send(SseEmitter.event().name("local").data(toSearchResponse(search.local()), MediaType.APPLICATION_JSON));
+        } catch (IOException ex) {
+            search.merged().cancel(true);
+            emitter.completeWithError(ex);
+            return emitter;
+        }
+        search.merged().whenComplete((merged, failure) -> {
+            try {
+                if (failure == null && merged.isPresent()) {
+                    emitter.send(SseEmitter.event().name("merged").data(toSearchResponse(merged.get()), MediaType.APPLICATION_JSON));
+                }
+                emitter.send(SseEmitter.event().name("done").data(""));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                emitter.completeWithError(ex);
+            }
+        });
+        return emitter;
+    }
+
+    @GetMapping("/suggest")
+    public StoreSuggestResponse suggest(@RequestParam("prefix") @Size(min = 1, max = 100) String prefix,
+                                        @RequestParam(value = "limit", defaultValue = "10") @Min(1) @Max(25) int limit,
+                                        @RequestParam(value = "lat", required = false) @DecimalMin("-90.0") @DecimalMax("90.0") Double lat,
+                                        @RequestParam(value = "lng", required = false) @DecimalMin("-180.0") @DecimalMax("180.0") Double lng) {
+        StoreSuggestResponse response = new StoreSuggestResponse();
+        response.prefix = prefix;
+        response.suggestions = storeSuggestIndex.suggest(prefix, limit, lat, lng).stream()
+                .map(this::toSuggestionItem)
                 .toList();
-        response.limit = result.getLimit();
-        response.offset = result.getOffset();
-        response.total = result.getTotal();
         return response;
     }
 
+    @GetMapping("/clusters")
+    public ResponseEntity<StoreClusterResponse> clusters(@RequestParam("bbox") List<Double> bbox,
+                                                         @RequestParam("zoom") @Min(0) @Max(22) int zoom) {
+        if (bbox.size() != 4 || bbox.contains(null)) {
+            throw new ResponseStatusException(BAD_REQUEST, "bbox must be west,south,east,north");
+        }
+        double west = bbox.get(0);
+        double south = bbox.get(1);
+        double east = bbox.get(2);
+        double north = bbox.get(3);
+        if (Math.abs(west) > 180 || Math.abs(east) > 180 || Math.abs(south) > 90 || Math.abs(north) > 90) {
+            throw new ResponseStatusException(BAD_REQUEST, "bbox coordinates are out of range");
+        }
+
+        StoreClusterResponse response = new StoreClusterResponse();
+        response.zoom = zoom;
+        response.clusters = storeClusterService.clusters(south, west, north, east, zoom).stream()
+                .map(this::toClusterItem)
+                .toList();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(storeClusterService.getCacheTtl()).cachePublic())
+                .body(response);
+    }
+
     @GetMapping("/{id}")
     public StoreDetailResponse getById(@PathVariable UUID id) {
         Store store = storeService.getById(id)
@@ -91,6 +190,35 @@ public class StoreController {
         return toDetail(store, storeService.getPriceRange(store.getId()));
     }
 
+    @GetMapping("/{id}/page")
+    public ResponseEntity<StorePageResponse> getPage(@PathVariable UUID id, @AuthenticationPrincipal Jwt jwt) {
+        List<StorePage> pages = storePageService.load(List.of(id), resolveUserId(jwt));
+        if (pages.isEmpty()) {
+            throw new ResponseStatusException(NOT_FOUND, "Store not found");
+        }
+        StorePageResponse response = toPage(pages.get(0));
+        return ResponseEntity.ok()
+                .cacheControl(pageCacheControl(response))
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE)
+                .body(response);
+    }
+
+    @GetMapping("/pages")
+    public ResponseEntity<StorePagesResponse> getPages(@RequestParam("ids") @Size(min = 1, max = StorePageService.MAX_STORES) List<UUID> ids,
+                                                       @AuthenticationPrincipal Jwt jwt) {
+        StorePagesResponse response = new StorePagesResponse();
+        response.stores = storePageService.load(ids.stream().filter(Objects::nonNull).toList(), resolveUserId(jwt)).stream()
+                .map(this::toPage)
+                .toList();
+        CacheControl cacheControl = response.stores.isEmpty()
+                ? CacheControl.noCache()
+                : pageCacheControl(response.stores.get(0));
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE)
+                .body(response);
+    }
+
     @GetMapping("/place/{placeId}")
     public StoreDetailResponse getByPlaceId(@PathVariable String placeId) {
         Store store = storeService.getByPlaceId(placeId)
@@ -148,6 +276,84 @@ public class StoreController {
         return direction == SortDirection.DESC ? comparator.reversed() : comparator;
     }
 
+    private StoreSearchCriteria toCriteria(StoreSearchRequest request) {
+        StoreFilters filters = new StoreFilters(request.minRating, request.services, request.city, request.state,
+                request.priceRange, request.hasWebsite, request.hasPhone, request.openNow,
+                request.openAt == null ? null : request.openAt.toInstant(),
+                request.serviceIds == null ? null : request.serviceIds.stream().filter(Objects::nonNull).toList(),
+                request.serviceCategory);
+        return new StoreSearchCriteria(request.q, request.limit, request.offset, request.sort, request.direction,
+                request.lat, request.lng, request.radiusKm, filters, request.cursor, IncludeTotal.from(request.includeTotal));
+    }
+
+    private StoreSearchResponse toSearchResponse(StoreSearchResult result) {
+        Map<UUID, String> priceRanges = storeService.getPriceRanges(result.getStores());
+
+        StoreSearchResponse response = new StoreSearchResponse();
+        response.items = result.getStores().stream()
+                .map(store -> toSummary(store, priceRanges.get(store.getId())))
+                .toList();
+        response.limit = result.getLimit();
+        response.offset = result.getOffset();
+        response.total = result.getTotal();
+        response.totalEstimated = result.isTotalEstimated();
+        response.hasMore = result.isHasMore();
+        response.nextCursor = result.getNextCursor();
+        response.facets = result.getFacets();
+        return response;
+    }
+
+    private UUID resolveUserId(Jwt jwt) {
+        return jwt == null ? null : userService.getOrCreateFromJwt(jwt).getId();
+    }
+
+    private StorePageResponse toPage(StorePage page) {
+        StorePageResponse response = new StorePageResponse();
+        response.store = toDetail(page.store(), page.priceRange());
+        response.services = page.services();
+        response.reviews = page.reviews();
+        response.saved = page.saved();
+        Map<String, Long> maxAge = new LinkedHashMap<>();
+        maxAge.put("store", storePageService.getStoreTtl().toSeconds());
+        maxAge.put("services", storePageService.getServicesTtl().toSeconds());
+        maxAge.put("reviews", storePageService.getReviewsTtl().toSeconds());
+        if (page.saved() != null) {
+            maxAge.put("saved", 0L);
+        }
+        response.maxAgeSeconds = maxAge;
+        return response;
+    }
+
+    private CacheControl pageCacheControl(StorePageResponse page) {
+        long maxAge = page.maxAgeSeconds.values().stream().mapToLong(Long::longValue).min().orElse(0L);
+        if (maxAge <= 0) {
+            return page.saved == null ? CacheControl.noCache() : CacheControl.noCache().cachePrivate();
+        }
+        return CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic();
+    }
+
+    private StoreSuggestionItem toSuggestionItem(StoreSuggestion suggestion) {
+        StoreSuggestionItem item = new StoreSuggestionItem();
+        item.type = suggestion.type();
+        item.text = suggestion.text();
+        item.storeId = suggestion.storeId();
+        item.city = suggestion.city();
+        item.lat = suggestion.lat();
+        item.lng = suggestion.lng();
+        return item;
+    }
+
+    private StoreClusterItem toClusterItem(StoreCluster cluster) {
+        StoreClusterItem item = new StoreClusterItem();
+        item.lat = cluster.getLat();
+        item.lng = cluster.getLng();
+        item.count = cluster.getCount();
+        item.minPriceRange = cluster.getMinPriceRange();
+        item.bestRating = cluster.getBestRating();
+        item.storeId = cluster.getStoreId();
+        return item;
+    }
+
     private StoreSummaryResponse toSummary(Store store, String priceRange) {
         StoreSummaryResponse res = new StoreSummaryResponse();
         res.id = store.getId();
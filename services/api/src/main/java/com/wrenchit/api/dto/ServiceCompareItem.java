@@ -0,0 +1,15 @@
+package com.wrenchit.api.dto;
+
+import java.util.UUID;
+
+public class ServiceCompareItem {
+    public UUID id;
+    public String name;
+    public String location;
+    public Double rating;
+    public Long reviewCount;
+    public Double price;
+    public Integer durationMinutes;
+    public Boolean hasVerifiedMechanic;
+    public Double distanceKm;
+}
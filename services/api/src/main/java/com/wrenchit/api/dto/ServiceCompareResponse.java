@@ -0,0 +1,11 @@
+package com.wrenchit.api.dto;
+
+import java.util.List;
+
+public class ServiceCompareResponse {
+    public String service;
+    public List<ServiceCompareItem> stores;
+    public int limit;
+    public boolean hasMore;
+    public String nextCursor;
+}
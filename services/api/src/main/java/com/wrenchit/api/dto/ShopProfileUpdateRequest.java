@@ -19,6 +19,9 @@ public class ShopProfileUpdateRequest {
 
     public Map<String, ShopHoursWindow> hours;
 
+    @Size(max = 64)
+    public String timeZone;
+
     public static class ShopHoursWindow {
         @Size(max = 40)
         public String open;
@@ -0,0 +1,12 @@
+package com.wrenchit.api.dto;
+
+import java.util.UUID;
+
+public class StoreClusterItem {
+    public double lat;
+    public double lng;
+    public long count;
+    public String minPriceRange;
+    public Double bestRating;
+    public UUID storeId;
+}
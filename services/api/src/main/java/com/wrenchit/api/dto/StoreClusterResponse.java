@@ -0,0 +1,8 @@
+package com.wrenchit.api.dto;
+
+import java.util.List;
+
+public class StoreClusterResponse {
+    public int zoom;
+    public List<StoreClusterItem> clusters;
+}
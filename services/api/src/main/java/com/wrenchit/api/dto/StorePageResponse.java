@@ -0,0 +1,12 @@
+package com.wrenchit.api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class StorePageResponse {
+    public StoreDetailResponse store;
+    public List<Map<String, Object>> services;
+    public List<Map<String, Object>> reviews;
+    public Boolean saved;
+    public Map<String, Long> maxAgeSeconds;
+}
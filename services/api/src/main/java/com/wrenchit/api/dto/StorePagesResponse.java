@@ -0,0 +1,7 @@
+package com.wrenchit.api.dto;
+
+import java.util.List;
+
+public class StorePagesResponse {
+    public List<StorePageResponse> stores;
+}
@@ -0,0 +1,73 @@
+package com.wrenchit.api.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.wrenchit.stores.dto.StoreSort;
+
+public class StoreSearchRequest {
+    public String q;
+
+    @Min(1)
+    @Max(100)
+    public int limit = 20;
+
+    @Min(0)
+    public int offset;
+
+    public StoreSort sort = StoreSort.RELEVANCE;
+
+    public com.wrenchit.stores.dto.SortDirection direction = com.wrenchit.stores.dto.SortDirection.DESC;
+
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    public Double lat;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    public Double lng;
+
+    @DecimalMin("0.1")
+    @DecimalMax("500.0")
+    public Double radiusKm;
+
+    @DecimalMin("0.0")
+    @DecimalMax("5.0")
+    public Double minRating;
+
+    public String services;
+
+    @Size(max = 20)
+    public List<UUID> serviceIds;
+
+    @Size(max = 120)
+    public String serviceCategory;
+
+    public String city;
+
+    public String state;
+
+    public String priceRange;
+
+    public Boolean hasWebsite;
+
+    public Boolean hasPhone;
+
+    public Boolean openNow;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    public OffsetDateTime openAt;
+
+    public String cursor;
+
+    public String includeTotal = "none";
+}
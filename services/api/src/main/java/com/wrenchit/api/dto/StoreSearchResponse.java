@@ -1,10 +1,15 @@
 package com.wrenchit.api.dto;
 
 import java.util.List;
+import java.util.Map;
 
 public class StoreSearchResponse {
     public List<StoreSummaryResponse> items;
     public int limit;
     public int offset;
-    public long total;
+    public Long total;
+    public boolean totalEstimated;
+    public boolean hasMore;
+    public String nextCursor;
+    public Map<String, Map<String, Long>> facets;
 }
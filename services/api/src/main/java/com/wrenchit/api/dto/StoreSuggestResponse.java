@@ -0,0 +1,8 @@
+package com.wrenchit.api.dto;
+
+import java.util.List;
+
+public class StoreSuggestResponse {
+    public String prefix;
+    public List<StoreSuggestionItem> suggestions;
+}
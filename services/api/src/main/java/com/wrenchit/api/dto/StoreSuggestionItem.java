@@ -0,0 +1,12 @@
+package com.wrenchit.api.dto;
+
+import java.util.UUID;
+
+public class StoreSuggestionItem {
+    public String type;
+    public String text;
+    public UUID storeId;
+    public String city;
+    public Double lat;
+    public Double lng;
+}
@@ -6,11 +6,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.sql.Timestamp;
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -21,9 +24,12 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -32,6 +38,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wrenchit.api.dto.ReceiptCreateRequest;
 import com.wrenchit.api.dto.ShopProfileUpdateRequest;
 import com.wrenchit.api.dto.ShopServiceUpsertRequest;
+import com.wrenchit.stores.search.ServiceAliases;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.search.WeeklyOpenHours;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
@@ -46,13 +55,23 @@ public class PortalDataService {
 
     private final NamedParameterJdbcTemplate jdbc;
     private final ObjectMapper objectMapper;
+    private final StoreChangePublisher storeChangePublisher;
 
     @Value("${wrenchit.receipts.storage-path:/tmp/wrenchit-receipts}")
     private String receiptStoragePath;
 
-    public PortalDataService(NamedParameterJdbcTemplate jdbc, ObjectMapper objectMapper) {
+    @Value("${wrenchit.stores.hours.default-time-zone:America/Toronto}")
+    private String defaultHoursTimeZone;
+
+    @Value("${wrenchit.stores.hours.backfill-on-startup:true}")
+    private boolean backfillOpenHoursOnStartup;
+
+    public PortalDataService(NamedParameterJdbcTemplate jdbc,
+                             ObjectMapper objectMapper,
+                             StoreChangePublisher storeChangePublisher) {
         this.jdbc = jdbc;
         this.objectMapper = objectMapper;
+        this.storeChangePublisher = storeChangePublisher;
     }
 
     public UUID resolveManagedStoreId(UUID ownerUserId) {
@@ -120,6 +139,7 @@ public class PortalDataService {
                         .addValue("ownerUserId", normalizedOwnerUserId)
                         .addValue("storeId", storeId)
         );
+        storeChangePublisher.storesChanged(List.of(storeId));
 
         return storeId;
     }
@@ -140,7 +160,8 @@ public class PortalDataService {
                   s.rating,
                   s.rating_count,
                   sp.description,
-                  sp.hours_json
+                  sp.hours_json,
+                  sp.hours_time_zone
                 from stores s
                 left join shop_profiles sp on sp.store_id = s.id
                 where s.id = :storeId
@@ -165,6 +186,7 @@ public class PortalDataService {
         out.put("reviewCount", asLong(row.get("rating_count")));
         out.put("description", Objects.toString(row.get("description"), ""));
         out.put("hours", parseHours(row.get("hours_json")));
+        out.put("timeZone", Objects.toString(row.get("hours_time_zone"), defaultHoursTimeZone));
         return out;
     }
 
@@ -187,6 +209,7 @@ public class PortalDataService {
         Map<String, Object> nextHours = request.hours == null
                 ? castMap(current.get("hours"))
                 : toHoursMap(request.hours);
+        String nextTimeZone = resolveTimeZone(fallback(request.timeZone, current.get("timeZone")));
 
         jdbc.update(
                 """
@@ -224,19 +247,25 @@ public class PortalDataService {
 
         jdbc.update(
                 """
-                insert into shop_profiles (store_id, description, hours_json, updated_at)
-                values (:storeId, :description, cast(:hoursJson as jsonb), now())
+                insert into shop_profiles (store_id, description, hours_json, hours_time_zone, open_minutes, open_minutes_compiled_at, updated_at)
+                values (:storeId, :description, cast(:hoursJson as jsonb), :timeZone, cast(:openMinutes as bit(10080)), now(), now())
                 on conflict (store_id)
                 do update set
                   description = excluded.description,
                   hours_json = excluded.hours_json,
+                  hours_time_zone = excluded.hours_time_zone,
+                  open_minutes = excluded.open_minutes,
+                  open_minutes_compiled_at = now(),
                   updated_at = now()
                 """,
                 new MapSqlParameterSource()
                         .addValue("storeId", storeId)
                         .addValue("description", nextDescription)
                         .addValue("hoursJson", toJson(nextHours))
+                        .addValue("timeZone", nextTimeZone)
+                        .addValue("openMinutes", WeeklyOpenHours.compile(nextHours).orElse(null))
         );
+        storeChangePublisher.storesChanged(List.of(storeId));
 
         return getManagedShop(normalizedOwnerUserId);
     }
@@ -247,9 +276,17 @@ public class PortalDataService {
     }
 
     public List<Map<String, Object>> listServicesForStore(UUID storeId) {
+        return listServicesForStores(List.of(storeId)).getOrDefault(storeId, List.of());
+    }
+
+    public Map<UUID, List<Map<String, Object>>> listServicesForStores(Collection<UUID> storeIds) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return Map.of();
+        }
         List<Map<String, Object>> rows = jdbc.queryForList(
                 """
                 select
+                  ss.store_id,
                   sv.id as service_id,
                   sv.name,
                   sv.category,
@@ -257,13 +294,13 @@ public class PortalDataService {
                   ss.duration_minutes
                 from store_services ss
                 join services sv on sv.id = ss.service_id
-                where ss.store_id = :storeId
-                order by sv.name asc
+                where ss.store_id in (:storeIds)
+                order by ss.store_id, sv.name asc
                 """,
-                new MapSqlParameterSource("storeId", storeId)
+                new MapSqlParameterSource("storeIds", storeIds)
         );
 
-        List<Map<String, Object>> items = new ArrayList<>();
+        Map<UUID, List<Map<String, Object>>> items = new LinkedHashMap<>();
         for (Map<String, Object> row : rows) {
             Map<String, Object> item = new LinkedHashMap<>();
             item.put("id", row.get("service_id"));
@@ -272,11 +309,12 @@ public class PortalDataService {
             item.put("price", centsToDollars(asInt(row.get("base_price_cents"))));
             item.put("duration", formatDuration(asInt(row.get("duration_minutes"))));
             item.put("durationMinutes", asInt(row.get("duration_minutes")));
-            items.add(item);
+            items.computeIfAbsent((UUID) row.get("store_id"), ignored -> new ArrayList<>()).add(item);
         }
         return items;
     }
 
+    @Transactional
     public Map<String, Object> createManagedService(UUID ownerUserId, ShopServiceUpsertRequest request) {
         UUID storeId = resolveManagedStoreId(ownerUserId);
 
@@ -294,6 +332,7 @@ public class PortalDataService {
         return getManagedService(storeId, serviceId);
     }
 
+    @Transactional
     public Map<String, Object> updateManagedService(UUID ownerUserId, UUID serviceId, ShopServiceUpsertRequest request) {
         UUID storeId = resolveManagedStoreId(ownerUserId);
 
@@ -335,6 +374,7 @@ public class PortalDataService {
         return getManagedService(storeId, targetServiceId);
     }
 
+    @Transactional
     public void deleteManagedService(UUID ownerUserId, UUID serviceId) {
         UUID storeId = resolveManagedStoreId(ownerUserId);
         jdbc.update(
@@ -343,22 +383,24 @@ public class PortalDataService {
                         .addValue("storeId", storeId)
                         .addValue("serviceId", serviceId)
         );
+        syncServicesText(storeId);
+        refreshStorePriceStats(storeId);
     }
 
     public Map<String, Object> getShopDashboard(UUID ownerUserId) {
         UUID storeId = resolveManagedStoreId(ownerUserId);
         Map<String, Object> shop = getManagedShop(ownerUserId);
 
-        Long totalReviews = jdbc.queryForObject(
-                "select count(*) from store_reviews where store_id = :storeId",
-                new MapSqlParameterSource("storeId", storeId),
-                Long.class
-        );
-        Double avgRating = jdbc.queryForObject(
-                "select avg(rating) from store_reviews where store_id = :storeId",
-                new MapSqlParameterSource("storeId", storeId),
-                Double.class
+        Map<String, Object> ratingStats = querySingleMap(
+                """
+                select review_count, rating_sum
+                from store_rating_stats
+                where store_id = :storeId
+                """,
+                new MapSqlParameterSource("storeId", storeId)
         );
+        long totalReviews = ratingStats == null ? 0L : asLong(ratingStats.get("review_count"));
+        Double avgRating = totalReviews == 0L ? null : (double) asLong(ratingStats.get("rating_sum")) / totalReviews;
         Long activeServices = jdbc.queryForObject(
                 "select count(*) from store_services where store_id = :storeId",
                 new MapSqlParameterSource("storeId", storeId),
@@ -366,7 +408,7 @@ public class PortalDataService {
         );
 
         Map<String, Object> stats = new LinkedHashMap<>();
-        stats.put("totalReviews", totalReviews == null ? 0L : totalReviews);
+        stats.put("totalReviews", totalReviews);
         stats.put("averageRating", avgRating == null ? 0.0 : avgRating);
         stats.put("monthlyViews", shop.get("reviewCount") == null ? 0L : asLong(shop.get("reviewCount")));
         stats.put("activeServices", activeServices == null ? 0L : activeServices);
@@ -528,6 +570,13 @@ public class PortalDataService {
 
     public List<Map<String, Object>> listStoreReviewsWithReplies(UUID storeId) {
         UUID normalizedStoreId = requireUuid(storeId, "storeId is required");
+        return listStoreReviewsWithRepliesForStores(List.of(normalizedStoreId)).getOrDefault(normalizedStoreId, List.of());
+    }
+
+    public Map<UUID, List<Map<String, Object>>> listStoreReviewsWithRepliesForStores(Collection<UUID> storeIds) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return Map.of();
+        }
         List<Map<String, Object>> rows = jdbc.queryForList(
                 """
                 select
@@ -545,13 +594,13 @@ public class PortalDataService {
                 from store_reviews sr
                 left join store_review_replies srr on srr.review_id = sr.id
                 left join users ou on ou.id = srr.owner_user_id
-                where sr.store_id = :storeId
-                order by sr.created_at desc
+                where sr.store_id in (:storeIds)
+                order by sr.store_id, sr.created_at desc
                 """,
-                new MapSqlParameterSource("storeId", normalizedStoreId)
+                new MapSqlParameterSource("storeIds", storeIds)
         );
 
-        List<Map<String, Object>> out = new ArrayList<>();
+        Map<UUID, List<Map<String, Object>>> out = new LinkedHashMap<>();
         for (Map<String, Object> row : rows) {
             Map<String, Object> item = new LinkedHashMap<>();
             item.put("id", row.get("id"));
@@ -565,7 +614,7 @@ public class PortalDataService {
             item.put("ownerResponse", normalizeOptional(Objects.toString(row.get("owner_response"), null)));
             item.put("ownerResponseAt", toOffsetDateTime(row.get("owner_response_at")));
             item.put("ownerResponseBy", row.get("owner_response_by"));
-            out.add(item);
+            out.computeIfAbsent((UUID) row.get("store_id"), ignored -> new ArrayList<>()).add(item);
         }
         return out;
     }
@@ -582,52 +631,6 @@ public class PortalDataService {
         );
     }
 
-    public List<Map<String, Object>> compareByService(String serviceName) {
-        String normalizedService = normalizeRequired(serviceName, "service is required");
-
-        List<Map<String, Object>> rows = jdbc.queryForList(
-                """
-                select
-                  s.id,
-                  s.name,
-                  coalesce(nullif(trim(concat_ws(', ', s.city, s.state)), ''), s.address, 'Location unavailable') as location,
-                  coalesce(vs.avg_rating, s.rating, 0) as rating,
-                  coalesce(vs.review_count, s.rating_count, 0) as review_count,
-                  ss.base_price_cents,
-                  ss.duration_minutes,
-                  exists (
-                    select 1
-                    from receipt_uploads ru
-                    join receipt_validations rv on rv.receipt_id = ru.id
-                    where ru.store_id = s.id
-                      and rv.result = 'APPROVED'
-                  ) as has_verified_mechanic
-                from store_services ss
-                join services sv on sv.id = ss.service_id
-                join stores s on s.id = ss.store_id
-                left join v_store_rating_summary vs on vs.store_id = s.id
-                where lower(sv.name) = lower(:serviceName)
-                order by ss.base_price_cents asc nulls last, coalesce(vs.avg_rating, s.rating, 0) desc
-                """,
-                new MapSqlParameterSource("serviceName", normalizedService)
-        );
-
-        List<Map<String, Object>> items = new ArrayList<>();
-        for (Map<String, Object> row : rows) {
-            Map<String, Object> item = new LinkedHashMap<>();
-            item.put("id", row.get("id"));
-            item.put("name", row.get("name"));
-            item.put("location", row.get("location"));
-            item.put("rating", asDouble(row.get("rating")));
-            item.put("reviewCount", asLong(row.get("review_count")));
-            item.put("price", centsToDollars(asInt(row.get("base_price_cents"))));
-            item.put("durationMinutes", asInt(row.get("duration_minutes")));
-            item.put("hasVerifiedMechanic", asBoolean(row.get("has_verified_mechanic")));
-            items.add(item);
-        }
-        return items;
-    }
-
     public Map<String, Object> createReceipt(UUID userId, ReceiptCreateRequest request) {
         if (userId == null) {
             throw new ResponseStatusException(BAD_REQUEST, "User is required");
@@ -923,6 +926,7 @@ public class PortalDataService {
                 """
                 select
                   id,
+                  store_id,
                   status,
                   (
                     select rv.result
@@ -951,6 +955,7 @@ public class PortalDataService {
             throw new ResponseStatusException(CONFLICT, "A final decision already exists for this receipt.");
         }
 
+        String nextStatus = toReceiptStatus(normalized);
         jdbc.update(
                 """
                 insert into receipt_validations (receipt_id, validator_user_id, result, notes)
@@ -972,18 +977,44 @@ public class PortalDataService {
                 """,
                 new MapSqlParameterSource()
                         .addValue("receiptId", receiptId)
-                        .addValue("status", toReceiptStatus(normalized))
+                        .addValue("status", nextStatus)
         );
+        boolean verificationChanged = "APPROVED".equalsIgnoreCase(currentStatus) || "APPROVED".equals(nextStatus);
+        if (verificationChanged && existing.get("store_id") instanceof UUID storeId) {
+            refreshVerifiedReceiptCount(storeId);
+            storeChangePublisher.storesChanged(List.of(storeId));
+        }
 
         Map<String, Object> out = getReceiptDetail(receiptId);
         out.put("message", "Decision saved");
         return out;
     }
 
+    private void refreshVerifiedReceiptCount(UUID storeId) {
+        jdbc.update(
+                """
+                update stores s
+                set verified_receipt_count = (
+                  select count(*)
+                  from receipt_uploads ru
+                  where ru.store_id = s.id
+                    and exists (
+                      select 1
+                      from receipt_validations rv
+                      where rv.receipt_id = ru.id
+                        and rv.result = 'APPROVED'
+                    )
+                )
+                where s.id = :storeId
+                """,
+                new MapSqlParameterSource("storeId", storeId)
+        );
+    }
+
     public Map<String, Object> getAdminDashboard() {
         Long totalUsers = jdbc.queryForObject("select count(*) from users", new MapSqlParameterSource(), Long.class);
         Long totalShops = jdbc.queryForObject("select count(*) from stores", new MapSqlParameterSource(), Long.class);
-        Long totalReviews = jdbc.queryForObject("select count(*) from store_reviews", new MapSqlParameterSource(), Long.class);
+        Long totalReviews = jdbc.queryForObject("select coalesce(sum(review_count), 0) from store_rating_stats", new MapSqlParameterSource(), Long.class);
         Long issues = jdbc.queryForObject(
                 """
                 select count(*)
@@ -1079,7 +1110,7 @@ public class PortalDataService {
         Map<String, Object> stats = new LinkedHashMap<>();
         stats.put("totalUsers", totalUsers == null ? 0L : totalUsers);
         stats.put("totalShops", totalShops == null ? 0L : totalShops);
-        stats.put("totalReviews", totalReviews == null ? 0L : totalReviews);
+        stats.put("totalReviews", totalReviews);
         stats.put("issues", issues == null ? 0L : issues);
 
         Map<String, Object> out = new LinkedHashMap<>();
@@ -1261,6 +1292,65 @@ public class PortalDataService {
                         .addValue("basePriceCents", cents)
                         .addValue("durationMinutes", durationMinutes)
         );
+        syncServicesText(storeId);
+        refreshStorePriceStats(storeId);
+    }
+
+    private void syncServicesText(UUID storeId) {
+        jdbc.update(
+                """
+                update stores s
+                set services_text = left(concat_ws(', ', catalog.names, s.services_free_text), 2000),
+                    updated_at = now()
+                from (
+                  select string_agg(sv.name, ', ' order by sv.name) as names
+                  from store_services ss
+                  join services sv on sv.id = ss.service_id
+                  where ss.store_id = :storeId
+                ) catalog
+                where s.id = :storeId
+                  and s.services_text is distinct from left(concat_ws(', ', catalog.names, s.services_free_text), 2000)
+                """,
+                new MapSqlParameterSource("storeId", storeId)
+        );
+    }
+
+    private void refreshStorePriceStats(UUID storeId) {
+        jdbc.update(
+                """
+                insert into store_price_stats (store_id, avg_price_cents, min_price_cents, max_price_cents, service_count, price_tier, updated_at)
+                select :storeId,
+                       agg.avg_cents,
+                       agg.min_cents,
+                       agg.max_cents,
+                       agg.service_count,
+                       case
+                         when agg.avg_cents is null then null
+                         when agg.avg_cents < 5000 then '$'
+                         when agg.avg_cents < 15000 then '$$'
+                         else '$$$'
+                       end,
+                       now()
+                from (
+                  select cast(round(avg(ss.base_price_cents)) as integer) as avg_cents,
+                         min(ss.base_price_cents) as min_cents,
+                         max(ss.base_price_cents) as max_cents,
+                         count(*) as service_count
+                  from store_services ss
+                  where ss.store_id = :storeId
+                ) agg
+                on conflict (store_id)
+                do update set
+                  avg_price_cents = excluded.avg_price_cents,
+                  min_price_cents = excluded.min_price_cents,
+                  max_price_cents = excluded.max_price_cents,
+                  service_count = excluded.service_count,
+                  price_tier = excluded.price_tier,
+                  updated_at = now()
+                """,
+                new MapSqlParameterSource().addValue("storeId", storeId)
+        );
+        storeChangePublisher.storesChanged(List.of(storeId));
     }
 
     private Map<String, Object> getManagedService(UUID storeId, UUID serviceId) {
@@ -1317,7 +1407,7 @@ public class PortalDataService {
     }
 
     private UUID createServiceRow(String name, String category) {
-        return jdbc.queryForObject(
+        UUID serviceId = jdbc.queryForObject(
                 """
                 insert into services (name, category, description)
                 values (:name, :category, null)
@@ -1328,6 +1418,25 @@ public class PortalDataService {
                         .addValue("category", category),
                 UUID.class
         );
+        registerServiceAlias(serviceId, name);
+        return serviceId;
+    }
+
+    private void registerServiceAlias(UUID serviceId, String name) {
+        String alias = ServiceAliases.normalize(name);
+        if (alias == null) {
+            return;
+        }
+        jdbc.update(
+                """
+                insert into service_aliases (alias, service_id)
+                values (:alias, :serviceId)
+                on conflict (alias) do nothing
+                """,
+                new MapSqlParameterSource()
+                        .addValue("alias", alias)
+                        .addValue("serviceId", serviceId)
+        );
     }
 
     private UUID resolveServiceForManagedUpdate(UUID storeId,
@@ -1356,6 +1465,7 @@ public class PortalDataService {
                             .addValue("name", nextName)
                             .addValue("category", nextCategory)
             );
+            registerServiceAlias(currentServiceId, nextName);
             return currentServiceId;
         }
 
@@ -1534,6 +1644,68 @@ public class PortalDataService {
         }
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void compileMissingOpenHours() {
+        if (!backfillOpenHoursOnStartup) {
+            return;
+        }
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                """
+                select store_id, hours_json, hours_time_zone
+                from shop_profiles
+                where hours_json is not null
+                  and open_minutes_compiled_at is null
+                """,
+                new MapSqlParameterSource()
+        );
+        List<UUID> compiled = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            UUID storeId = (UUID) row.get("store_id");
+            String openMinutes = WeeklyOpenHours.compile(parseHours(row.get("hours_json"))).orElse(null);
+            String storedTimeZone = Objects.toString(row.get("hours_time_zone"), null);
+            jdbc.update(
+                    """
+                    update shop_profiles
+                    set open_minutes = cast(:openMinutes as bit(10080)),
+                        hours_time_zone = :timeZone,
+                        open_minutes_compiled_at = now()
+                    where store_id = :storeId
+                    """,
+                    new MapSqlParameterSource()
+                            .addValue("storeId", storeId)
+                            .addValue("openMinutes", openMinutes)
+                            .addValue("timeZone", isRegionTimeZone(storedTimeZone) ? storedTimeZone : defaultHoursTimeZone)
+            );
+            if (openMinutes != null) {
+                compiled.add(storeId);
+            }
+        }
+        if (!compiled.isEmpty()) {
+            storeChangePublisher.storesChanged(compiled);
+        }
+    }
+
+    private String resolveTimeZone(String timeZone) {
+        String candidate = normalizeOptional(timeZone);
+        if (candidate == null) {
+            return defaultHoursTimeZone;
+        }
+        String zoneId;
+        try {
+            zoneId = ZoneId.of(candidate).getId();
+        } catch (DateTimeException ex) {
+            throw new ResponseStatusException(BAD_REQUEST, "Unknown time zone: " + candidate);
+        }
+        if (!isRegionTimeZone(zoneId)) {
+            throw new ResponseStatusException(BAD_REQUEST, "Time zone must be a region ID such as America/Toronto: " + candidate);
+        }
+        return zoneId;
+    }
+
+    private boolean isRegionTimeZone(String zoneId) {
+        return zoneId != null && ZoneId.getAvailableZoneIds().contains(zoneId);
+    }
+
     private Map<String, Object> parseHours(Object hoursJson) {
         if (hoursJson == null) {
             return new LinkedHashMap<>();
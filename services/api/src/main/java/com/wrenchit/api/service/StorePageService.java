@@ -0,0 +1,98 @@
+package com.wrenchit.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wrenchit.engagement.service.SavedShopService;
+import com.wrenchit.stores.entity.Store;
+import com.wrenchit.stores.service.StoreService;
+
+@Service
+public class StorePageService {
+
+    public static final int MAX_STORES = 25;
+
+    private final StoreService storeService;
+    private final PortalDataService portalDataService;
+    private final SavedShopService savedShopService;
+    private final Duration storeTtl;
+    private final Duration servicesTtl;
+    private final Duration reviewsTtl;
+    private final TransactionTemplate readTransaction;
+
+    public StorePageService(StoreService storeService,
+                            PortalDataService portalDataService,
+                            SavedShopService savedShopService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${wrenchit.stores.page.store-ttl:PT5M}") Duration storeTtl,
+                            @Value("${wrenchit.stores.page.services-ttl:PT5M}") Duration servicesTtl,
+                            @Value("${wrenchit.stores.page.reviews-ttl:PT1M}") Duration reviewsTtl) {
+        this.storeService = storeService;
+        this.portalDataService = portalDataService;
+        this.savedShopService = savedShopService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.storeTtl = storeTtl;
+        this.servicesTtl = servicesTtl;
+        this.reviewsTtl = reviewsTtl;
+    }
+
+    public List<StorePage> load(List<UUID> storeIds, UUID userId) {
+        List<UUID> ids = List.copyOf(new LinkedHashSet<>(storeIds));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > MAX_STORES) {
+            throw new IllegalArgumentException("At most " + MAX_STORES + " stores can be loaded at once.");
+        }
+
+        List<StorePage> pages = readTransaction.execute(status -> {
+            List<Store> stores = storeService.getByIdsOrdered(ids);
+            Map<UUID, String> priceRanges = storeService.getPriceRangesByIds(ids);
+            Map<UUID, List<Map<String, Object>>> services = portalDataService.listServicesForStores(ids);
+            Map<UUID, List<Map<String, Object>>> reviews = portalDataService.listStoreReviewsWithRepliesForStores(ids);
+            Set<UUID> savedIds = userId == null ? null : savedShopService.savedStoreIds(userId, ids);
+
+            List<StorePage> loaded = new ArrayList<>();
+            for (Store store : stores) {
+                UUID id = store.getId();
+                loaded.add(new StorePage(
+                        store,
+                        priceRanges.get(id),
+                        services.getOrDefault(id, List.of()),
+                        reviews.getOrDefault(id, List.of()),
+                        savedIds == null ? null : savedIds.contains(id)));
+            }
+            return loaded;
+        });
+        return pages == null ? List.of() : pages;
+    }
+
+    public Duration getStoreTtl() {
+        return storeTtl;
+    }
+
+    public Duration getServicesTtl() {
+        return servicesTtl;
+    }
+
+    public Duration getReviewsTtl() {
+        return reviewsTtl;
+    }
+
+    public record StorePage(Store store,
+                            String priceRange,
+                            List<Map<String, Object>> services,
+                            List<Map<String, Object>> reviews,
+                            Boolean saved) {}
+}
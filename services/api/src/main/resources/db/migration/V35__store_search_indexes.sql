@@ -0,0 +1,17 @@
+CREATE INDEX IF NOT EXISTS idx_stores_services_text_trgm
+  ON stores USING gin (services_text gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_stores_city_lower
+  ON stores (lower(city));
+
+CREATE INDEX IF NOT EXISTS idx_stores_state_lower
+  ON stores (lower(state));
+
+CREATE INDEX IF NOT EXISTS idx_stores_rating_key
+  ON stores ((coalesce(rating, -1)), id);
+
+CREATE INDEX IF NOT EXISTS idx_stores_rating_count_key
+  ON stores ((coalesce(rating_count, -1)), id);
+
+CREATE INDEX IF NOT EXISTS idx_stores_name_key
+  ON stores (name, id);
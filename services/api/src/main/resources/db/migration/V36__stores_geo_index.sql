@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+CREATE INDEX IF NOT EXISTS idx_stores_earth_location
+  ON stores USING gist (ll_to_earth(lat, lng))
+  WHERE lat IS NOT NULL AND lng IS NOT NULL;
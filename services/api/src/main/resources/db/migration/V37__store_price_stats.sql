@@ -0,0 +1,38 @@
+CREATE TABLE IF NOT EXISTS store_price_stats (
+  store_id uuid PRIMARY KEY REFERENCES stores(id) ON DELETE CASCADE,
+  avg_price_cents integer,
+  min_price_cents integer,
+  max_price_cents integer,
+  service_count integer NOT NULL DEFAULT 0,
+  price_tier varchar(3),
+  updated_at timestamptz NOT NULL DEFAULT now(),
+  CONSTRAINT chk_store_price_stats_tier CHECK (price_tier IS NULL OR price_tier IN ('$', '$$', '$$$'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_store_price_stats_tier
+  ON store_price_stats(price_tier, store_id)
+  WHERE price_tier IS NOT NULL;
+
+INSERT INTO store_price_stats (store_id, avg_price_cents, min_price_cents, max_price_cents, service_count, price_tier, updated_at)
+SELECT agg.store_id,
+       agg.avg_cents,
+       agg.min_cents,
+       agg.max_cents,
+       agg.service_count,
+       CASE
+         WHEN agg.avg_cents IS NULL THEN NULL
+         WHEN agg.avg_cents < 5000 THEN '$'
+         WHEN agg.avg_cents < 15000 THEN '$$'
+         ELSE '$$$'
+       END,
+       now()
+FROM (
+  SELECT ss.store_id,
+         CAST(round(avg(ss.base_price_cents)) AS integer) AS avg_cents,
+         min(ss.base_price_cents) AS min_cents,
+         max(ss.base_price_cents) AS max_cents,
+         count(*) AS service_count
+  FROM store_services ss
+  GROUP BY ss.store_id
+) agg
+ON CONFLICT (store_id) DO NOTHING;
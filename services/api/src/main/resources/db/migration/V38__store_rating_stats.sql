@@ -0,0 +1,36 @@
+CREATE TABLE IF NOT EXISTS store_rating_stats (
+  store_id uuid PRIMARY KEY REFERENCES stores(id) ON DELETE CASCADE,
+  review_count integer NOT NULL DEFAULT 0,
+  rating_sum bigint NOT NULL DEFAULT 0,
+  stars_1 integer NOT NULL DEFAULT 0,
+  stars_2 integer NOT NULL DEFAULT 0,
+  stars_3 integer NOT NULL DEFAULT 0,
+  stars_4 integer NOT NULL DEFAULT 0,
+  stars_5 integer NOT NULL DEFAULT 0,
+  last_review_at timestamptz,
+  updated_at timestamptz NOT NULL DEFAULT now()
+);
+
+INSERT INTO store_rating_stats (store_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, last_review_at, updated_at)
+SELECT store_id,
+       count(*),
+       sum(rating),
+       count(*) FILTER (WHERE rating = 1),
+       count(*) FILTER (WHERE rating = 2),
+       count(*) FILTER (WHERE rating = 3),
+       count(*) FILTER (WHERE rating = 4),
+       count(*) FILTER (WHERE rating = 5),
+       max(created_at),
+       now()
+FROM store_reviews
+GROUP BY store_id
+ON CONFLICT (store_id) DO NOTHING;
+
+-- Keep the view for existing readers, now backed by the maintained counters.
+CREATE OR REPLACE VIEW v_store_rating_summary AS
+SELECT
+  store_id,
+  review_count,
+  (rating_sum::double precision / review_count) AS avg_rating
+FROM store_rating_stats
+WHERE review_count > 0;
@@ -0,0 +1,17 @@
+create unlogged table if not exists places_search_cache (
+    cache_key text primary key,
+    place_ids text[] not null,
+    fetched_at timestamptz not null default now()
+);
+
+create index if not exists idx_places_search_cache_fetched_at
+    on places_search_cache (fetched_at);
+
+create unlogged table if not exists places_details_cache (
+    place_id varchar(128) primary key,
+    payload jsonb,
+    fetched_at timestamptz not null default now()
+);
+
+create index if not exists idx_places_details_cache_fetched_at
+    on places_details_cache (fetched_at);
@@ -0,0 +1,5 @@
+create index if not exists idx_stores_updated_at
+    on stores (updated_at);
+
+create index if not exists idx_store_price_stats_updated_at
+    on store_price_stats (updated_at);
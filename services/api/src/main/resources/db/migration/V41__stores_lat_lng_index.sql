@@ -0,0 +1,3 @@
+create index if not exists idx_stores_lat_lng
+    on stores (lat, lng)
+    where lat is not null and lng is not null;
@@ -0,0 +1,8 @@
+alter table shop_profiles
+    add column if not exists hours_time_zone varchar(64),
+    add column if not exists open_minutes bit(10080),
+    add column if not exists open_minutes_compiled_at timestamptz;
+
+create index if not exists idx_shop_profiles_open_minutes
+    on shop_profiles (store_id)
+    where open_minutes is not null;
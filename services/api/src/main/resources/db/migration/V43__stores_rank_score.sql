@@ -0,0 +1,5 @@
+alter table stores
+    add column if not exists rank_score double precision not null default 0;
+
+create index if not exists idx_stores_rank_score
+    on stores (rank_score, id);
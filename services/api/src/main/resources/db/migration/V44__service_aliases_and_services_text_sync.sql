@@ -0,0 +1,60 @@
+CREATE TABLE IF NOT EXISTS service_aliases (
+  alias varchar(120) PRIMARY KEY,
+  service_id uuid NOT NULL REFERENCES services(id) ON DELETE CASCADE,
+  created_at timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_service_aliases_service_id
+  ON service_aliases(service_id);
+
+CREATE INDEX IF NOT EXISTS idx_services_category_lower
+  ON services (lower(category));
+
+INSERT INTO service_aliases (alias, service_id)
+SELECT lower(name), id
+FROM services
+ON CONFLICT (alias) DO NOTHING;
+
+INSERT INTO service_aliases (alias, service_id)
+SELECT a.alias, s.id
+FROM (VALUES
+  ('oil', 'Oil Change'),
+  ('oil change', 'Oil Change'),
+  ('oil and filter', 'Oil Change'),
+  ('lube', 'Oil Change'),
+  ('lube oil filter', 'Oil Change'),
+  ('synthetic oil change', 'Oil Change'),
+  ('brake', 'Brake Pads Replacement'),
+  ('brakes', 'Brake Pads Replacement'),
+  ('brake pads', 'Brake Pads Replacement'),
+  ('brake job', 'Brake Pads Replacement'),
+  ('brake repair', 'Brake Pads Replacement'),
+  ('tire', 'Tire Rotation'),
+  ('tires', 'Tire Rotation'),
+  ('tyre rotation', 'Tire Rotation'),
+  ('rotate tires', 'Tire Rotation'),
+  ('battery', 'Battery Replacement'),
+  ('car battery', 'Battery Replacement'),
+  ('battery service', 'Battery Replacement')
+) AS a(alias, service_name)
+JOIN services s ON s.name = a.service_name
+ON CONFLICT (alias) DO NOTHING;
+
+ALTER TABLE stores
+  ADD COLUMN IF NOT EXISTS services_free_text varchar(2000);
+
+UPDATE stores
+SET services_free_text = services_text
+WHERE services_free_text IS NULL
+  AND services_text IS NOT NULL;
+
+UPDATE stores s
+SET services_text = left(concat_ws(', ', catalog.names, s.services_free_text), 2000),
+    updated_at = now()
+FROM (
+  SELECT ss.store_id, string_agg(sv.name, ', ' ORDER BY sv.name) AS names
+  FROM store_services ss
+  JOIN services sv ON sv.id = ss.service_id
+  GROUP BY ss.store_id
+) catalog
+WHERE s.id = catalog.store_id;
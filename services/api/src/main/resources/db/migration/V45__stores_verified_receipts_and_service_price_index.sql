@@ -0,0 +1,21 @@
+alter table stores
+    add column if not exists verified_receipt_count integer not null default 0;
+
+update stores s
+set verified_receipt_count = verified.receipt_count
+from (
+  select ru.store_id, count(*) as receipt_count
+  from receipt_uploads ru
+  where ru.store_id is not null
+    and exists (
+      select 1
+      from receipt_validations rv
+      where rv.receipt_id = ru.id
+        and rv.result = 'APPROVED'
+    )
+  group by ru.store_id
+) verified
+where s.id = verified.store_id;
+
+create index if not exists idx_store_services_service_price
+    on store_services (service_id, (coalesce(base_price_cents, 2147483647)), store_id);
@@ -0,0 +1,2 @@
+alter table places_search_cache
+    add column if not exists next_page_token text;
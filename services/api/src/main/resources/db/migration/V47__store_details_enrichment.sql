@@ -0,0 +1,11 @@
+alter table stores
+    add column if not exists details_synced_at timestamptz;
+
+update stores
+set details_synced_at = updated_at
+where details_synced_at is null
+  and (phone is not null or website is not null);
+
+create index if not exists idx_stores_details_pending
+    on stores (google_place_id)
+    where google_place_id is not null and details_synced_at is null;
@@ -0,0 +1,19 @@
+create table if not exists places_quota_buckets (
+    name text primary key,
+    tokens double precision not null,
+    refilled_at timestamptz not null default now()
+);
+
+create table if not exists places_sweep_progress (
+    region text primary key,
+    next_tile integer not null default 0,
+    pass_completed_at timestamptz,
+    updated_at timestamptz not null default now()
+);
+
+alter table stores
+    add column if not exists refresh_claimed_at timestamptz;
+
+create index if not exists idx_stores_refresh_due
+    on stores (details_synced_at nulls first)
+    where google_place_id is not null;
@@ -0,0 +1,117 @@
+package com.wrenchit.api.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+import com.wrenchit.stores.google.CachingPlacesClient;
+import com.wrenchit.stores.google.GooglePlacesClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingPlacesClientTest {
+
+    @Test
+    void detailsAreServedFromLocalTierAfterFirstFetch() {
+        GooglePlacesClient google = mock(GooglePlacesClient.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CachingPlacesClient client = client(google, registry);
+        PlaceDetails details = new PlaceDetails();
+        details.setPlaceId("place-1");
+        when(google.details("place-1")).thenReturn(details);
+
+        PlaceDetails first = client.details("place-1");
+        PlaceDetails second = client.details("place-1");
+
+        assertSame(first, second);
+        verify(google, times(1)).details("place-1");
+        assertEquals(1.0, registry.get(CachingPlacesClient.REQUESTS_METRIC)
+                .tag("operation", "details").tag("result", "local").counter().count());
+        assertEquals(0.5, registry.get(CachingPlacesClient.HIT_RATIO_METRIC)
+                .tag("operation", "details").gauge().value());
+    }
+
+    @Test
+    void openNowSearchBypassesCache() {
+        GooglePlacesClient google = mock(GooglePlacesClient.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CachingPlacesClient client = client(google, registry);
+        when(google.search("oil change", 5, true)).thenReturn(List.of(new PlaceSearchResult()));
+
+        client.search("oil change", 5, true);
+        client.search("oil change", 5, true);
+
+        verify(google, times(2)).search("oil change", 5, true);
+        assertEquals(0.0, registry.get(CachingPlacesClient.HIT_RATIO_METRIC)
+                .tag("operation", "search").gauge().value());
+    }
+
+    @Test
+    void laterPagesFollowTheCachedTokenChain() {
+        GooglePlacesClient google = mock(GooglePlacesClient.class);
+        CachingPlacesClient client = client(google, new SimpleMeterRegistry());
+        when(google.fetchPage("oil change", null, false)).thenReturn(new PlaceSearchPage(List.of(place("a")), "token-1"));
+        when(google.fetchPage("oil change", "token-1", false)).thenReturn(new PlaceSearchPage(List.of(place("b")), null));
+
+        client.searchPage("oil change", 0, false);
+        PlaceSearchPage second = client.searchPage("oil change", 1, false);
+        PlaceSearchPage third = client.searchPage("oil change", 2, false);
+
+        assertEquals("b", second.getResults().get(0).getPlaceId());
+        assertTrue(third.getResults().isEmpty());
+        verify(google, times(1)).fetchPage("oil change", null, false);
+        verify(google, times(1)).fetchPage("oil change", "token-1", false);
+    }
+
+    @Test
+    void expiredPageTokenRewalksFromFirstPage() {
+        GooglePlacesClient google = mock(GooglePlacesClient.class);
+        GooglePlacesProperties properties = new GooglePlacesProperties();
+        properties.getCache().setPageTokenTtl(Duration.ZERO);
+        CachingPlacesClient client = client(google, new SimpleMeterRegistry(), properties);
+        when(google.fetchPage("oil change", null, false))
+                .thenReturn(new PlaceSearchPage(List.of(place("a")), "token-1"))
+                .thenReturn(new PlaceSearchPage(List.of(place("a")), "token-2"));
+        when(google.fetchPage("oil change", "token-2", false)).thenReturn(new PlaceSearchPage(List.of(place("b")), null));
+
+        client.searchPage("oil change", 0, false);
+        PlaceSearchPage second = client.searchPage("oil change", 1, false);
+
+        assertEquals("b", second.getResults().get(0).getPlaceId());
+        verify(google, times(2)).fetchPage("oil change", null, false);
+        verify(google, never()).fetchPage("oil change", "token-1", false);
+    }
+
+    private PlaceSearchResult place(String placeId) {
+        PlaceSearchResult place = new PlaceSearchResult();
+        place.setPlaceId(placeId);
+        return place;
+    }
+
+    private CachingPlacesClient client(GooglePlacesClient google, SimpleMeterRegistry registry) {
+        return client(google, registry, new GooglePlacesProperties());
+    }
+
+    private CachingPlacesClient client(GooglePlacesClient google, SimpleMeterRegistry registry, GooglePlacesProperties properties) {
+        CachingPlacesClient client = new CachingPlacesClient(google, mock(NamedParameterJdbcTemplate.class), new ObjectMapper(),
+                properties, registry);
+        client.registerMetrics();
+        return client;
+    }
+}
@@ -0,0 +1,161 @@
+package com.wrenchit.api.service;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+import com.wrenchit.stores.search.LuceneStoreSearchEngine;
+import com.wrenchit.stores.search.StoreDocument;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.search.StoreSearchHits;
+import com.wrenchit.stores.service.StoreRankService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LuceneStoreSearchEngineTest {
+
+    private static final UUID BRAKES = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID TIRES = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID FAR_AWAY = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @TempDir
+    Path indexPath;
+
+    private final List<StoreDocument> rows = new ArrayList<>(List.of(
+            new StoreDocument(BRAKES, "Downtown Brake Center", "12 King St", "Toronto", "ON", "M5H",
+                    "Brake pads, Rotors", "555-0100", null, 43.651, -79.383, 4.8, 120, 4.9, "$$"),
+            new StoreDocument(TIRES, "Queen Tire Shop", "99 Queen St", "Toronto", "ON", "M5V",
+                    "Tire rotation, Oil change", null, "https://tires.example", 43.648, -79.396, 4.1, 40, 4.2, "$"),
+            new StoreDocument(FAR_AWAY, "Valley Brakes", "1 Main St", "Ottawa", "ON", "K1P",
+                    "Brake inspection", "555-0199", null, 45.421, -75.697, 4.5, 15, 4.4, "$$")));
+
+    private LuceneStoreSearchEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            MapSqlParameterSource params = invocation.getArgument(1);
+            RowMapper<StoreDocument> mapper = invocation.getArgument(2);
+            List<StoreDocument> matching = rows.stream()
+                    .filter(row -> !sql.contains(":after") || row.id().compareTo((UUID) params.getValue("after")) > 0)
+                    .sorted(Comparator.comparing(StoreDocument::id))
+                    .toList();
+            List<StoreDocument> mapped = new ArrayList<>();
+            for (int i = 0; i < matching.size(); i++) {
+                mapped.add(mapper.mapRow(resultSet(matching.get(i)), i));
+            }
+            return mapped;
+        });
+        engine = new LuceneStoreSearchEngine(jdbc, indexPath, Duration.ofHours(1));
+        engine.open();
+        engine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.close();
+    }
+
+    @Test
+    void textSearchMatchesStemsAndTyposWithFilters() {
+        StoreSearchHits stemmed = engine.search(query("brakes", null, null, null, null), 10, 0, IncludeTotal.EXACT).orElseThrow();
+        assertEquals(Set.of(BRAKES, FAR_AWAY), Set.copyOf(stemmed.storeIds()));
+        assertEquals(2L, stemmed.total());
+
+        StoreSearchHits typo = engine.search(query("quen tire", null, null, null, null), 10, 0, IncludeTotal.NONE).orElseThrow();
+        assertEquals(List.of(TIRES), typo.storeIds());
+
+        StoreSearchHits filtered = engine.search(query("brake", null, null, null, "ottawa"), 10, 0, IncludeTotal.NONE).orElseThrow();
+        assertEquals(List.of(FAR_AWAY), filtered.storeIds());
+    }
+
+    @Test
+    void radiusSearchSortsByDistanceAndPages() {
+        StoreSearchQuery nearby = query(null, 43.650, -79.384, 25.0, null);
+
+        StoreSearchHits first = engine.search(nearby, 1, 0, IncludeTotal.ESTIMATE).orElseThrow();
+        StoreSearchHits second = engine.search(nearby, 1, 1, IncludeTotal.ESTIMATE).orElseThrow();
+
+        assertEquals(List.of(BRAKES), first.storeIds());
+        assertEquals(List.of(TIRES), second.storeIds());
+        assertEquals(2L, first.total());
+        assertFalse(first.totalEstimated());
+    }
+
+    @Test
+    void rankRefreshReordersRelevanceResults() throws Exception {
+        StoreSearchQuery relevance = new StoreSearchQuery(null, null, null, null, null, null, null, null, null, null, null,
+                StoreSort.RELEVANCE, SortDirection.DESC, null);
+        assertEquals(List.of(BRAKES, FAR_AWAY, TIRES), engine.search(relevance, 10, 0, IncludeTotal.NONE).orElseThrow().storeIds());
+
+        StoreDocument tires = rows.get(1);
+        rows.set(1, new StoreDocument(tires.id(), tires.name(), tires.address(), tires.city(), tires.state(), tires.postalCode(),
+                tires.servicesText(), tires.phone(), tires.website(), tires.lat(), tires.lng(), tires.rating(), tires.ratingCount(),
+                5.5, tires.priceTier()));
+        NamedParameterJdbcTemplate rankJdbc = mock(NamedParameterJdbcTemplate.class);
+        when(rankJdbc.queryForObject(anyString(), any(SqlParameterSource.class), eq(Double.class))).thenReturn(4.0);
+        when(rankJdbc.queryForList(anyString(), any(SqlParameterSource.class), eq(UUID.class))).thenReturn(List.of(TIRES));
+        StoreRankService rankService = new StoreRankService(rankJdbc, true, 10, Duration.ofHours(6),
+                new StoreChangePublisher(List.of(engine)));
+
+        assertEquals(1, rankService.refresh(List.of(TIRES)));
+
+        List<UUID> reordered = List.of();
+        for (int attempt = 0; attempt < 50 && !reordered.equals(List.of(TIRES, BRAKES, FAR_AWAY)); attempt++) {
+            Thread.sleep(100);
+            reordered = engine.search(relevance, 10, 0, IncludeTotal.NONE).orElseThrow().storeIds();
+        }
+        assertEquals(List.of(TIRES, BRAKES, FAR_AWAY), reordered);
+    }
+
+    private StoreSearchQuery query(String text, Double lat, Double lng, Double radiusKm, String city) {
+        return new StoreSearchQuery(text, lat, lng, radiusKm, null, null, city, null, null, null, null,
+                lat == null ? StoreSort.RATING : StoreSort.DISTANCE, lat == null ? SortDirection.DESC : SortDirection.ASC, null);
+    }
+
+    private ResultSet resultSet(StoreDocument row) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(row.id());
+        when(rs.getString("name")).thenReturn(row.name());
+        when(rs.getString("address")).thenReturn(row.address());
+        when(rs.getString("city")).thenReturn(row.city());
+        when(rs.getString("state")).thenReturn(row.state());
+        when(rs.getString("postal_code")).thenReturn(row.postalCode());
+        when(rs.getString("services_text")).thenReturn(row.servicesText());
+        when(rs.getString("phone")).thenReturn(row.phone());
+        when(rs.getString("website")).thenReturn(row.website());
+        when(rs.getObject("lat", Double.class)).thenReturn(row.lat());
+        when(rs.getObject("lng", Double.class)).thenReturn(row.lng());
+        when(rs.getObject("rating", Double.class)).thenReturn(row.rating());
+        when(rs.getObject("rating_count", Integer.class)).thenReturn(row.ratingCount());
+        when(rs.getObject("rank_score", Double.class)).thenReturn(row.rankScore());
+        when(rs.getString("price_tier")).thenReturn(row.priceTier());
+        return rs;
+    }
+}
@@ -0,0 +1,122 @@
+package com.wrenchit.api.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.google.GooglePlacesClient;
+import com.wrenchit.stores.google.PlacesCircuitBreaker;
+import com.wrenchit.stores.google.ResilientPlacesClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResilientPlacesClientTest {
+
+    @Test
+    void repeatedFailuresOpenTheCircuitAndSkipGoogle() {
+        GooglePlacesClient google = mock(GooglePlacesClient.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResilientPlacesClient client = new ResilientPlacesClient(google, properties(), registry);
+        when(google.details(anyString())).thenThrow(new IllegalStateException("Google Places details failed with status: UNKNOWN_ERROR"));
+
+        assertThrows(IllegalStateException.class, () -> client.details("place-1"));
+        assertThrows(IllegalStateException.class, () -> client.details("place-2"));
+        assertThrows(IllegalStateException.class, () -> client.details("place-3"));
+
+        assertFalse(client.isAvailable());
+        assertEquals(PlacesCircuitBreaker.State.OPEN, client.getCircuitState());
+        verify(google, times(2)).details(anyString());
+        assertEquals(1.0, registry.get(ResilientPlacesClient.CALLS_METRIC)
+                .tag("operation", "details").tag("outcome", "short_circuited").counter().count());
+        assertEquals(2.0, registry.get(ResilientPlacesClient.CIRCUIT_STATE_METRIC).gauge().value());
+    }
+
+    @Test
+    void slowCallsFailAtTheDeadline() {
+        GooglePlacesClient google = mock(GooglePlacesClient.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResilientPlacesClient client = new ResilientPlacesClient(google, properties(), registry);
+        when(google.details("slow")).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return new PlaceDetails();
+        });
+
+        long started = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> client.details("slow"));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 1_000);
+        assertEquals(1.0, registry.get(ResilientPlacesClient.CALLS_METRIC)
+                .tag("operation", "details").tag("outcome", "timeout").counter().count());
+    }
+
+    @Test
+    void halfOpenCircuitClosesAfterSuccessfulTrialCalls() {
+        MutableClock clock = new MutableClock();
+        List<PlacesCircuitBreaker.State> transitions = new ArrayList<>();
+        PlacesCircuitBreaker breaker = new PlacesCircuitBreaker(4, 2, 50, 1, Duration.ofSeconds(30), clock, transitions::add);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquire());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+
+        assertSame(PlacesCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of(PlacesCircuitBreaker.State.OPEN, PlacesCircuitBreaker.State.HALF_OPEN,
+                PlacesCircuitBreaker.State.CLOSED), transitions);
+    }
+
+    private GooglePlacesProperties properties() {
+        GooglePlacesProperties properties = new GooglePlacesProperties();
+        GooglePlacesProperties.Resilience resilience = properties.getResilience();
+        resilience.setCallTimeout(Duration.ofMillis(200));
+        resilience.setSlidingWindowSize(4);
+        resilience.setMinimumCalls(2);
+        resilience.setFailureRateThreshold(50);
+        return properties;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-05T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.wrenchit.api.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.wrenchit.engagement.entity.StoreReview;
+import com.wrenchit.engagement.repository.StoreRatingStatsRepository;
+import com.wrenchit.engagement.repository.StoreReviewRepository;
+import com.wrenchit.engagement.service.ReviewService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewServiceTest {
+
+    @Test
+    void newReviewAddsToCountSumAndHistogram() {
+        StoreReviewRepository reviews = mock(StoreReviewRepository.class);
+        StoreRatingStatsRepository stats = mock(StoreRatingStatsRepository.class);
+        ReviewService service = new ReviewService(reviews, stats);
+        UUID storeId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(reviews.findForUpdateByStoreIdAndUserId(storeId, userId)).thenReturn(Optional.empty());
+        when(reviews.saveAndFlush(any(StoreReview.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.upsertReview(storeId, userId, null, null, 4, "Great");
+
+        verify(stats).applyDelta(eq(storeId), eq(1), eq(4), eq(0), eq(0), eq(0), eq(1), eq(0), isNull());
+    }
+
+    @Test
+    void changedRatingMovesHistogramBucketWithoutCountingTwice() {
+        StoreReviewRepository reviews = mock(StoreReviewRepository.class);
+        StoreRatingStatsRepository stats = mock(StoreRatingStatsRepository.class);
+        ReviewService service = new ReviewService(reviews, stats);
+        UUID storeId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        StoreReview existing = new StoreReview();
+        existing.setStoreId(storeId);
+        existing.setUserId(userId);
+        existing.setRating(5);
+        when(reviews.findForUpdateByStoreIdAndUserId(storeId, userId)).thenReturn(Optional.of(existing));
+        when(reviews.saveAndFlush(any(StoreReview.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.upsertReview(storeId, userId, null, null, 2, "Changed my mind");
+
+        verify(stats).applyDelta(eq(storeId), eq(0), eq(-3), eq(0), eq(1), eq(0), eq(0), eq(-1), isNull());
+    }
+
+    @Test
+    void unchangedRatingLeavesStatsAlone() {
+        StoreReviewRepository reviews = mock(StoreReviewRepository.class);
+        StoreRatingStatsRepository stats = mock(StoreRatingStatsRepository.class);
+        ReviewService service = new ReviewService(reviews, stats);
+        UUID storeId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        StoreReview existing = new StoreReview();
+        existing.setRating(3);
+        when(reviews.findForUpdateByStoreIdAndUserId(storeId, userId)).thenReturn(Optional.of(existing));
+        when(reviews.saveAndFlush(any(StoreReview.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.upsertReview(storeId, userId, null, null, 3, "Edited comment");
+
+        verify(stats, never()).applyDelta(any(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), any());
+    }
+}
@@ -0,0 +1,166 @@
+package com.wrenchit.api.service;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.wrenchit.stores.dto.ServiceCompareSort;
+import com.wrenchit.stores.dto.ServiceQuotePage;
+import com.wrenchit.stores.service.ServiceComparisonService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceComparisonServiceTest {
+
+    private static final UUID SERVICE_ID = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+    private final List<String> statements = new ArrayList<>();
+    private final List<MapSqlParameterSource> parameters = new ArrayList<>();
+
+    @Test
+    void cursorRoundTripsIntoSeekPredicate() {
+        List<Quote> quotes = quotes(3);
+        ServiceComparisonService service = service(quotes);
+
+        ServiceQuotePage first = service.compare("Oil Change", null, null, null, ServiceCompareSort.PRICE, 2, null);
+
+        assertEquals(2, first.getQuotes().size());
+        assertTrue(first.isHasMore());
+        assertNotNull(first.getNextCursor());
+        assertFalse(lastSql().contains(":cursorKey"));
+
+        ServiceQuotePage second = service.compare("Oil Change", null, null, null, ServiceCompareSort.PRICE, 2, first.getNextCursor());
+
+        assertTrue(lastSql().contains("(coalesce(ss.base_price_cents, " + Integer.MAX_VALUE + "), ss.store_id) > (:cursorKey, :cursorId)"));
+        assertEquals(quotes.get(1).priceCents(), lastParams().getValue("cursorKey"));
+        assertEquals(quotes.get(1).storeId(), lastParams().getValue("cursorId"));
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void sortsOrderByKeyThenStoreIdInSortDirection() {
+        ServiceComparisonService service = service(quotes(3));
+
+        service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.PRICE, 2, null);
+        assertTrue(lastSql().contains("order by coalesce(ss.base_price_cents, " + Integer.MAX_VALUE + ") asc, ss.store_id asc"));
+
+        service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.DISTANCE, 2, null);
+        assertTrue(lastSql().contains("order by earth_distance(ll_to_earth(:lat, :lng), ll_to_earth(s.lat, s.lng)) asc, ss.store_id asc"));
+
+        ServiceQuotePage rating = service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.RATING, 2, null);
+        assertTrue(lastSql().contains(" desc, ss.store_id desc"));
+        service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.RATING, 2, rating.getNextCursor());
+        assertTrue(lastSql().contains(", ss.store_id) < (:cursorKey, :cursorId)"));
+
+        ServiceQuotePage value = service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.VALUE, 2, null);
+        assertTrue(lastSql().contains("order by case when ss.base_price_cents > 0"));
+        assertTrue(lastSql().contains(" desc, ss.store_id desc"));
+        service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.VALUE, 2, value.getNextCursor());
+        assertTrue(lastSql().contains(", ss.store_id) < (:cursorKey, :cursorId)"));
+    }
+
+    @Test
+    void radiusFilterUsesEarthBoxAndExactDistance() {
+        ServiceComparisonService service = service(quotes(1));
+
+        service.compare("oil change", 43.65, -79.38, 5.0, ServiceCompareSort.PRICE, 20, null);
+
+        assertTrue(lastSql().contains("earth_box(ll_to_earth(:lat, :lng), :radiusMeters) @> ll_to_earth(s.lat, s.lng)"));
+        assertTrue(lastSql().contains("<= :radiusMeters"));
+        assertEquals(5000.0, lastParams().getValue("radiusMeters"));
+    }
+
+    @Test
+    void rejectsCursorFromAnotherSort() {
+        ServiceComparisonService service = service(quotes(3));
+        String priceCursor = service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.PRICE, 2, null).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.compare("oil change", 43.65, -79.38, null, ServiceCompareSort.RATING, 2, priceCursor));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.compare("oil change", null, null, null, ServiceCompareSort.PRICE, 2, "not-a-cursor"));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.compare("oil change", null, null, null, ServiceCompareSort.DISTANCE, 2, null));
+    }
+
+    private ServiceComparisonService service(List<Quote> quotes) {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            MapSqlParameterSource params = invocation.getArgument(1);
+            RowMapper<?> mapper = invocation.getArgument(2);
+            if (sql.contains("service_aliases")) {
+                return List.of(SERVICE_ID);
+            }
+            statements.add(sql);
+            parameters.add(params);
+            int offset = params.hasValue("cursorId") ? indexOf(quotes, (UUID) params.getValue("cursorId")) + 1 : 0;
+            int fetch = (Integer) params.getValue("fetch");
+            List<Object> mapped = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + fetch, quotes.size()); i++) {
+                mapped.add(mapper.mapRow(resultSet(quotes.get(i)), i));
+            }
+            return mapped;
+        });
+        return new ServiceComparisonService(jdbc);
+    }
+
+    private int indexOf(List<Quote> quotes, UUID storeId) {
+        for (int i = 0; i < quotes.size(); i++) {
+            if (quotes.get(i).storeId().equals(storeId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String lastSql() {
+        return statements.get(statements.size() - 1);
+    }
+
+    private MapSqlParameterSource lastParams() {
+        return parameters.get(parameters.size() - 1);
+    }
+
+    private List<Quote> quotes(int count) {
+        List<Quote> quotes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            quotes.add(new Quote(UUID.fromString("00000000-0000-0000-0000-00000000000" + (i + 1)), 4000 + i * 500));
+        }
+        return quotes;
+    }
+
+    private ResultSet resultSet(Quote quote) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(quote.storeId());
+        when(rs.getString("name")).thenReturn("Shop " + quote.priceCents());
+        when(rs.getString("location")).thenReturn("Toronto, ON");
+        when(rs.getDouble("rating")).thenReturn(4.5);
+        when(rs.getLong("review_count")).thenReturn(10L);
+        when(rs.getObject("base_price_cents", Integer.class)).thenReturn(quote.priceCents());
+        when(rs.getObject("duration_minutes", Integer.class)).thenReturn(30);
+        when(rs.getBoolean("has_verified_mechanic")).thenReturn(false);
+        when(rs.getObject("distance_meters", Double.class)).thenReturn(null);
+        when(rs.getDouble("sort_key")).thenReturn((double) quote.priceCents());
+        return rs;
+    }
+
+    private record Quote(UUID storeId, int priceCents) {}
+}
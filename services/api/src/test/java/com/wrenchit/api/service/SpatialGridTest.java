@@ -0,0 +1,97 @@
+package com.wrenchit.api.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.wrenchit.stores.search.SpatialGrid;
+import com.wrenchit.stores.search.SpatialGrid.SpatialMatch;
+import com.wrenchit.stores.search.SpatialGrid.StorePoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialGridTest {
+
+    private static final int STORES = 5_000;
+
+    private UUID[] ids;
+    private double[] lats;
+    private double[] lngs;
+    private SpatialGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        ids = new UUID[STORES];
+        lats = new double[STORES];
+        lngs = new double[STORES];
+        for (int i = 0; i < STORES; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+            lats[i] = 43.0 + random.nextDouble() * 2.0;
+            lngs[i] = -80.5 + random.nextDouble() * 2.0;
+        }
+        grid = SpatialGrid.build(ids, lats, lngs, 0.1);
+    }
+
+    @Test
+    void radiusMatchesBruteForceInDistanceOrder() {
+        double maxChord = 2 * SpatialGrid.EARTH_RADIUS_METERS * Math.sin(25_000.0 / (2 * SpatialGrid.EARTH_RADIUS_METERS));
+        List<SpatialMatch> expected = bruteForce(43.65, -79.38).stream()
+                .filter(match -> match.distance() <= maxChord)
+                .toList();
+
+        assertEquals(expected, grid.withinRadius(43.65, -79.38, 25.0));
+    }
+
+    @Test
+    void nearestPagesThroughTheSameOrderAsBruteForce() {
+        List<SpatialMatch> expected = bruteForce(44.0, -79.5).subList(0, 60);
+
+        List<SpatialMatch> first = grid.nearest(44.0, -79.5, 30, null);
+        List<SpatialMatch> second = grid.nearest(44.0, -79.5, 30, first.get(first.size() - 1));
+
+        assertEquals(expected.subList(0, 30), first);
+        assertEquals(expected.subList(30, 60), second);
+        assertEquals(bruteForce(10.0, 10.0).subList(0, 5), grid.nearest(10.0, 10.0, 5, null));
+    }
+
+    @Test
+    void boundsAndIncrementalChangesStayConsistent() {
+        List<StorePoint> inBounds = grid.withinBounds(43.5, -80.0, 44.0, -79.5);
+        long expected = 0;
+        for (int i = 0; i < STORES; i++) {
+            if (lats[i] >= 43.5 && lats[i] <= 44.0 && lngs[i] >= -80.0 && lngs[i] <= -79.5) {
+                expected++;
+            }
+        }
+        assertEquals(expected, inBounds.size());
+
+        UUID moved = ids[0];
+        UUID added = UUID.randomUUID();
+        SpatialGrid changed = grid.withChanges(Map.of(moved, new double[] {10.0, 10.0}, added, new double[] {10.001, 10.001}),
+                Set.of(ids[1]));
+
+        assertEquals(STORES, changed.size());
+        assertTrue(changed.contains(moved, 10.0, 10.0));
+        assertFalse(changed.contains(ids[1]));
+        assertEquals(List.of(moved, added), changed.nearest(10.0, 10.0, 2, null).stream().map(SpatialMatch::storeId).toList());
+    }
+
+    private List<SpatialMatch> bruteForce(double lat, double lng) {
+        List<SpatialMatch> matches = new ArrayList<>();
+        for (int i = 0; i < STORES; i++) {
+            matches.add(new SpatialMatch(ids[i], grid.chordMeters(lat, lng, lats[i], lngs[i])));
+        }
+        matches.sort(Comparator.comparingDouble(SpatialMatch::distance).thenComparing(SpatialMatch::storeId));
+        return matches;
+    }
+}
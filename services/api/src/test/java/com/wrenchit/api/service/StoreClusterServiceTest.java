@@ -0,0 +1,47 @@
+package com.wrenchit.api.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.wrenchit.stores.dto.StoreCluster;
+import com.wrenchit.stores.service.StoreClusterService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreClusterServiceTest {
+
+    @Test
+    void clustersAreLoadedOncePerTileAndServedFromCache() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(new StoreCluster(43.65, -79.38, 3, "$", 4.8, null)));
+        StoreClusterService service = new StoreClusterService(jdbc, Duration.ofMinutes(1), 100);
+
+        List<StoreCluster> first = service.clusters(43.0, -80.0, 44.5, -78.0, 8);
+        List<StoreCluster> second = service.clusters(43.0, -80.0, 44.5, -78.0, 8);
+
+        assertEquals(6, first.size());
+        assertEquals(first.size(), second.size());
+        verify(jdbc, times(6)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+
+    @Test
+    void rejectsBoundingBoxesSpanningTooManyTiles() {
+        StoreClusterService service = new StoreClusterService(mock(NamedParameterJdbcTemplate.class), Duration.ofMinutes(1), 100);
+
+        assertThrows(IllegalArgumentException.class, () -> service.clusters(-85.0, -180.0, 85.0, 180.0, 12));
+        assertThrows(IllegalArgumentException.class, () -> service.clusters(44.0, -80.0, 43.0, -79.0, 8));
+    }
+}
@@ -0,0 +1,95 @@
+package com.wrenchit.api.service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.google.PlacesClient;
+import com.wrenchit.stores.google.PlacesQuotaBudget;
+import com.wrenchit.stores.repository.StoreRepository;
+import com.wrenchit.stores.search.StoreChangeListener;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.service.StoreEnrichmentService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreEnrichmentServiceTest {
+
+    @Test
+    void duplicatePlaceIdsAreFetchedOnceAndWrittenBackInOneBatch() {
+        StoreRepository repo = mock(StoreRepository.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        StoreChangeListener listener = mock(StoreChangeListener.class);
+        StoreEnrichmentService service = service(repo, placesClient, listener, 60);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(repo.findPlaceIdsNeedingDetails(anyList(), any(OffsetDateTime.class))).thenReturn(List.of("place-1", "place-2"));
+        when(placesClient.details(anyString())).thenAnswer(invocation -> details(invocation.getArgument(0)));
+        when(repo.applyDetails(anyList())).thenReturn(List.of(first, second));
+
+        service.enqueue(List.of("place-1", "place-2"));
+        service.enqueue(List.of("place-1", "place-3"));
+
+        assertEquals(2, service.drain());
+        assertEquals(0, service.pendingCount());
+        verify(repo).findPlaceIdsNeedingDetails(eq(List.of("place-1", "place-2", "place-3")), any(OffsetDateTime.class));
+        verify(placesClient, times(1)).details("place-1");
+        verify(placesClient, never()).details("place-3");
+        verify(repo, times(1)).applyDetails(anyList());
+        verify(listener).storesChanged(List.of(first, second));
+    }
+
+    @Test
+    void sharedQuotaBudgetLeavesRemainingIdsQueued() {
+        StoreRepository repo = mock(StoreRepository.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        StoreEnrichmentService service = service(repo, placesClient, mock(StoreChangeListener.class), 2);
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(repo.findPlaceIdsNeedingDetails(anyList(), any(OffsetDateTime.class)))
+                .thenAnswer(invocation -> List.copyOf(invocation.<List<String>>getArgument(0)));
+        when(placesClient.details(anyString())).thenAnswer(invocation -> details(invocation.getArgument(0)));
+        when(repo.applyDetails(anyList())).thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        service.enqueue(List.of("place-1", "place-2", "place-3", "place-4"));
+
+        assertEquals(2, service.drain());
+        assertEquals(2, service.pendingCount());
+        verify(placesClient, times(2)).details(anyString());
+    }
+
+    private StoreEnrichmentService service(StoreRepository repo, PlacesClient placesClient, StoreChangeListener listener,
+                                           int quotaTokens) {
+        GooglePlacesProperties props = new GooglePlacesProperties();
+        props.setEnabled(true);
+        props.setApiKey("test-key");
+        PlacesQuotaBudget budget = mock(PlacesQuotaBudget.class);
+        when(budget.tryAcquire(anyInt())).thenAnswer(invocation -> Math.min(invocation.<Integer>getArgument(0), quotaTokens));
+        return new StoreEnrichmentService(repo, placesClient, budget, new StoreChangePublisher(List.of(listener)), props,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private PlaceDetails details(String placeId) {
+        PlaceDetails details = new PlaceDetails();
+        details.setPlaceId(placeId);
+        details.setPhone("555-0100");
+        return details;
+    }
+}
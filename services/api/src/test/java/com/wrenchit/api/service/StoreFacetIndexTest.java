@@ -0,0 +1,91 @@
+package com.wrenchit.api.service;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.wrenchit.stores.search.StoreFacetFilter;
+import com.wrenchit.stores.search.StoreFacetIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoreFacetIndexTest {
+
+    private static final UUID DOWNTOWN = UUID.randomUUID();
+    private static final UUID QUEEN = UUID.randomUUID();
+    private static final UUID OTTAWA = UUID.randomUUID();
+
+    private StoreFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        List<Object[]> rows = List.of(
+                new Object[] {DOWNTOWN, "Toronto", "ON", "https://downtown.example", "555-0100", 4.8, "Brake pads, Oil change", 43.651, -79.383, "$$"},
+                new Object[] {QUEEN, "toronto", "ON", null, null, 4.1, "Tires; Oil change", 43.648, -79.396, "$"},
+                new Object[] {OTTAWA, "Ottawa", "ON", null, "555-0199", 3.6, "Brake inspection", 45.421, -75.697, "$$"});
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(2);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                mapped.add(mapper.mapRow(resultSet(rows.get(i)), i));
+            }
+            return mapped;
+        });
+        index = new StoreFacetIndex(jdbc, true, Duration.ofMinutes(10));
+        index.reload();
+    }
+
+    @Test
+    void facetCountsExcludeTheirOwnFilter() {
+        Map<String, Map<String, Long>> facets = index.facets(filter("Toronto", null, null, null), null).orElseThrow();
+
+        assertEquals(Map.of("Toronto", 2L, "Ottawa", 1L), facets.get(StoreFacetIndex.CITY));
+        assertEquals(Map.of("$$", 1L, "$", 1L), facets.get(StoreFacetIndex.PRICE_RANGE));
+        assertEquals(Map.of("Oil change", 2L, "Brake pads", 1L, "Tires", 1L), facets.get(StoreFacetIndex.SERVICES));
+        assertEquals(2L, facets.get(StoreFacetIndex.MIN_RATING).get("4.0"));
+        assertEquals(2L, facets.get(StoreFacetIndex.MIN_RATING).get("3.0"));
+    }
+
+    @Test
+    void filterIntersectsBitmapsAndKeepsCandidateOrder() {
+        List<UUID> candidates = List.of(OTTAWA, QUEEN, DOWNTOWN);
+
+        assertEquals(List.of(OTTAWA, DOWNTOWN), index.filter(candidates, filter(null, "brake", null, null)).orElseThrow());
+        assertEquals(List.of(DOWNTOWN), index.filter(candidates, filter("TORONTO", null, true, 4.5)).orElseThrow());
+        assertTrue(index.filter(List.of(UUID.randomUUID()), filter(null, null, null, null)).isEmpty());
+    }
+
+    private StoreFacetFilter filter(String city, String services, Boolean hasWebsite, Double minRating) {
+        return new StoreFacetFilter(minRating, services, city, null, null, hasWebsite, null, null, null, null);
+    }
+
+    private ResultSet resultSet(Object[] row) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn((UUID) row[0]);
+        when(rs.getString("city")).thenReturn((String) row[1]);
+        when(rs.getString("state")).thenReturn((String) row[2]);
+        when(rs.getString("website")).thenReturn((String) row[3]);
+        when(rs.getString("phone")).thenReturn((String) row[4]);
+        when(rs.getObject("rating", Double.class)).thenReturn((Double) row[5]);
+        when(rs.getString("services_text")).thenReturn((String) row[6]);
+        when(rs.getObject("lat", Double.class)).thenReturn((Double) row[7]);
+        when(rs.getObject("lng", Double.class)).thenReturn((Double) row[8]);
+        when(rs.getString("price_tier")).thenReturn((String) row[9]);
+        return rs;
+    }
+}
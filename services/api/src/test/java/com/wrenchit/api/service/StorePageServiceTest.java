@@ -0,0 +1,132 @@
+package com.wrenchit.api.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wrenchit.api.service.StorePageService.StorePage;
+import com.wrenchit.engagement.service.SavedShopService;
+import com.wrenchit.stores.entity.Store;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.service.StoreService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorePageServiceTest {
+
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-0000000000ff");
+
+    private final StoreService storeService = mock(StoreService.class);
+    private final SavedShopService savedShopService = mock(SavedShopService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void groupsBatchedRowsPerStoreInRequestedOrder() {
+        StorePageService service = service();
+
+        List<StorePage> pages = service.load(List.of(SECOND, FIRST, SECOND), null);
+
+        assertEquals(List.of(SECOND, FIRST), pages.stream().map(page -> page.store().getId()).toList());
+        assertEquals("$$", pages.get(0).priceRange());
+        assertEquals(List.of("Alignment"), names(pages.get(0).services()));
+        assertEquals(List.of("Brakes", "Oil change"), names(pages.get(1).services()));
+        assertEquals(List.of("second-newer", "second-older"), comments(pages.get(0).reviews()));
+        assertEquals(List.of(), pages.get(1).reviews());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void savedFlagIsNullForAnonymousAndSetForSignedInCaller() {
+        StorePageService service = service();
+        when(savedShopService.savedStoreIds(USER, List.of(FIRST, SECOND))).thenReturn(Set.of(SECOND));
+
+        List<StorePage> anonymous = service.load(List.of(FIRST, SECOND), null);
+        List<StorePage> signedIn = service.load(List.of(FIRST, SECOND), USER);
+
+        assertNull(anonymous.get(0).saved());
+        assertNull(anonymous.get(1).saved());
+        assertFalse(signedIn.get(0).saved());
+        assertTrue(signedIn.get(1).saved());
+        verify(savedShopService, never()).savedStoreIds(null, List.of(FIRST, SECOND));
+    }
+
+    private StorePageService service() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), any(SqlParameterSource.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains("from store_services")) {
+                return List.of(
+                        serviceRow(FIRST, "Brakes"),
+                        serviceRow(FIRST, "Oil change"),
+                        serviceRow(SECOND, "Alignment"));
+            }
+            return List.of(
+                    reviewRow(SECOND, "second-newer"),
+                    reviewRow(SECOND, "second-older"));
+        });
+        PortalDataService portalDataService = new PortalDataService(jdbc, new ObjectMapper(), new StoreChangePublisher(List.of()));
+        when(storeService.getByIdsOrdered(any())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(this::store).toList();
+        });
+        when(storeService.getPriceRangesByIds(any())).thenReturn(Map.of(SECOND, "$$"));
+        return new StorePageService(storeService, portalDataService, savedShopService, transactionManager,
+                Duration.ofMinutes(5), Duration.ofMinutes(5), Duration.ofMinutes(1));
+    }
+
+    private Store store(UUID id) {
+        Store store = new Store();
+        ReflectionTestUtils.setField(store, "id", id);
+        return store;
+    }
+
+    private Map<String, Object> serviceRow(UUID storeId, String name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("store_id", storeId);
+        row.put("service_id", UUID.randomUUID());
+        row.put("name", name);
+        row.put("category", "Maintenance");
+        row.put("base_price_cents", 4999);
+        row.put("duration_minutes", 45);
+        return row;
+    }
+
+    private Map<String, Object> reviewRow(UUID storeId, String comment) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", UUID.randomUUID());
+        row.put("store_id", storeId);
+        row.put("rating", 5);
+        row.put("comment", comment);
+        return row;
+    }
+
+    private List<Object> names(List<Map<String, Object>> items) {
+        return items.stream().map(item -> item.get("name")).toList();
+    }
+
+    private List<Object> comments(List<Map<String, Object>> items) {
+        return items.stream().map(item -> item.get("comment")).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.wrenchit.api.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
+import com.wrenchit.stores.google.PlacesClient;
+import com.wrenchit.stores.google.PlacesQuotaBudget;
+import com.wrenchit.stores.repository.StoreRepository;
+import com.wrenchit.stores.search.RegionTiles;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.service.StoreEnrichmentService;
+import com.wrenchit.stores.service.StoreRefreshService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreRefreshServiceTest {
+
+    @Test
+    void staleRefreshSpendsOnlyClaimedQuotaAndWritesOneBatch() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        StoreRepository repo = mock(StoreRepository.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        PlacesQuotaBudget budget = mock(PlacesQuotaBudget.class);
+        StoreRefreshService service = service(jdbc, repo, placesClient, budget, new GooglePlacesProperties());
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(budget.tryAcquire(10)).thenReturn(10);
+        when(jdbc.query(contains("returning google_place_id"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of("place-1", "place-2"));
+        when(placesClient.details(anyString())).thenAnswer(invocation -> {
+            PlaceDetails details = new PlaceDetails();
+            details.setPlaceId(invocation.getArgument(0));
+            details.setRatingCount(42);
+            return details;
+        });
+        when(repo.applyDetails(anyList())).thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        assertEquals(2, service.refreshStale());
+        verify(budget).refund(8);
+        verify(placesClient, times(2)).details(anyString());
+        verify(repo, times(1)).applyDetails(anyList());
+    }
+
+    @Test
+    void sweepStopsWhenTheSharedQuotaIsExhausted() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        PlacesQuotaBudget budget = mock(PlacesQuotaBudget.class);
+        GooglePlacesProperties props = new GooglePlacesProperties();
+        GooglePlacesProperties.Region region = new GooglePlacesProperties.Region();
+        region.setName("toronto");
+        region.setSouth(43.58);
+        region.setWest(-79.64);
+        region.setNorth(43.86);
+        region.setEast(-79.12);
+        props.getRefresh().getRegions().add(region);
+        props.getRefresh().setSweepTilesPerCycle(3);
+        StoreRefreshService service = service(jdbc, mock(StoreRepository.class), placesClient, budget, props);
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(budget.tryAcquire(1)).thenReturn(1, 0);
+        when(jdbc.query(contains("places_sweep_progress"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(4));
+        when(placesClient.searchArea(anyString(), anyDouble(), anyDouble(), anyInt())).thenReturn(new PlaceSearchPage(List.of(), null));
+
+        assertEquals(1, service.sweepRegions());
+        verify(placesClient, times(1)).searchArea(eq("auto repair"), anyDouble(), anyDouble(), anyInt());
+        verify(budget, never()).refund(anyInt());
+    }
+
+    @Test
+    void regionTilesCoverTheBoundingBox() {
+        RegionTiles tiles = new RegionTiles(43.58, -79.64, 43.86, -79.12, 5.0);
+
+        assertEquals(7 * 9, tiles.size());
+        RegionTiles.Tile first = tiles.tile(0);
+        RegionTiles.Tile last = tiles.tile(tiles.size() - 1);
+        assertTrue(first.lat() > 43.58 && first.lng() > -79.64);
+        assertTrue(last.lat() < 43.86 && last.lng() < -79.12);
+        assertTrue(first.radiusMeters() >= 2_500 && first.radiusMeters() <= RegionTiles.MAX_RADIUS_METERS);
+    }
+
+    private StoreRefreshService service(NamedParameterJdbcTemplate jdbc, StoreRepository repo, PlacesClient placesClient,
+                                        PlacesQuotaBudget budget, GooglePlacesProperties props) {
+        props.setEnabled(true);
+        props.setApiKey("test-key");
+        return new StoreRefreshService(jdbc, repo, placesClient, budget, new StoreChangePublisher(List.of()),
+                mock(StoreEnrichmentService.class), props, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+}
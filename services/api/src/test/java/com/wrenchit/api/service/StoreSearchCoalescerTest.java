@@ -0,0 +1,135 @@
+package com.wrenchit.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.wrenchit.stores.config.ConnectionHoldMetrics;
+import com.wrenchit.stores.config.GooglePlacesProperties;
+
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.dto.PlaceSearchPage;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSearchCriteria;
+import com.wrenchit.stores.dto.StoreSearchResult;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.entity.Store;
+import com.wrenchit.stores.google.PlacesClient;
+import com.wrenchit.stores.repository.StoreRepository;
+import com.wrenchit.stores.repository.StoreUpsertResult;
+import com.wrenchit.stores.search.DisabledStoreSearchEngine;
+import com.wrenchit.stores.search.StoreChangeListener;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.search.StoreFacetIndex;
+import com.wrenchit.stores.search.StoreSpatialIndex;
+import com.wrenchit.stores.service.StoreEnrichmentService;
+import com.wrenchit.stores.service.StoreSearchCoalescer;
+import com.wrenchit.stores.service.StoreService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreSearchCoalescerTest {
+
+    @Test
+    void concurrentIdenticalSearchesShareOneExecution() throws Exception {
+        StoreService storeService = mock(StoreService.class);
+        StoreSearchCoalescer coalescer = new StoreSearchCoalescer(storeService, new SimpleMeterRegistry(), Duration.ofSeconds(30));
+        StoreSearchResult shared = new StoreSearchResult(List.of(), 20, 0, null, false, false, null);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storeService.search(any())).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return shared;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<StoreSearchResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String query = i % 2 == 0 ? "Oil Change" : "  oil   change ";
+                futures.add(pool.submit(() -> coalescer.search(criteria(query))));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<StoreSearchResult> future : futures) {
+                assertSame(shared, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertSame(shared, coalescer.search(criteria("oil change")));
+        verify(storeService, times(1)).search(any());
+    }
+
+    @Test
+    void storeChangeDropsCachedResults() {
+        StoreService storeService = mock(StoreService.class);
+        StoreSearchCoalescer coalescer = new StoreSearchCoalescer(storeService, new SimpleMeterRegistry(), Duration.ofSeconds(30));
+        when(storeService.search(any())).thenReturn(new StoreSearchResult(List.of(), 20, 0, null, false, false, null));
+
+        coalescer.search(criteria("brakes"));
+        coalescer.search(criteria("brakes"));
+        coalescer.storesChanged(List.of(UUID.randomUUID()));
+        coalescer.search(criteria("brakes"));
+
+        verify(storeService, times(2)).search(any());
+    }
+
+    @Test
+    void googleSearchWithUnchangedHitsIsCached() {
+        StoreRepository repo = mock(StoreRepository.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        GooglePlacesProperties props = new GooglePlacesProperties();
+        props.setEnabled(true);
+        props.setApiKey("test-key");
+        AtomicReference<StoreSearchCoalescer> coalescerRef = new AtomicReference<>();
+        StoreChangeListener listener = storeIds -> coalescerRef.get().storesChanged(storeIds);
+        StoreService storeService = new StoreService(repo, placesClient, props, mock(PlatformTransactionManager.class),
+                new ConnectionHoldMetrics(new SimpleMeterRegistry()), new DisabledStoreSearchEngine(),
+                new StoreFacetIndex(mock(NamedParameterJdbcTemplate.class), false, Duration.ofMinutes(10)),
+                new StoreChangePublisher(List.of(listener)),
+                new StoreSpatialIndex(mock(NamedParameterJdbcTemplate.class), false, 0.1, Duration.ofMinutes(10), Duration.ofSeconds(5)),
+                mock(StoreEnrichmentService.class));
+        StoreSearchCoalescer coalescer = new StoreSearchCoalescer(storeService, new SimpleMeterRegistry(), Duration.ofSeconds(30));
+        coalescerRef.set(coalescer);
+        PlaceSearchResult place = new PlaceSearchResult();
+        place.setPlaceId("place-1");
+        Store store = new Store();
+        ReflectionTestUtils.setField(store, "id", UUID.randomUUID());
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(placesClient.searchPage("brakes", 0, false)).thenReturn(new PlaceSearchPage(List.of(place), null));
+        when(repo.upsertSearchResults(List.of(place))).thenReturn(new StoreUpsertResult(List.of(store.getId()), List.of()));
+        when(repo.findAllById(List.of(store.getId()))).thenReturn(List.of(store));
+
+        StoreSearchResult first = coalescer.search(criteria("brakes"));
+
+        assertSame(first, coalescer.search(criteria("brakes")));
+        verify(placesClient, times(1)).searchPage("brakes", 0, false);
+    }
+
+    private StoreSearchCriteria criteria(String query) {
+        return new StoreSearchCriteria(query, 20, 0, StoreSort.RATING, SortDirection.DESC,
+                null, null, null, null, null, IncludeTotal.NONE);
+    }
+}
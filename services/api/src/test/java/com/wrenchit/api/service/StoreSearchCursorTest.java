@@ -0,0 +1,60 @@
+package com.wrenchit.api.service;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.wrenchit.stores.dto.StoreSearchCursor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreSearchCursorTest {
+
+    @Test
+    void rankCursorRoundTripsExactKeys() {
+        UUID id = UUID.randomUUID();
+        double rank = (double) 0.0607927f;
+        double similarity = (double) 0.31578946f;
+
+        StoreSearchCursor decoded = StoreSearchCursor.decode(StoreSearchCursor.ofRank(rank, similarity, id).encode());
+
+        assertEquals(StoreSearchCursor.Kind.RANK, decoded.getKind());
+        assertEquals(id, decoded.getId());
+        assertEquals(rank, decoded.getPrimary());
+        assertEquals(similarity, decoded.getSecondary());
+        assertTrue(decoded.isKeyset());
+    }
+
+    @Test
+    void nameCursorKeepsSeparatorsInName() {
+        UUID id = UUID.randomUUID();
+
+        StoreSearchCursor decoded = StoreSearchCursor.decode(StoreSearchCursor.ofName("Brakes | Tires", id).encode());
+
+        assertEquals(StoreSearchCursor.Kind.NAME, decoded.getKind());
+        assertEquals("Brakes | Tires", decoded.getText());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void offsetCursorIsNotKeyset() {
+        StoreSearchCursor decoded = StoreSearchCursor.decode(StoreSearchCursor.ofOffset(40).encode());
+
+        assertEquals(40, decoded.getOffset());
+        assertFalse(decoded.isKeyset());
+    }
+
+    @Test
+    void blankCursorDecodesToNull() {
+        assertNull(StoreSearchCursor.decode("  "));
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> StoreSearchCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.wrenchit.api.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSearchCursor;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+import com.wrenchit.stores.repository.StoreSearchSqlBuilder;
+import com.wrenchit.stores.search.SpatialGrid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledIfEnvironmentVariable(named = "WRENCHIT_EXPLAIN_DB_URL", matches = ".+")
+class StoreSearchExplainTest {
+
+    private static SingleConnectionDataSource dataSource;
+    private static NamedParameterJdbcTemplate jdbc;
+    private final StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("WRENCHIT_EXPLAIN_DB_URL"),
+                System.getenv("WRENCHIT_EXPLAIN_DB_USER"),
+                System.getenv("WRENCHIT_EXPLAIN_DB_PASSWORD"),
+                true);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        jdbc.getJdbcTemplate().execute("""
+                insert into stores (name, city, state, rating, rating_count, services_text, lat, lng)
+                select case when g % 5000 = 0 then 'Explain Auto ' || g else 'Garage ' || g end,
+                       case when g % 500 = 250 then 'Kingston' else (array['Toronto', 'Ottawa', 'Hamilton', 'London'])[g % 4 + 1] end,
+                       'XP',
+                       (g % 50) / 10.0,
+                       g % 400,
+                       case when g % 4000 = 100 then 'transmission rebuild'
+                            else (array['brakes, oil change', 'tires, alignment', 'diagnostics'])[g % 3 + 1] end,
+                       40 + (g % 200) / 20.0,
+                       -85 + (g / 200) / 10.0
+                from generate_series(1, 100000) g
+                """);
+        jdbc.getJdbcTemplate().execute("""
+                insert into store_price_stats (store_id, avg_price_cents, min_price_cents, max_price_cents, service_count, price_tier)
+                select id, 4000, 3000, 20000, 3,
+                       case when rating_count % 200 = 0 then '$' when rating_count % 2 = 0 then '$$' else '$$$' end
+                from stores
+                where state = 'XP'
+                """);
+        jdbc.getJdbcTemplate().execute("analyze stores");
+        jdbc.getJdbcTemplate().execute("analyze store_price_stats");
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        jdbc.getJdbcTemplate().execute("delete from stores where state = 'XP'");
+        dataSource.destroy();
+    }
+
+    @Test
+    void textSearchUsesFullTextAndTrigramIndexes() {
+        String plan = explain(builder.select(query("Explain Auto", null, null, StoreSort.RATING, null), 21, 0));
+
+        assertTrue(plan.contains("idx_stores_search_vector"), plan);
+        assertTrue(plan.contains("idx_stores_name_trgm"), plan);
+    }
+
+    @Test
+    void servicesFilterUsesTrigramIndex() {
+        String plan = explain(builder.count(query(null, "transmission", null, StoreSort.RATING, null), null));
+
+        assertTrue(plan.contains("idx_stores_services_text_trgm"), plan);
+    }
+
+    @Test
+    void cityFilterUsesExpressionIndex() {
+        String plan = explain(builder.count(query(null, null, "kingston", StoreSort.RATING, null), 1000));
+
+        assertTrue(plan.contains("idx_stores_city_lower"), plan);
+    }
+
+    @Test
+    void ratingBrowseWalksKeyIndex() {
+        String plan = explain(builder.select(query(null, null, null, StoreSort.RATING,
+                StoreSearchCursor.ofRating(3.5, UUID.randomUUID())), 21, 0));
+
+        assertTrue(plan.contains("idx_stores_rating_key"), plan);
+    }
+
+    @Test
+    void nameBrowseWalksKeyIndex() {
+        String plan = explain(builder.select(query(null, null, null, StoreSort.NAME, null), 21, 0));
+
+        assertTrue(plan.contains("idx_stores_name_key"), plan);
+    }
+
+    @Test
+    void priceTierFilterUsesStatsIndex() {
+        StoreSearchQuery cheap = new StoreSearchQuery(null, null, null, null, null, null, null, null, "$", null, null,
+                StoreSort.RATING, SortDirection.DESC, null);
+
+        String plan = explain(builder.count(cheap, null));
+
+        assertTrue(plan.contains("idx_store_price_stats_tier"), plan);
+    }
+
+    @Test
+    void radiusSearchUsesEarthBoxIndex() {
+        String plan = explain(builder.count(nearby(null, 5.0), null));
+
+        assertTrue(plan.contains("idx_stores_earth_location"), plan);
+    }
+
+    @Test
+    void distanceSortWalksIndexNearestFirst() {
+        String plan = explain(builder.select(nearby(null, null), 21, 0));
+
+        assertTrue(plan.contains("Index Scan using idx_stores_earth_location"), plan);
+        assertTrue(plan.contains("Order By"), plan);
+    }
+
+    @Test
+    void distanceKeysMatchSpatialGridChords() {
+        SpatialGrid grid = SpatialGrid.build(new UUID[0], new double[0], new double[0], 0.1);
+        StoreSearchSqlBuilder.Statement statement = builder.select(nearby(null, null), 50, 0);
+
+        List<Map<String, Object>> rows = jdbc.queryForList(statement.sql(), statement.params());
+
+        assertEquals(50, rows.size());
+        for (Map<String, Object> row : rows) {
+            double expected = grid.chordMeters(43.5, -79.5, ((Number) row.get("lat")).doubleValue(), ((Number) row.get("lng")).doubleValue());
+            assertEquals(expected, ((Number) row.get("cursor_primary")).doubleValue(), 1e-6);
+        }
+    }
+
+    private String explain(StoreSearchSqlBuilder.Statement statement) {
+        List<String> lines = jdbc.queryForList("explain " + statement.sql(), statement.params(), String.class);
+        return String.join("\n", lines);
+    }
+
+    private StoreSearchQuery query(String text, String servicesContains, String city, StoreSort sort, StoreSearchCursor cursor) {
+        return new StoreSearchQuery(text, null, null, null, null, servicesContains, city, null, null, null, null,
+                sort, SortDirection.DESC, cursor);
+    }
+
+    private StoreSearchQuery nearby(String text, Double radiusKm) {
+        return new StoreSearchQuery(text, 43.5, -79.5, radiusKm, null, null, null, null, null, null, null,
+                StoreSort.DISTANCE, SortDirection.ASC, null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.wrenchit.api.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSearchCursor;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+import com.wrenchit.stores.repository.StoreSearchSqlBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreSearchSqlBuilderTest {
+
+    @Test
+    void emitsOnlyActivePredicates() {
+        StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+
+        StoreSearchSqlBuilder.Statement statement = builder.select(query("brakes", null, "Toronto", null), 21, 0);
+
+        assertTrue(statement.sql().contains("name % :query"));
+        assertTrue(statement.sql().contains("lower(city) = lower(:city)"));
+        assertFalse(statement.sql().contains("is null or"));
+        assertFalse(statement.sql().contains(":state"));
+        assertFalse(statement.sql().contains("store_services"));
+        assertFalse(statement.params().containsKey("state"));
+        assertEquals("Toronto", statement.params().get("city"));
+    }
+
+    @Test
+    void servicesFilterIsEscapedLikePattern() {
+        StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+
+        StoreSearchSqlBuilder.Statement statement = builder.count(query(null, "100%_oil", null, null), null);
+
+        assertTrue(statement.sql().contains("services_text ilike :servicesPattern"));
+        assertEquals("%100\\%\\_oil%", statement.params().get("servicesPattern"));
+        assertFalse(statement.sql().contains(":maxRows"));
+    }
+
+    @Test
+    void priceRangeFiltersOnMaterializedTier() {
+        StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+
+        StoreSearchSqlBuilder.Statement statement = builder.select(query(null, null, null, "$$"), 21, 0);
+
+        assertTrue(statement.sql().contains("id in (select ps.store_id from store_price_stats ps where ps.price_tier = :priceTier)"));
+        assertFalse(statement.sql().contains("avg("));
+        assertEquals("$$", statement.params().get("priceTier"));
+    }
+
+    @Test
+    void keysetCursorAddsSeekPredicate() {
+        StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+        UUID id = UUID.randomUUID();
+        StoreSearchQuery after = new StoreSearchQuery(null, null, null, null, null, null, null, null, null, null, null,
+                StoreSort.NAME, SortDirection.ASC, StoreSearchCursor.ofName("Midas", id));
+
+        StoreSearchSqlBuilder.Statement statement = builder.select(after, 21, 0);
+
+        assertTrue(statement.sql().contains("(name, id) > (:cursorKey, :cursorId)"));
+        assertEquals("Midas", statement.params().get("cursorKey"));
+        assertEquals(id, statement.params().get("cursorId"));
+    }
+
+    @Test
+    void relevanceIsTheDefaultBrowseOrderAndSeeksOnRankScore() {
+        StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+        UUID id = UUID.randomUUID();
+        StoreSearchQuery after = new StoreSearchQuery(null, null, null, null, null, null, null, null, null, null, null,
+                null, SortDirection.DESC, StoreSearchCursor.ofRelevance(4.62, id));
+
+        StoreSearchSqlBuilder.Statement statement = builder.select(after, 21, 0);
+
+        assertEquals(StoreSort.RELEVANCE, after.getSort());
+        assertTrue(statement.sql().contains("(rank_score, id) < (:cursorKey, :cursorId)"));
+        assertTrue(statement.sql().contains("order by rank_score desc, id desc"));
+        assertEquals(4.62, statement.params().get("cursorKey"));
+    }
+
+    @Test
+    void serviceCatalogFiltersJoinThroughStoreServices() {
+        StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+        UUID oilChange = UUID.randomUUID();
+        UUID rotation = UUID.randomUUID();
+        StoreSearchQuery catalog = query(null, null, null, null)
+                .withServiceFilter(List.of(oilChange, rotation, oilChange), "brakes");
+
+        StoreSearchSqlBuilder.Statement statement = builder.count(catalog, null);
+
+        assertTrue(statement.sql().contains("ss.service_id = any(cast(:serviceIds as uuid[])) group by ss.store_id having count(*) = :serviceIdCount"));
+        assertTrue(statement.sql().contains("select sa.service_id from service_aliases sa where sa.alias = :serviceCategory"));
+        assertArrayEquals(new String[] {oilChange.toString(), rotation.toString()}, (String[]) statement.params().get("serviceIds"));
+        assertEquals(2, statement.params().get("serviceIdCount"));
+        assertEquals("brakes", statement.params().get("serviceCategory"));
+    }
+
+    @Test
+    void distanceSortOrdersTextMatchesByDistance() {
+        StoreSearchSqlBuilder builder = new StoreSearchSqlBuilder();
+        StoreSearchQuery nearby = new StoreSearchQuery("brakes", 43.65, -79.38, 10.0, null, null, null, null, null, null, null,
+                StoreSort.DISTANCE, SortDirection.ASC, null);
+
+        StoreSearchSqlBuilder.Statement statement = builder.select(nearby, 21, 20);
+
+        assertTrue(statement.sql().contains("earth_box(ll_to_earth(:lat, :lng), :radiusMeters) @> ll_to_earth(lat, lng)"));
+        assertTrue(statement.sql().contains("order by ll_to_earth(lat, lng) <-> ll_to_earth(:lat, :lng) fetch first :nearestRows rows with ties"));
+        assertTrue(statement.sql().contains("select *, cast(ll_to_earth(lat, lng) <-> ll_to_earth(:lat, :lng) as double precision) as cursor_primary"));
+        assertTrue(statement.sql().endsWith("order by cursor_primary asc, id asc limit :limit offset :offset"));
+        assertEquals(10_000.0, statement.params().get("radiusMeters"));
+        assertEquals(41, statement.params().get("nearestRows"));
+    }
+
+    static StoreSearchQuery query(String text, String servicesContains, String city, String priceRange) {
+        return new StoreSearchQuery(text, null, null, null, null, servicesContains, city, null, priceRange, null, null,
+                StoreSort.RATING, SortDirection.DESC, null);
+    }
+}
@@ -0,0 +1,304 @@
+package com.wrenchit.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.wrenchit.stores.config.ConnectionHoldMetrics;
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.dto.PlaceSearchPage;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSearchCriteria;
+import com.wrenchit.stores.dto.StoreSearchCursor;
+import com.wrenchit.stores.dto.StoreSearchResult;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.entity.Store;
+import com.wrenchit.stores.google.PlacesClient;
+import com.wrenchit.stores.repository.StoreRepository;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+import com.wrenchit.stores.repository.StoreSearchRow;
+import com.wrenchit.stores.repository.StoreUpsertResult;
+import com.wrenchit.stores.search.DisabledStoreSearchEngine;
+import com.wrenchit.stores.search.SpatialGrid;
+import com.wrenchit.stores.search.StoreChangeListener;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.search.StoreFacetIndex;
+import com.wrenchit.stores.search.StoreSpatialIndex;
+import com.wrenchit.stores.service.StoreEnrichmentService;
+import com.wrenchit.stores.service.StoreService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreServiceTest {
+
+    @Test
+    void searchWithoutTotalFetchesOneExtraRowAndSkipsCount() {
+        StoreRepository repo = mock(StoreRepository.class);
+        StoreService service = service(repo);
+        when(repo.searchStores(any(), eq(3), eq(0))).thenReturn(rows(stores(3)));
+
+        StoreSearchResult result = service.search(radiusCriteria(2, IncludeTotal.NONE));
+
+        assertEquals(2, result.getStores().size());
+        assertTrue(result.isHasMore());
+        assertNull(result.getTotal());
+        assertNotNull(result.getNextCursor());
+        verify(repo, never()).countStores(any(), any());
+    }
+
+    @Test
+    void exactTotalCountsWithoutCap() {
+        StoreRepository repo = mock(StoreRepository.class);
+        StoreService service = service(repo);
+        when(repo.searchStores(any(), anyInt(), anyInt())).thenReturn(rows(stores(1)));
+        when(repo.countStores(any(), isNull())).thenReturn(1L);
+
+        StoreSearchResult result = service.search(radiusCriteria(2, IncludeTotal.EXACT));
+
+        assertEquals(1L, result.getTotal());
+        assertFalse(result.isHasMore());
+        assertFalse(result.isTotalEstimated());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void estimatedTotalIsFlaggedWhenCapIsReached() {
+        StoreRepository repo = mock(StoreRepository.class);
+        StoreService service = service(repo);
+        int cap = (int) ReflectionTestUtils.getField(StoreService.class, "ESTIMATE_COUNT_CAP");
+        when(repo.searchStores(any(), anyInt(), anyInt())).thenReturn(rows(stores(1)));
+        when(repo.countStores(any(), eq(cap))).thenReturn((long) cap);
+
+        StoreSearchResult result = service.search(radiusCriteria(2, IncludeTotal.ESTIMATE));
+
+        assertEquals((long) cap, result.getTotal());
+        assertTrue(result.isTotalEstimated());
+    }
+
+    @Test
+    void googleSearchFetchesOutsideTransactionAndRecordsPhaseHoldTimes() {
+        StoreRepository repo = mock(StoreRepository.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GooglePlacesProperties props = new GooglePlacesProperties();
+        props.setEnabled(true);
+        props.setApiKey("test-key");
+        StoreEnrichmentService enrichment = mock(StoreEnrichmentService.class);
+        StoreService service = new StoreService(repo, placesClient, props, transactionManager, new ConnectionHoldMetrics(registry),
+                new DisabledStoreSearchEngine(), facetIndex(), new StoreChangePublisher(List.of()), spatialIndex(), enrichment);
+        PlaceSearchResult place = new PlaceSearchResult();
+        place.setPlaceId("place-1");
+        place.setName("Shop 0");
+        Store store = stores(1).get(0);
+        store.setGooglePlaceId("place-1");
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(placesClient.searchPage(anyString(), anyInt(), anyBoolean())).thenAnswer(invocation -> {
+            verify(transactionManager, never()).getTransaction(any());
+            return new PlaceSearchPage(List.of(place), null);
+        });
+        when(repo.upsertSearchResults(List.of(place))).thenReturn(new StoreUpsertResult(List.of(store.getId()), List.of(store.getId())));
+        when(repo.findAllById(List.of(store.getId()))).thenReturn(List.of(store));
+
+        StoreSearchResult result = service.search(new StoreSearchCriteria("brakes", 20, 0, StoreSort.RATING, SortDirection.DESC,
+                null, null, null, null, null, IncludeTotal.NONE));
+
+        assertEquals(1, result.getStores().size());
+        verify(repo, never()).save(any(Store.class));
+        verify(enrichment).enqueue(List.of("place-1"));
+        for (String phase : List.of("remote", "write", "read")) {
+            assertEquals(1L, registry.get(ConnectionHoldMetrics.METRIC_NAME)
+                    .tag("operation", "search")
+                    .tag("phase", phase)
+                    .timer()
+                    .count());
+        }
+    }
+
+    @Test
+    void googleOffsetMapsToSinglePlacesPage() {
+        StoreRepository repo = mock(StoreRepository.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        GooglePlacesProperties props = new GooglePlacesProperties();
+        props.setEnabled(true);
+        props.setApiKey("test-key");
+        StoreService service = new StoreService(repo, placesClient, props, mock(PlatformTransactionManager.class),
+                new ConnectionHoldMetrics(new SimpleMeterRegistry()), new DisabledStoreSearchEngine(), facetIndex(),
+                new StoreChangePublisher(List.of()), spatialIndex(), mock(StoreEnrichmentService.class));
+        List<PlaceSearchResult> page = new ArrayList<>();
+        for (int i = 0; i < PlacesClient.PAGE_SIZE; i++) {
+            PlaceSearchResult place = new PlaceSearchResult();
+            place.setPlaceId("place-" + i);
+            page.add(place);
+        }
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(placesClient.searchPage("brakes", 1, false)).thenReturn(new PlaceSearchPage(page, "token-2"));
+        when(repo.upsertSearchResults(page.subList(5, 15))).thenReturn(StoreUpsertResult.EMPTY);
+
+        StoreSearchResult result = service.search(new StoreSearchCriteria("brakes", 10, 25, StoreSort.RATING, SortDirection.DESC,
+                null, null, null, null, null, IncludeTotal.NONE));
+
+        verify(placesClient).searchPage("brakes", 1, false);
+        verify(repo).upsertSearchResults(page.subList(5, 15));
+        assertTrue(result.isHasMore());
+        assertEquals(35, StoreSearchCursor.decode(result.getNextCursor()).getOffset());
+    }
+
+    @Test
+    void googleSearchPublishesOnlyChangedStores() {
+        StoreRepository repo = mock(StoreRepository.class);
+        PlacesClient placesClient = mock(PlacesClient.class);
+        StoreChangeListener listener = mock(StoreChangeListener.class);
+        GooglePlacesProperties props = new GooglePlacesProperties();
+        props.setEnabled(true);
+        props.setApiKey("test-key");
+        StoreService service = new StoreService(repo, placesClient, props, mock(PlatformTransactionManager.class),
+                new ConnectionHoldMetrics(new SimpleMeterRegistry()), new DisabledStoreSearchEngine(), facetIndex(),
+                new StoreChangePublisher(List.of(listener)), spatialIndex(), mock(StoreEnrichmentService.class));
+        List<Store> found = stores(2);
+        List<PlaceSearchResult> places = new ArrayList<>();
+        for (Store store : found) {
+            PlaceSearchResult place = new PlaceSearchResult();
+            place.setPlaceId(store.getName());
+            places.add(place);
+        }
+        List<UUID> ids = found.stream().map(Store::getId).toList();
+        when(placesClient.isAvailable()).thenReturn(true);
+        when(placesClient.searchPage("brakes", 0, false)).thenReturn(new PlaceSearchPage(places, null));
+        when(repo.upsertSearchResults(places)).thenReturn(new StoreUpsertResult(ids, List.of(ids.get(1))));
+        when(repo.findAllById(ids)).thenReturn(found);
+
+        StoreSearchResult result = service.search(new StoreSearchCriteria("brakes", 20, 0, StoreSort.RATING, SortDirection.DESC,
+                null, null, null, null, null, IncludeTotal.NONE));
+
+        assertEquals(2, result.getStores().size());
+        verify(listener).storesChanged(List.of(ids.get(1)));
+    }
+
+    @Test
+    void distanceCursorsPageAcrossSqlAndSpatialIndexPaths() {
+        StoreRepository repo = mock(StoreRepository.class);
+        StoreSpatialIndex spatialIndex = spatialIndex();
+        StoreService service = new StoreService(repo, mock(PlacesClient.class), new GooglePlacesProperties(),
+                mock(PlatformTransactionManager.class), new ConnectionHoldMetrics(new SimpleMeterRegistry()), new DisabledStoreSearchEngine(),
+                facetIndex(), new StoreChangePublisher(List.of()), spatialIndex, mock(StoreEnrichmentService.class));
+        List<Store> ordered = new ArrayList<>();
+        double[] offsets = {0.001, 0.002, 0.003, 0.003, 0.004, 0.005};
+        String[] ids = {"00000000-0000-0000-0000-000000000001", "00000000-0000-0000-0000-000000000002",
+                "00000000-0000-0000-0000-000000000003", "80000000-0000-0000-0000-000000000000",
+                "00000000-0000-0000-0000-000000000004", "00000000-0000-0000-0000-000000000005"};
+        for (int i = 0; i < ids.length; i++) {
+            Store store = new Store();
+            ReflectionTestUtils.setField(store, "id", UUID.fromString(ids[i]));
+            store.setName("Shop " + i);
+            store.setLat(43.65 + offsets[i]);
+            store.setLng(-79.38);
+            ordered.add(store);
+        }
+        SpatialGrid grid = SpatialGrid.build(ordered.stream().map(Store::getId).toArray(UUID[]::new),
+                ordered.stream().mapToDouble(Store::getLat).toArray(), ordered.stream().mapToDouble(Store::getLng).toArray(), 0.1);
+        when(repo.findAllById(any())).thenAnswer(invocation -> ordered.stream()
+                .filter(store -> ((List<?>) invocation.getArgument(0)).contains(store.getId()))
+                .toList());
+        when(repo.searchStores(any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            StoreSearchCursor cursor = ((StoreSearchQuery) invocation.getArgument(0)).getCursor();
+            List<StoreSearchRow> page = new ArrayList<>();
+            for (Store store : ordered) {
+                double key = grid.chordMeters(43.65, -79.38, store.getLat(), store.getLng());
+                int cmp = cursor == null ? 1 : Double.compare(key, cursor.getPrimary());
+                if (cmp == 0) {
+                    cmp = SpatialGrid.compareIds(store.getId(), cursor.getId());
+                }
+                if (cmp > 0 && page.size() < (int) invocation.getArgument(1)) {
+                    page.add(new StoreSearchRow(store, key, null));
+                }
+            }
+            return page;
+        });
+
+        List<Store> seen = new ArrayList<>();
+        String cursor = null;
+        for (boolean indexReady : List.of(false, true, false)) {
+            ReflectionTestUtils.setField(spatialIndex, "grid", indexReady ? grid : null);
+            StoreSearchResult page = service.search(new StoreSearchCriteria(null, 2, 0, StoreSort.DISTANCE, SortDirection.ASC,
+                    43.65, -79.38, null, null, cursor, IncludeTotal.NONE));
+            seen.addAll(page.getStores());
+            cursor = page.getNextCursor();
+        }
+
+        assertEquals(ordered, seen);
+        assertNull(cursor);
+    }
+
+    @Test
+    void mergedResultsKeepRemoteOrderAndDropLocalDuplicates() {
+        StoreService service = service(mock(StoreRepository.class));
+        List<Store> rows = stores(4);
+        StoreSearchResult remote = new StoreSearchResult(List.of(rows.get(0), rows.get(1)), 3, 0, null, false, false, null);
+        StoreSearchResult local = new StoreSearchResult(List.of(rows.get(1), rows.get(2), rows.get(3)), 3, 0, null, false, true, "local");
+
+        StoreSearchResult merged = service.mergeResults(remote, local);
+
+        assertEquals(List.of(rows.get(0), rows.get(1), rows.get(2)), merged.getStores());
+        assertTrue(merged.isHasMore());
+        assertNotNull(merged.getNextCursor());
+    }
+
+    private StoreService service(StoreRepository repo) {
+        return new StoreService(repo, mock(PlacesClient.class), new GooglePlacesProperties(),
+                mock(PlatformTransactionManager.class), new ConnectionHoldMetrics(new SimpleMeterRegistry()), new DisabledStoreSearchEngine(),
+                facetIndex(), new StoreChangePublisher(List.of()), spatialIndex(), mock(StoreEnrichmentService.class));
+    }
+
+    private List<StoreSearchRow> rows(List<Store> stores) {
+        return stores.stream().map(store -> new StoreSearchRow(store, 1.5, null)).toList();
+    }
+
+    private StoreFacetIndex facetIndex() {
+        return new StoreFacetIndex(mock(NamedParameterJdbcTemplate.class), false, Duration.ofMinutes(10));
+    }
+
+    private StoreSpatialIndex spatialIndex() {
+        return new StoreSpatialIndex(mock(NamedParameterJdbcTemplate.class), false, 0.1, Duration.ofMinutes(10), Duration.ofSeconds(5));
+    }
+
+    private StoreSearchCriteria radiusCriteria(int limit, IncludeTotal includeTotal) {
+        return new StoreSearchCriteria(null, limit, 0, StoreSort.DISTANCE, SortDirection.ASC,
+                43.65, -79.38, 10.0, null, null, includeTotal);
+    }
+
+    private List<Store> stores(int count) {
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Store store = new Store();
+            ReflectionTestUtils.setField(store, "id", UUID.randomUUID());
+            store.setName("Shop " + i);
+            stores.add(store);
+        }
+        return stores;
+    }
+}
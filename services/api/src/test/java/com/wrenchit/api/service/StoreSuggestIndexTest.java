@@ -0,0 +1,95 @@
+package com.wrenchit.api.service;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.wrenchit.stores.search.StoreSuggestIndex;
+import com.wrenchit.stores.search.StoreSuggestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoreSuggestIndexTest {
+
+    private static final UUID DOWNTOWN = UUID.randomUUID();
+    private static final UUID DUNDAS = UUID.randomUUID();
+    private static final UUID OTTAWA = UUID.randomUUID();
+
+    private final List<Object[]> stores = new ArrayList<>();
+    private StoreSuggestIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stores.add(new Object[] {DOWNTOWN, "Downtown Auto Care", "Toronto", 43.651, -79.383, 900});
+        stores.add(new Object[] {DUNDAS, "Dundas Brake Shop", "Toronto", 43.656, -79.402, 12});
+        stores.add(new Object[] {OTTAWA, "Dunrobin Auto Works", "Ottawa", 45.421, -75.697, 40});
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(2);
+            if (sql.contains("from services")) {
+                handler.processRow(serviceRow("Brake Pads Replacement", 30L));
+                handler.processRow(serviceRow("Oil Change", 5L));
+            } else {
+                for (Object[] row : List.copyOf(stores)) {
+                    handler.processRow(storeRow(row));
+                }
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        index = new StoreSuggestIndex(jdbc, true, Duration.ofMinutes(30), Duration.ofSeconds(5));
+        index.reload();
+    }
+
+    @Test
+    void prefixMatchesNamesCitiesAndServicesWeightedByRatingCount() {
+        assertEquals(List.of("Downtown Auto Care", "Dunrobin Auto Works", "Dundas Brake Shop"), texts(index.suggest("d", 5, null, null)));
+        assertEquals(List.of("Toronto"), texts(index.suggest("TOR", 5, null, null)));
+        assertEquals(List.of("Brake Pads Replacement", "Dundas Brake Shop"), texts(index.suggest("brake", 5, null, null)));
+        assertTrue(index.suggest("zzz", 5, null, null).isEmpty());
+    }
+
+    @Test
+    void geoBiasPromotesNearbyStores() {
+        List<StoreSuggestion> nearOttawa = index.suggest("dun", 5, 45.42, -75.70);
+
+        assertEquals(OTTAWA, nearOttawa.get(0).storeId());
+        assertEquals(StoreSuggestIndex.STORE, nearOttawa.get(0).type());
+    }
+
+    private List<String> texts(List<StoreSuggestion> suggestions) {
+        return suggestions.stream().map(StoreSuggestion::text).toList();
+    }
+
+    private ResultSet storeRow(Object[] row) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn((UUID) row[0]);
+        when(rs.getString("name")).thenReturn((String) row[1]);
+        when(rs.getString("city")).thenReturn((String) row[2]);
+        when(rs.getObject("lat", Double.class)).thenReturn((Double) row[3]);
+        when(rs.getObject("lng", Double.class)).thenReturn((Double) row[4]);
+        when(rs.getObject("rating_count", Integer.class)).thenReturn((Integer) row[5]);
+        return rs;
+    }
+
+    private ResultSet serviceRow(String name, long weight) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("name")).thenReturn(name);
+        when(rs.getLong("weight")).thenReturn(weight);
+        return rs;
+    }
+}
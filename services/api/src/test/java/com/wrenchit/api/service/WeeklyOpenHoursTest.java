@@ -0,0 +1,47 @@
+package com.wrenchit.api.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.wrenchit.stores.search.WeeklyOpenHours;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeeklyOpenHoursTest {
+
+    private static final ZoneId TORONTO = ZoneId.of("America/Toronto");
+
+    @Test
+    void compilesDayWindowsInTheShopTimeZone() {
+        String bits = WeeklyOpenHours.compile(Map.of(
+                "Monday", Map.of("open", "8:00 AM", "close", "6:00 PM"),
+                "Sun", Map.of("open", "Closed", "close", ""))).orElseThrow();
+
+        assertEquals(WeeklyOpenHours.MINUTES_PER_WEEK, bits.length());
+        assertTrue(WeeklyOpenHours.isOpen(bits, Instant.parse("2026-10-19T12:00:00Z"), TORONTO));
+        assertFalse(WeeklyOpenHours.isOpen(bits, Instant.parse("2026-10-19T11:59:00Z"), TORONTO));
+        assertFalse(WeeklyOpenHours.isOpen(bits, Instant.parse("2026-10-19T22:00:00Z"), TORONTO));
+        assertFalse(WeeklyOpenHours.isOpen(bits, Instant.parse("2026-10-18T15:00:00Z"), TORONTO));
+    }
+
+    @Test
+    void overnightWindowsWrapIntoTheNextDay() {
+        String bits = WeeklyOpenHours.compile(Map.of(
+                "Sunday", Map.of("open", "20:00", "close", "02:00"))).orElseThrow();
+
+        assertTrue(WeeklyOpenHours.isOpen(bits, Instant.parse("2026-10-19T01:00:00Z"), TORONTO));
+        assertTrue(WeeklyOpenHours.isOpen(bits, Instant.parse("2026-10-19T05:30:00Z"), TORONTO));
+        assertFalse(WeeklyOpenHours.isOpen(bits, Instant.parse("2026-10-19T06:00:00Z"), TORONTO));
+    }
+
+    @Test
+    void unparseableHoursCompileToNothing() {
+        assertTrue(WeeklyOpenHours.compile(Map.of("Someday", Map.of("open", "9", "close", "5"))).isEmpty());
+        assertTrue(WeeklyOpenHours.compile(Map.of("Monday", Map.of("open", "soon", "close", "later"))).isEmpty());
+    }
+}
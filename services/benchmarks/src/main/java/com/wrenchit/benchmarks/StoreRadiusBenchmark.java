@@ -0,0 +1,179 @@
+package com.wrenchit.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+import com.wrenchit.stores.repository.StoreSearchSqlBuilder;
+import com.wrenchit.stores.search.SpatialGrid;
+import com.wrenchit.stores.search.SpatialGrid.SpatialMatch;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreRadiusBenchmark {
+
+    private static final double SOUTH = 42.0;
+    private static final double NORTH = 47.0;
+    private static final double WEST = -83.0;
+    private static final double EAST = -74.0;
+    private static final double RADIUS_KM = 10.0;
+    private static final int PAGE_SIZE = 20;
+    private static final int ORIGINS = 256;
+
+    @Param({"10000", "100000", "1000000"})
+    public int stores;
+
+    private final StoreSearchSqlBuilder sqlBuilder = new StoreSearchSqlBuilder();
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbc;
+    private String schema;
+    private SpatialGrid grid;
+    private double[] originLats;
+    private double[] originLngs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        schema = "store_bench_" + stores;
+        dataSource = new SingleConnectionDataSource(
+                env("WRENCHIT_BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/wrenchit_app"),
+                env("WRENCHIT_BENCH_JDBC_USER", "postgres"),
+                env("WRENCHIT_BENCH_JDBC_PASSWORD", "postgres"),
+                true);
+        Properties properties = new Properties();
+        properties.setProperty("currentSchema", schema + ",public");
+        dataSource.setConnectionProperties(properties);
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        seed();
+
+        UUID[] ids = new UUID[stores];
+        double[] lats = new double[stores];
+        double[] lngs = new double[stores];
+        int[] row = {0};
+        jdbc.query("select id, lat, lng from " + schema + ".stores", new MapSqlParameterSource(), rs -> {
+            ids[row[0]] = rs.getObject("id", UUID.class);
+            lats[row[0]] = rs.getDouble("lat");
+            lngs[row[0]] = rs.getDouble("lng");
+            row[0]++;
+        });
+        grid = SpatialGrid.build(ids, lats, lngs, 0.1);
+
+        Random random = new Random(7);
+        originLats = new double[ORIGINS];
+        originLngs = new double[ORIGINS];
+        for (int i = 0; i < ORIGINS; i++) {
+            originLats[i] = SOUTH + random.nextDouble() * (NORTH - SOUTH);
+            originLngs[i] = WEST + random.nextDouble() * (EAST - WEST);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbc.getJdbcTemplate().execute("drop schema if exists " + schema + " cascade");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<UUID> sqlRadiusPage() {
+        int origin = nextOrigin();
+        StoreSearchSqlBuilder.Statement statement = sqlBuilder.select(radiusQuery(origin), PAGE_SIZE + 1, 0);
+        return jdbc.query(statement.sql(), statement.params(), (rs, rowNum) -> rs.getObject("id", UUID.class));
+    }
+
+    @Benchmark
+    public List<SpatialMatch> gridRadiusPage() {
+        int origin = nextOrigin();
+        List<SpatialMatch> matches = grid.withinRadius(originLats[origin], originLngs[origin], RADIUS_KM);
+        return matches.subList(0, Math.min(PAGE_SIZE + 1, matches.size()));
+    }
+
+    @Benchmark
+    public Long sqlRadiusCount() {
+        int origin = nextOrigin();
+        StoreSearchSqlBuilder.Statement statement = sqlBuilder.count(radiusQuery(origin), null);
+        return jdbc.queryForObject(statement.sql(), statement.params(), Long.class);
+    }
+
+    @Benchmark
+    public int gridRadiusCount() {
+        int origin = nextOrigin();
+        return grid.withinRadius(originLats[origin], originLngs[origin], RADIUS_KM).size();
+    }
+
+    @Benchmark
+    public List<UUID> sqlNearest() {
+        int origin = nextOrigin();
+        StoreSearchQuery query = new StoreSearchQuery(null, originLats[origin], originLngs[origin], null, null, null, null, null, null,
+                null, null, StoreSort.DISTANCE, SortDirection.ASC, null);
+        StoreSearchSqlBuilder.Statement statement = sqlBuilder.select(query, PAGE_SIZE + 1, 0);
+        return jdbc.query(statement.sql(), statement.params(), (rs, rowNum) -> rs.getObject("id", UUID.class));
+    }
+
+    @Benchmark
+    public List<SpatialMatch> gridNearest() {
+        int origin = nextOrigin();
+        return grid.nearest(originLats[origin], originLngs[origin], PAGE_SIZE + 1, null);
+    }
+
+    private StoreSearchQuery radiusQuery(int origin) {
+        return new StoreSearchQuery(null, originLats[origin], originLngs[origin], RADIUS_KM, null, null, null, null, null,
+                null, null, StoreSort.DISTANCE, SortDirection.ASC, null);
+    }
+
+    private int nextOrigin() {
+        next = (next + 1) % ORIGINS;
+        return next;
+    }
+
+    private void seed() {
+        jdbc.getJdbcTemplate().execute("drop schema if exists " + schema + " cascade");
+        jdbc.getJdbcTemplate().execute("create schema " + schema);
+        jdbc.getJdbcTemplate().execute("create table " + schema + ".stores ("
+                + "id uuid primary key, name text, lat double precision, lng double precision, rating double precision,"
+                + " rating_count integer, services_text text, city text, state text, website text, phone text,"
+                + " search_vector tsvector)");
+        jdbc.update("insert into " + schema + ".stores (id, name, lat, lng)"
+                        + " select gen_random_uuid(), 'Store ' || n, :south + random() * :latSpan, :west + random() * :lngSpan"
+                        + " from generate_series(1, :stores) n",
+                new MapSqlParameterSource(Map.of(
+                        "south", SOUTH,
+                        "latSpan", NORTH - SOUTH,
+                        "west", WEST,
+                        "lngSpan", EAST - WEST,
+                        "stores", stores)));
+        jdbc.getJdbcTemplate().execute("create index on " + schema + ".stores using gist (ll_to_earth(lat, lng))");
+        jdbc.getJdbcTemplate().execute("analyze " + schema + ".stores");
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
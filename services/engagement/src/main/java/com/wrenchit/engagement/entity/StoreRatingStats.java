@@ -0,0 +1,70 @@
+package com.wrenchit.engagement.entity;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "store_rating_stats")
+public class StoreRatingStats {
+
+    @Id
+    @Column(name = "store_id")
+    private UUID storeId;
+
+    @Column(name = "review_count", nullable = false)
+    private int reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private int stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private int stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private int stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private int stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private int stars5;
+
+    @Column(name = "last_review_at")
+    private OffsetDateTime lastReviewAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public UUID getStoreId() {
+        return storeId;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public double getAverageRating() {
+        return reviewCount == 0 ? 0.0 : (double) ratingSum / reviewCount;
+    }
+
+    public int[] getStarCounts() {
+        return new int[] {stars1, stars2, stars3, stars4, stars5};
+    }
+
+    public OffsetDateTime getLastReviewAt() {
+        return lastReviewAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
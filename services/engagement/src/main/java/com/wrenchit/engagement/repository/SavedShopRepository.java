@@ -1,5 +1,6 @@
 package com.wrenchit.engagement.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +13,6 @@ public interface SavedShopRepository extends JpaRepository<SavedShop, SavedShopI
     List<SavedShop> findByIdUserId(UUID userId);
 
     boolean existsByIdUserIdAndIdStoreId(UUID userId, UUID storeId);
+
+    List<SavedShop> findByIdUserIdAndIdStoreIdIn(UUID userId, Collection<UUID> storeIds);
 }
@@ -0,0 +1,40 @@
+package com.wrenchit.engagement.repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.wrenchit.engagement.entity.StoreRatingStats;
+
+public interface StoreRatingStatsRepository extends JpaRepository<StoreRatingStats, UUID> {
+
+    @Modifying
+    @Query(value = """
+            insert into store_rating_stats (store_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, last_review_at, updated_at)
+            values (:storeId, :countDelta, :sumDelta, :stars1Delta, :stars2Delta, :stars3Delta, :stars4Delta, :stars5Delta, :reviewedAt, now())
+            on conflict (store_id)
+            do update set
+              review_count = store_rating_stats.review_count + excluded.review_count,
+              rating_sum = store_rating_stats.rating_sum + excluded.rating_sum,
+              stars_1 = store_rating_stats.stars_1 + excluded.stars_1,
+              stars_2 = store_rating_stats.stars_2 + excluded.stars_2,
+              stars_3 = store_rating_stats.stars_3 + excluded.stars_3,
+              stars_4 = store_rating_stats.stars_4 + excluded.stars_4,
+              stars_5 = store_rating_stats.stars_5 + excluded.stars_5,
+              last_review_at = greatest(store_rating_stats.last_review_at, excluded.last_review_at),
+              updated_at = now()
+            """, nativeQuery = true)
+    int applyDelta(@Param("storeId") UUID storeId,
+                   @Param("countDelta") int countDelta,
+                   @Param("sumDelta") int sumDelta,
+                   @Param("stars1Delta") int stars1Delta,
+                   @Param("stars2Delta") int stars2Delta,
+                   @Param("stars3Delta") int stars3Delta,
+                   @Param("stars4Delta") int stars4Delta,
+                   @Param("stars5Delta") int stars5Delta,
+                   @Param("reviewedAt") OffsetDateTime reviewedAt);
+}
@@ -4,7 +4,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import jakarta.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -13,15 +16,7 @@ import com.wrenchit.engagement.entity.StoreReview;
 public interface StoreReviewRepository extends JpaRepository<StoreReview, UUID> {
     List<StoreReview> findByStoreIdOrderByCreatedAtDesc(UUID storeId);
 
-    Optional<StoreReview> findByStoreIdAndUserId(UUID storeId, UUID userId);
-
-    @Query("""
-            select r.storeId as storeId,
-                   avg(r.rating) as averageRating,
-                   count(r) as reviewCount
-            from StoreReview r
-            where r.storeId in :storeIds
-            group by r.storeId
-            """)
-    List<StoreReviewSummary> summarizeByStoreIds(@Param("storeIds") List<UUID> storeIds);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StoreReview r where r.storeId = :storeId and r.userId = :userId")
+    Optional<StoreReview> findForUpdateByStoreIdAndUserId(@Param("storeId") UUID storeId, @Param("userId") UUID userId);
 }
@@ -3,23 +3,28 @@ package com.wrenchit.engagement.service;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.wrenchit.engagement.dto.ReviewSummary;
+import com.wrenchit.engagement.entity.StoreRatingStats;
 import com.wrenchit.engagement.entity.StoreReview;
+import com.wrenchit.engagement.repository.StoreRatingStatsRepository;
 import com.wrenchit.engagement.repository.StoreReviewRepository;
-import com.wrenchit.engagement.repository.StoreReviewSummary;
 
 @Service
 public class ReviewService {
 
     private final StoreReviewRepository storeReviewRepository;
+    private final StoreRatingStatsRepository storeRatingStatsRepository;
 
-    public ReviewService(StoreReviewRepository storeReviewRepository) {
+    public ReviewService(StoreReviewRepository storeReviewRepository,
+                         StoreRatingStatsRepository storeRatingStatsRepository) {
         this.storeReviewRepository = storeReviewRepository;
+        this.storeRatingStatsRepository = storeRatingStatsRepository;
     }
 
     public List<StoreReview> listForStore(UUID storeId) {
@@ -30,16 +35,20 @@ public class ReviewService {
         if (storeIds == null || storeIds.isEmpty()) {
             return Map.of();
         }
-        List<StoreReviewSummary> rows = storeReviewRepository.summarizeByStoreIds(storeIds);
         Map<UUID, ReviewSummary> summaries = new HashMap<>();
-        for (StoreReviewSummary row : rows) {
-            double avg = row.getAverageRating() == null ? 0.0 : row.getAverageRating();
-            long count = row.getReviewCount() == null ? 0L : row.getReviewCount();
-            summaries.put(row.getStoreId(), new ReviewSummary(row.getStoreId(), avg, count));
+        for (StoreRatingStats stats : storeRatingStatsRepository.findAllById(storeIds)) {
+            if (stats.getReviewCount() > 0) {
+                summaries.put(stats.getStoreId(),
+                        new ReviewSummary(stats.getStoreId(), stats.getAverageRating(), stats.getReviewCount()));
+            }
         }
         return summaries;
     }
 
+    public Optional<StoreRatingStats> getRatingStats(UUID storeId) {
+        return storeRatingStatsRepository.findById(storeId);
+    }
+
     @Transactional
     public StoreReview upsertReview(UUID storeId,
                                     UUID userId,
@@ -47,14 +56,39 @@ public class ReviewService {
                                     UUID receiptId,
                                     int rating,
                                     String comment) {
-        StoreReview review = storeReviewRepository.findByStoreIdAndUserId(storeId, userId)
-                .orElseGet(StoreReview::new);
+        Optional<StoreReview> existing = storeReviewRepository.findForUpdateByStoreIdAndUserId(storeId, userId);
+        Integer previousRating = existing.map(StoreReview::getRating).orElse(null);
+        StoreReview review = existing.orElseGet(StoreReview::new);
         review.setStoreId(storeId);
         review.setUserId(userId);
         review.setServiceId(serviceId);
         review.setReceiptId(receiptId);
         review.setRating(rating);
         review.setComment(comment);
-        return storeReviewRepository.save(review);
+        StoreReview saved = storeReviewRepository.saveAndFlush(review);
+        applyRatingDelta(saved, previousRating);
+        return saved;
+    }
+
+    private void applyRatingDelta(StoreReview review, Integer previousRating) {
+        if (previousRating != null && previousRating == review.getRating()) {
+            return;
+        }
+        int[] stars = new int[6];
+        stars[review.getRating()]++;
+        if (previousRating != null) {
+            stars[previousRating]--;
+        }
+        storeRatingStatsRepository.applyDelta(
+                review.getStoreId(),
+                previousRating == null ? 1 : 0,
+                review.getRating() - (previousRating == null ? 0 : previousRating),
+                stars[1],
+                stars[2],
+                stars[3],
+                stars[4],
+                stars[5],
+                previousRating == null ? review.getCreatedAt() : null
+        );
     }
 }
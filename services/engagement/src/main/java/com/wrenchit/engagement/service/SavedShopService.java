@@ -1,6 +1,9 @@
 package com.wrenchit.engagement.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
@@ -27,6 +30,15 @@ public class SavedShopService {
         return savedShopRepository.existsByIdUserIdAndIdStoreId(userId, storeId);
     }
 
+    public Set<UUID> savedStoreIds(UUID userId, Collection<UUID> storeIds) {
+        if (userId == null || storeIds == null || storeIds.isEmpty()) {
+            return Set.of();
+        }
+        return savedShopRepository.findByIdUserIdAndIdStoreIdIn(userId, storeIds).stream()
+                .map(saved -> saved.getId().getStoreId())
+                .collect(Collectors.toSet());
+    }
+
     @Transactional
     public SavedShop save(UUID userId, UUID storeId) {
         SavedShopId id = new SavedShopId(userId, storeId);
@@ -0,0 +1,101 @@
+package com.wrenchit.stores.config;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+public class ConnectionHoldMetrics {
+
+    public static final String METRIC_NAME = "wrenchit.db.connection.hold";
+
+    private static final ThreadLocal<Phase> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionHoldMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T measure(String operation, String phase, Supplier<T> work) {
+        Phase outer = CURRENT.get();
+        Phase current = new Phase();
+        if (outer != null) {
+            outer.handOver(current, System.nanoTime());
+        }
+        CURRENT.set(current);
+        try {
+            return work.get();
+        } finally {
+            current.handOver(outer, System.nanoTime());
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+            Timer.builder(METRIC_NAME)
+                    .description("Time a pooled JDBC connection was checked out during a request phase")
+                    .tag("operation", operation)
+                    .tag("phase", phase)
+                    .register(meterRegistry)
+                    .record(current.heldNanos.get(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static Lease acquired() {
+        Phase phase = CURRENT.get();
+        return phase == null ? null : new Lease(phase, System.nanoTime());
+    }
+
+    static final class Lease {
+        private Phase phase;
+        private long mark;
+
+        private Lease(Phase phase, long mark) {
+            this.phase = phase;
+            this.mark = mark;
+            phase.leases.add(this);
+        }
+
+        synchronized void release() {
+            if (phase == null) {
+                return;
+            }
+            phase.leases.remove(this);
+            phase.heldNanos.addAndGet(System.nanoTime() - mark);
+            phase = null;
+        }
+
+        private synchronized void moveTo(Phase target, long now) {
+            if (phase == null) {
+                return;
+            }
+            phase.heldNanos.addAndGet(now - mark);
+            mark = now;
+            phase = target;
+            if (target != null) {
+                target.leases.add(this);
+            }
+        }
+    }
+
+    private static final class Phase {
+        private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+        private final AtomicLong heldNanos = new AtomicLong();
+
+        private void handOver(Phase target, long now) {
+            for (Lease lease : leases) {
+                if (leases.remove(lease)) {
+                    lease.moveTo(target, now);
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.wrenchit.stores.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "wrenchit.google")
@@ -7,6 +11,10 @@ public class GooglePlacesProperties {
     private boolean enabled = false;
     private String apiKey;
     private String baseUrl = "https://maps.googleapis.com/maps/api/place";
+    private final Cache cache = new Cache();
+    private final Resilience resilience = new Resilience();
+    private final Enrichment enrichment = new Enrichment();
+    private final Refresh refresh = new Refresh();
 
     public boolean isEnabled() {
         return enabled;
@@ -31,4 +39,386 @@ public class GooglePlacesProperties {
     public void setBaseUrl(String baseUrl) {
         this.baseUrl = baseUrl;
     }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    public Enrichment getEnrichment() {
+        return enrichment;
+    }
+
+    public Refresh getRefresh() {
+        return refresh;
+    }
+
+    public static class Cache {
+        private Duration searchTtl = Duration.ofMinutes(30);
+        private Duration detailsTtl = Duration.ofHours(24);
+        private Duration staleWindow = Duration.ofHours(2);
+        private Duration pageTokenTtl = Duration.ofMinutes(1);
+        private int localMaxEntries = 2_000;
+
+        public Duration getSearchTtl() {
+            return searchTtl;
+        }
+
+        public void setSearchTtl(Duration searchTtl) {
+            this.searchTtl = searchTtl;
+        }
+
+        public Duration getDetailsTtl() {
+            return detailsTtl;
+        }
+
+        public void setDetailsTtl(Duration detailsTtl) {
+            this.detailsTtl = detailsTtl;
+        }
+
+        public Duration getStaleWindow() {
+            return staleWindow;
+        }
+
+        public void setStaleWindow(Duration staleWindow) {
+            this.staleWindow = staleWindow;
+        }
+
+        public Duration getPageTokenTtl() {
+            return pageTokenTtl;
+        }
+
+        public void setPageTokenTtl(Duration pageTokenTtl) {
+            this.pageTokenTtl = pageTokenTtl;
+        }
+
+        public int getLocalMaxEntries() {
+            return localMaxEntries;
+        }
+
+        public void setLocalMaxEntries(int localMaxEntries) {
+            this.localMaxEntries = localMaxEntries;
+        }
+    }
+
+    public static class Resilience {
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private Duration readTimeout = Duration.ofSeconds(3);
+        private Duration callTimeout = Duration.ofSeconds(4);
+        private int maxConcurrentCalls = 16;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+        private boolean hedgeDetails = false;
+        private Duration hedgeDelay = Duration.ofMillis(300);
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        public void setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public boolean isHedgeDetails() {
+            return hedgeDetails;
+        }
+
+        public void setHedgeDetails(boolean hedgeDetails) {
+            this.hedgeDetails = hedgeDetails;
+        }
+
+        public Duration getHedgeDelay() {
+            return hedgeDelay;
+        }
+
+        public void setHedgeDelay(Duration hedgeDelay) {
+            this.hedgeDelay = hedgeDelay;
+        }
+    }
+
+    public static class Enrichment {
+        private boolean enabled = true;
+        private int queueCapacity = 5_000;
+        private int concurrency = 4;
+        private int batchSize = 25;
+        private Duration drainInterval = Duration.ofSeconds(5);
+        private Duration refreshAfter = Duration.ofDays(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getDrainInterval() {
+            return drainInterval;
+        }
+
+        public void setDrainInterval(Duration drainInterval) {
+            this.drainInterval = drainInterval;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+    }
+
+    public static class Refresh {
+        private boolean enabled = true;
+        private Duration interval = Duration.ofMinutes(1);
+        private Duration staleAfter = Duration.ofDays(7);
+        private Duration retryAfter = Duration.ofHours(6);
+        private int batchSize = 10;
+        private int quotaCapacity = 60;
+        private int quotaPerMinute = 20;
+        private int sweepTilesPerCycle = 2;
+        private Duration sweepInterval = Duration.ofDays(7);
+        private List<Region> regions = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getStaleAfter() {
+            return staleAfter;
+        }
+
+        public void setStaleAfter(Duration staleAfter) {
+            this.staleAfter = staleAfter;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getQuotaCapacity() {
+            return quotaCapacity;
+        }
+
+        public void setQuotaCapacity(int quotaCapacity) {
+            this.quotaCapacity = quotaCapacity;
+        }
+
+        public int getQuotaPerMinute() {
+            return quotaPerMinute;
+        }
+
+        public void setQuotaPerMinute(int quotaPerMinute) {
+            this.quotaPerMinute = quotaPerMinute;
+        }
+
+        public int getSweepTilesPerCycle() {
+            return sweepTilesPerCycle;
+        }
+
+        public void setSweepTilesPerCycle(int sweepTilesPerCycle) {
+            this.sweepTilesPerCycle = sweepTilesPerCycle;
+        }
+
+        public Duration getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+
+        public List<Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(List<Region> regions) {
+            this.regions = regions;
+        }
+    }
+
+    public static class Region {
+        private String name;
+        private double south;
+        private double west;
+        private double north;
+        private double east;
+        private double tileKm = 5.0;
+        private String query = "auto repair";
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getSouth() {
+            return south;
+        }
+
+        public void setSouth(double south) {
+            this.south = south;
+        }
+
+        public double getWest() {
+            return west;
+        }
+
+        public void setWest(double west) {
+            this.west = west;
+        }
+
+        public double getNorth() {
+            return north;
+        }
+
+        public void setNorth(double north) {
+            this.north = north;
+        }
+
+        public double getEast() {
+            return east;
+        }
+
+        public void setEast(double east) {
+            this.east = east;
+        }
+
+        public double getTileKm() {
+            return tileKm;
+        }
+
+        public void setTileKm(double tileKm) {
+            this.tileKm = tileKm;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public void setQuery(String query) {
+            this.query = query;
+        }
+    }
 }
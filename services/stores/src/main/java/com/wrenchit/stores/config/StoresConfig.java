@@ -1,16 +1,38 @@
 package com.wrenchit.stores.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 @Configuration
 @EnableConfigurationProperties(GooglePlacesProperties.class)
 public class StoresConfig {
 
+    private static final String PRIMARY_DATA_SOURCE = "dataSource";
+
     @Bean
     RestClient googlePlacesRestClient(RestClient.Builder builder, GooglePlacesProperties props) {
-        return builder.baseUrl(props.getBaseUrl()).build();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(props.getResilience().getConnectTimeout());
+        requestFactory.setReadTimeout(props.getResilience().getReadTimeout());
+        return builder.baseUrl(props.getBaseUrl()).requestFactory(requestFactory).build();
+    }
+
+    @Bean
+    static BeanPostProcessor connectionHoldDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (PRIMARY_DATA_SOURCE.equals(beanName) && bean instanceof HikariDataSource dataSource) {
+                    return new ConnectionHoldDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
     }
 }
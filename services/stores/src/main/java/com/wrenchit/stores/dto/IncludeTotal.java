@@ -0,0 +1,20 @@
+package com.wrenchit.stores.dto;
+
+import java.util.Locale;
+
+public enum IncludeTotal {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    public static IncludeTotal from(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        try {
+            return IncludeTotal.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("includeTotal must be one of exact, estimate, none.");
+        }
+    }
+}
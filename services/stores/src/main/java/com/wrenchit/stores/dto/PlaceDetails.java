@@ -8,6 +8,10 @@ public class PlaceDetails {
     private String address;
     private String phone;
     private String website;
+    private String city;
+    private String state;
+    private String postalCode;
+    private String country;
     private Double lat;
     private Double lng;
     private Double rating;
@@ -54,6 +58,38 @@ public class PlaceDetails {
         this.website = website;
     }
 
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public void setPostalCode(String postalCode) {
+        this.postalCode = postalCode;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
     public Double getLat() {
         return lat;
     }
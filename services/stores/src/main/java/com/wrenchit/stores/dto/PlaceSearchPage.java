@@ -0,0 +1,25 @@
+package com.wrenchit.stores.dto;
+
+import java.util.List;
+
+public class PlaceSearchPage {
+    private final List<PlaceSearchResult> results;
+    private final String nextPageToken;
+
+    public PlaceSearchPage(List<PlaceSearchResult> results, String nextPageToken) {
+        this.results = results == null ? List.of() : results;
+        this.nextPageToken = nextPageToken == null || nextPageToken.isBlank() ? null : nextPageToken;
+    }
+
+    public List<PlaceSearchResult> getResults() {
+        return results;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+}
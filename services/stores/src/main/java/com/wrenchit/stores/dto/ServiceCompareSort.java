@@ -0,0 +1,21 @@
+package com.wrenchit.stores.dto;
+
+import java.util.Locale;
+
+public enum ServiceCompareSort {
+    PRICE,
+    RATING,
+    DISTANCE,
+    VALUE;
+
+    public static ServiceCompareSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return PRICE;
+        }
+        try {
+            return ServiceCompareSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("sort must be one of price, rating, distance, value.");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.wrenchit.stores.dto;
+
+import java.util.UUID;
+
+public class ServiceQuote {
+    private UUID storeId;
+    private String name;
+    private String location;
+    private double rating;
+    private long reviewCount;
+    private Integer priceCents;
+    private Integer durationMinutes;
+    private boolean hasVerifiedMechanic;
+    private Double distanceKm;
+
+    public ServiceQuote(UUID storeId,
+                        String name,
+                        String location,
+                        double rating,
+                        long reviewCount,
+                        Integer priceCents,
+                        Integer durationMinutes,
+                        boolean hasVerifiedMechanic,
+                        Double distanceKm) {
+        this.storeId = storeId;
+        this.name = name;
+        this.location = location;
+        this.rating = rating;
+        this.reviewCount = reviewCount;
+        this.priceCents = priceCents;
+        this.durationMinutes = durationMinutes;
+        this.hasVerifiedMechanic = hasVerifiedMechanic;
+        this.distanceKm = distanceKm;
+    }
+
+    public UUID getStoreId() {
+        return storeId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public Integer getPriceCents() {
+        return priceCents;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public boolean isHasVerifiedMechanic() {
+        return hasVerifiedMechanic;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+}
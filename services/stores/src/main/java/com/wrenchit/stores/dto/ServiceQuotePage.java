@@ -0,0 +1,39 @@
+package com.wrenchit.stores.dto;
+
+import java.util.List;
+
+public class ServiceQuotePage {
+    private String service;
+    private List<ServiceQuote> quotes;
+    private int limit;
+    private boolean hasMore;
+    private String nextCursor;
+
+    public ServiceQuotePage(String service, List<ServiceQuote> quotes, int limit, boolean hasMore, String nextCursor) {
+        this.service = service;
+        this.quotes = quotes;
+        this.limit = limit;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public List<ServiceQuote> getQuotes() {
+        return quotes;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,45 @@
+package com.wrenchit.stores.dto;
+
+import java.util.UUID;
+
+public class StoreCluster {
+    private double lat;
+    private double lng;
+    private long count;
+    private String minPriceRange;
+    private Double bestRating;
+    private UUID storeId;
+
+    public StoreCluster(double lat, double lng, long count, String minPriceRange, Double bestRating, UUID storeId) {
+        this.lat = lat;
+        this.lng = lng;
+        this.count = count;
+        this.minPriceRange = minPriceRange;
+        this.bestRating = bestRating;
+        this.storeId = storeId;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public String getMinPriceRange() {
+        return minPriceRange;
+    }
+
+    public Double getBestRating() {
+        return bestRating;
+    }
+
+    public UUID getStoreId() {
+        return storeId;
+    }
+}
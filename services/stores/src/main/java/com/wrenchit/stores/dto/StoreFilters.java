@@ -1,5 +1,9 @@
 package com.wrenchit.stores.dto;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
 public class StoreFilters {
     private Double minRating;
     private String servicesContains;
@@ -9,6 +13,9 @@ public class StoreFilters {
     private Boolean hasWebsite;
     private Boolean hasPhone;
     private Boolean openNow;
+    private Instant openAt;
+    private List<UUID> serviceIds;
+    private String serviceCategory;
 
     public StoreFilters(Double minRating,
                         String servicesContains,
@@ -18,6 +25,32 @@ public class StoreFilters {
                         Boolean hasWebsite,
                         Boolean hasPhone,
                         Boolean openNow) {
+        this(minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone, openNow, null);
+    }
+
+    public StoreFilters(Double minRating,
+                        String servicesContains,
+                        String city,
+                        String state,
+                        String priceRange,
+                        Boolean hasWebsite,
+                        Boolean hasPhone,
+                        Boolean openNow,
+                        Instant openAt) {
+        this(minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone, openNow, openAt, null, null);
+    }
+
+    public StoreFilters(Double minRating,
+                        String servicesContains,
+                        String city,
+                        String state,
+                        String priceRange,
+                        Boolean hasWebsite,
+                        Boolean hasPhone,
+                        Boolean openNow,
+                        Instant openAt,
+                        List<UUID> serviceIds,
+                        String serviceCategory) {
         this.minRating = minRating;
         this.servicesContains = servicesContains;
         this.city = city;
@@ -26,6 +59,9 @@ public class StoreFilters {
         this.hasWebsite = hasWebsite;
         this.hasPhone = hasPhone;
         this.openNow = openNow;
+        this.openAt = openAt;
+        this.serviceIds = serviceIds;
+        this.serviceCategory = serviceCategory;
     }
 
     public Double getMinRating() {
@@ -59,4 +95,16 @@ public class StoreFilters {
     public Boolean getOpenNow() {
         return openNow;
     }
+
+    public Instant getOpenAt() {
+        return openAt;
+    }
+
+    public List<UUID> getServiceIds() {
+        return serviceIds;
+    }
+
+    public String getServiceCategory() {
+        return serviceCategory;
+    }
 }
@@ -10,6 +10,8 @@ public class StoreSearchCriteria {
     private Double lng;
     private Double radiusKm;
     private StoreFilters filters;
+    private String cursor;
+    private IncludeTotal includeTotal;
 
     public StoreSearchCriteria(String query,
                                int limit,
@@ -19,7 +21,9 @@ public class StoreSearchCriteria {
                                Double lat,
                                Double lng,
                                Double radiusKm,
-                               StoreFilters filters) {
+                               StoreFilters filters,
+                               String cursor,
+                               IncludeTotal includeTotal) {
         this.query = query;
         this.limit = limit;
         this.offset = offset;
@@ -29,6 +33,8 @@ public class StoreSearchCriteria {
         this.lng = lng;
         this.radiusKm = radiusKm;
         this.filters = filters;
+        this.cursor = cursor;
+        this.includeTotal = includeTotal;
     }
 
     public String getQuery() {
@@ -66,4 +72,12 @@ public class StoreSearchCriteria {
     public StoreFilters getFilters() {
         return filters;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public IncludeTotal getIncludeTotal() {
+        return includeTotal;
+    }
 }
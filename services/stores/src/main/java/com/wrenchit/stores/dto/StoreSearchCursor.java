@@ -0,0 +1,148 @@
+package com.wrenchit.stores.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public final class StoreSearchCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    public enum Kind {
+        OFFSET,
+        RANK,
+        RELEVANCE,
+        DISTANCE,
+        RATING,
+        REVIEW_COUNT,
+        NAME
+    }
+
+    private final Kind kind;
+    private final UUID id;
+    private final Double primary;
+    private final Double secondary;
+    private final String text;
+    private final int offset;
+
+    private StoreSearchCursor(Kind kind, UUID id, Double primary, Double secondary, String text, int offset) {
+        this.kind = kind;
+        this.id = id;
+        this.primary = primary;
+        this.secondary = secondary;
+        this.text = text;
+        this.offset = offset;
+    }
+
+    public static StoreSearchCursor ofOffset(int offset) {
+        return new StoreSearchCursor(Kind.OFFSET, null, null, null, null, Math.max(offset, 0));
+    }
+
+    public static StoreSearchCursor ofRank(double rank, double similarity, UUID id) {
+        return new StoreSearchCursor(Kind.RANK, id, rank, similarity, null, 0);
+    }
+
+    public static StoreSearchCursor ofRelevance(double rankScore, UUID id) {
+        return new StoreSearchCursor(Kind.RELEVANCE, id, rankScore, null, null, 0);
+    }
+
+    public static StoreSearchCursor ofDistance(double distanceKm, UUID id) {
+        return new StoreSearchCursor(Kind.DISTANCE, id, distanceKm, null, null, 0);
+    }
+
+    public static StoreSearchCursor ofRating(double rating, UUID id) {
+        return new StoreSearchCursor(Kind.RATING, id, rating, null, null, 0);
+    }
+
+    public static StoreSearchCursor ofReviewCount(double reviewCount, UUID id) {
+        return new StoreSearchCursor(Kind.REVIEW_COUNT, id, reviewCount, null, null, 0);
+    }
+
+    public static StoreSearchCursor ofName(String name, UUID id) {
+        return new StoreSearchCursor(Kind.NAME, id, null, null, name == null ? "" : name, 0);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Double getPrimary() {
+        return primary;
+    }
+
+    public Double getSecondary() {
+        return secondary;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public boolean isKeyset() {
+        return kind != Kind.OFFSET;
+    }
+
+    public String encode() {
+        StringBuilder raw = new StringBuilder(VERSION).append(SEPARATOR).append(kind.name());
+        switch (kind) {
+            case OFFSET -> raw.append(SEPARATOR).append(offset);
+            case RANK -> raw.append(SEPARATOR).append(id)
+                    .append(SEPARATOR).append(primary)
+                    .append(SEPARATOR).append(secondary);
+            case NAME -> raw.append(SEPARATOR).append(id)
+                    .append(SEPARATOR).append(text);
+            default -> raw.append(SEPARATOR).append(id)
+                    .append(SEPARATOR).append(primary);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StoreSearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] head = raw.split("\\|", 3);
+            if (head.length < 3 || !VERSION.equals(head[0])) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            Kind kind = Kind.valueOf(head[1]);
+            if (kind == Kind.OFFSET) {
+                return ofOffset(Integer.parseInt(head[2]));
+            }
+            String[] parts = head[2].split("\\|", 2);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            UUID id = UUID.fromString(parts[0]);
+            return switch (kind) {
+                case RANK -> {
+                    String[] keys = parts[1].split("\\|", 2);
+                    if (keys.length < 2) {
+                        throw new IllegalArgumentException("Invalid cursor.");
+                    }
+                    yield ofRank(Double.parseDouble(keys[0]), Double.parseDouble(keys[1]), id);
+                }
+                case RELEVANCE -> ofRelevance(Double.parseDouble(parts[1]), id);
+                case DISTANCE -> ofDistance(Double.parseDouble(parts[1]), id);
+                case RATING -> ofRating(Double.parseDouble(parts[1]), id);
+                case REVIEW_COUNT -> ofReviewCount(Double.parseDouble(parts[1]), id);
+                case NAME -> ofName(parts[1], id);
+                case OFFSET -> throw new IllegalArgumentException("Invalid cursor.");
+            };
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor.", ex);
+        }
+    }
+}
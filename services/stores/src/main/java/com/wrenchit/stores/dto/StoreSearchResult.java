@@ -1,6 +1,7 @@
 package com.wrenchit.stores.dto;
 
 import java.util.List;
+import java.util.Map;
 
 import com.wrenchit.stores.entity.Store;
 
@@ -8,13 +9,38 @@ public class StoreSearchResult {
     private List<Store> stores;
     private int limit;
     private int offset;
-    private long total;
+    private Long total;
+    private boolean totalEstimated;
+    private boolean hasMore;
+    private String nextCursor;
+    private Map<String, Map<String, Long>> facets;
 
-    public StoreSearchResult(List<Store> stores, int limit, int offset, long total) {
+    public StoreSearchResult(List<Store> stores,
+                             int limit,
+                             int offset,
+                             Long total,
+                             boolean totalEstimated,
+                             boolean hasMore,
+                             String nextCursor) {
+        this(stores, limit, offset, total, totalEstimated, hasMore, nextCursor, null);
+    }
+
+    public StoreSearchResult(List<Store> stores,
+                             int limit,
+                             int offset,
+                             Long total,
+                             boolean totalEstimated,
+                             boolean hasMore,
+                             String nextCursor,
+                             Map<String, Map<String, Long>> facets) {
         this.stores = stores;
         this.limit = limit;
         this.offset = offset;
         this.total = total;
+        this.totalEstimated = totalEstimated;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+        this.facets = facets;
     }
 
     public List<Store> getStores() {
@@ -29,7 +55,23 @@ public class StoreSearchResult {
         return offset;
     }
 
-    public long getTotal() {
+    public Long getTotal() {
         return total;
     }
+
+    public boolean isTotalEstimated() {
+        return totalEstimated;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
 }
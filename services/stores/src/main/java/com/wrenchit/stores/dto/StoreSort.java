@@ -1,6 +1,7 @@
 package com.wrenchit.stores.dto;
 
 public enum StoreSort {
+    RELEVANCE,
     RATING,
     REVIEW_COUNT,
     NAME,
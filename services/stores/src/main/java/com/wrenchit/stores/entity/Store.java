@@ -7,6 +7,13 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "stores")
+@SqlResultSetMapping(
+        name = "StoreSearchRow",
+        entities = @EntityResult(entityClass = Store.class),
+        columns = {
+                @ColumnResult(name = "cursor_primary", type = Double.class),
+                @ColumnResult(name = "cursor_secondary", type = Double.class)
+        })
 public class Store {
 
     @Id
@@ -52,6 +59,12 @@ public class Store {
     @Column(name = "services_text", length = 2000)
     private String servicesText;
 
+    @Column(name = "rank_score", insertable = false, updatable = false)
+    private Double rankScore;
+
+    @Column(name = "details_synced_at")
+    private OffsetDateTime detailsSyncedAt;
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
@@ -186,6 +199,18 @@ public class Store {
         this.servicesText = servicesText;
     }
 
+    public Double getRankScore() {
+        return rankScore;
+    }
+
+    public OffsetDateTime getDetailsSyncedAt() {
+        return detailsSyncedAt;
+    }
+
+    public void setDetailsSyncedAt(OffsetDateTime detailsSyncedAt) {
+        this.detailsSyncedAt = detailsSyncedAt;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,510 @@
+package com.wrenchit.stores.google;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "wrenchit.google", name = "enabled", havingValue = "true")
+public class CachingPlacesClient implements PlacesClient {
+
+    public static final String REQUESTS_METRIC = "wrenchit.places.cache.requests";
+    public static final String HIT_RATIO_METRIC = "wrenchit.places.cache.hit.ratio";
+
+    private static final Logger log = LoggerFactory.getLogger(CachingPlacesClient.class);
+    private static final String SEARCH = "search";
+    private static final String DETAILS = "details";
+    private static final String PAGE_SUFFIX = "#page";
+    private static final int PURGE_EVERY_WRITES = 200;
+
+    private final PlacesClient delegate;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final GooglePlacesProperties.Cache settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Entry<CachedPage>> searchEntries;
+    private final Map<String, Entry<PlaceDetails>> detailsEntries;
+    private final Map<String, Entry<String>> openNowPageTokens;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> lookups = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final AtomicLong sharedWrites = new AtomicLong();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CachingPlacesClient(@Qualifier("resilientPlacesClient") PlacesClient delegate,
+                               NamedParameterJdbcTemplate jdbc,
+                               ObjectMapper objectMapper,
+                               GooglePlacesProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.settings = properties.getCache();
+        this.meterRegistry = meterRegistry;
+        this.searchEntries = boundedLru(settings.getLocalMaxEntries());
+        this.detailsEntries = boundedLru(settings.getLocalMaxEntries());
+        this.openNowPageTokens = boundedLru(settings.getLocalMaxEntries());
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        for (String operation : List.of(SEARCH, DETAILS)) {
+            Gauge.builder(HIT_RATIO_METRIC, this, client -> client.hitRatio(operation))
+                    .description("Share of Google Places lookups answered from the local or shared cache tier")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public List<PlaceSearchResult> search(String query, int limit, boolean openNow) {
+        if (openNow) {
+            record(SEARCH, "bypass");
+            return delegate.search(query, limit, true);
+        }
+        return first(searchPage(query, 0, false).getResults(), limit);
+    }
+
+    @Override
+    public PlaceSearchPage searchPage(String query, int page, boolean openNow) {
+        if (page < 0 || page >= MAX_PAGES) {
+            return new PlaceSearchPage(List.of(), null);
+        }
+        if (openNow) {
+            record(SEARCH, "bypass");
+            return fetchOpenNowPage(query, page);
+        }
+        String key = pageKey(normalizeQuery(query), page);
+        Entry<CachedPage> entry = lookupSearch(key);
+        Instant now = Instant.now();
+        boolean usable = entry != null && (page == 0
+                ? entry.isUsable(settings.getSearchTtl(), settings.getStaleWindow(), now)
+                : entry.isFresh(settings.getSearchTtl(), now));
+        if (usable) {
+            List<PlaceSearchResult> hydrated = hydrate(entry.value().placeIds());
+            if (hydrated != null) {
+                if (entry.isFresh(settings.getSearchTtl(), now)) {
+                    record(SEARCH, entry.tier());
+                } else {
+                    record(SEARCH, "stale");
+                    refreshAsync(SEARCH + ":" + key, () -> fetchSearch(key, query, page));
+                }
+                return new PlaceSearchPage(hydrated, entry.value().nextPageToken());
+            }
+        }
+        record(SEARCH, "miss");
+        return singleFlight(SEARCH + ":" + key, () -> fetchSearch(key, query, page));
+    }
+
+    @Override
+    public PlaceSearchPage fetchPage(String query, String pageToken, boolean openNow) {
+        return delegate.fetchPage(query, pageToken, openNow);
+    }
+
+    @Override
+    public PlaceSearchPage searchArea(String query, double lat, double lng, int radiusMeters) {
+        return delegate.searchArea(query, lat, lng, radiusMeters);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public PlaceDetails details(String placeId) {
+        Entry<PlaceDetails> entry = lookupDetails(placeId);
+        Instant now = Instant.now();
+        if (entry != null && entry.isUsable(settings.getDetailsTtl(), settings.getStaleWindow(), now)) {
+            if (entry.isFresh(settings.getDetailsTtl(), now)) {
+                record(DETAILS, entry.tier());
+            } else {
+                record(DETAILS, "stale");
+                refreshAsync(DETAILS + ":" + placeId, () -> fetchDetails(placeId));
+            }
+            return entry.value();
+        }
+        record(DETAILS, "miss");
+        return singleFlight(DETAILS + ":" + placeId, () -> fetchDetails(placeId));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    static String normalizeQuery(String query) {
+        String normalized = Normalizer.normalize(query == null ? "" : query, Normalizer.Form.NFKC);
+        return normalized.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private PlaceSearchPage fetchSearch(String key, String query, int page) {
+        String pageToken = null;
+        if (page > 0) {
+            pageToken = nextPageToken(query, page - 1);
+            if (pageToken == null) {
+                return new PlaceSearchPage(List.of(), null);
+            }
+        }
+        PlaceSearchPage fetched;
+        try {
+            fetched = delegate.fetchPage(query, pageToken, false);
+        } catch (RuntimeException ex) {
+            if (page > 0) {
+                evictSearch(pageKey(normalizeQuery(query), page - 1));
+            }
+            throw ex;
+        }
+        List<String> placeIds = fetched.getResults().stream()
+                .map(PlaceSearchResult::getPlaceId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        searchEntries.put(key, new Entry<>(new CachedPage(placeIds, fetched.getNextPageToken()), Instant.now(), "local"));
+        writeShared("""
+                insert into places_search_cache (cache_key, place_ids, next_page_token, fetched_at)
+                values (:key, cast(:placeIds as text[]), :nextPageToken, now())
+                on conflict (cache_key) do update
+                set place_ids = excluded.place_ids,
+                    next_page_token = excluded.next_page_token,
+                    fetched_at = excluded.fetched_at
+                """, new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("placeIds", placeIds.toArray(String[]::new))
+                .addValue("nextPageToken", fetched.getNextPageToken()));
+        return fetched;
+    }
+
+    private String nextPageToken(String query, int page) {
+        String key = pageKey(normalizeQuery(query), page);
+        Entry<CachedPage> entry = lookupSearch(key);
+        if (entry != null && entry.isFresh(settings.getPageTokenTtl(), Instant.now())) {
+            return entry.value().nextPageToken();
+        }
+        return singleFlight(SEARCH + ":" + key, () -> fetchSearch(key, query, page)).getNextPageToken();
+    }
+
+    private PlaceSearchPage fetchOpenNowPage(String query, int page) {
+        String key = normalizeQuery(query);
+        String pageToken = null;
+        if (page > 0) {
+            Entry<String> cached = openNowPageTokens.get(pageKey(key, page));
+            if (cached != null && cached.isFresh(settings.getPageTokenTtl(), Instant.now())) {
+                pageToken = cached.value();
+            } else {
+                pageToken = fetchOpenNowPage(query, page - 1).getNextPageToken();
+                if (pageToken == null) {
+                    return new PlaceSearchPage(List.of(), null);
+                }
+            }
+        }
+        PlaceSearchPage fetched;
+        try {
+            fetched = delegate.fetchPage(query, pageToken, true);
+        } catch (RuntimeException ex) {
+            openNowPageTokens.remove(pageKey(key, page));
+            throw ex;
+        }
+        if (fetched.hasNextPage()) {
+            openNowPageTokens.put(pageKey(key, page + 1), new Entry<>(fetched.getNextPageToken(), Instant.now(), "local"));
+        }
+        return fetched;
+    }
+
+    private void evictSearch(String key) {
+        searchEntries.remove(key);
+        writeShared("delete from places_search_cache where cache_key = :key", new MapSqlParameterSource("key", key));
+    }
+
+    private static String pageKey(String key, int page) {
+        return page == 0 ? key : key + PAGE_SUFFIX + page;
+    }
+
+    private PlaceDetails fetchDetails(String placeId) {
+        PlaceDetails details = delegate.details(placeId);
+        detailsEntries.put(placeId, new Entry<>(details, Instant.now(), "local"));
+        String payload;
+        try {
+            payload = details == null ? null : objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialize Google Places details for cache. placeId='{}'", placeId, ex);
+            return details;
+        }
+        writeShared("""
+                insert into places_details_cache (place_id, payload, fetched_at)
+                values (:placeId, cast(:payload as jsonb), now())
+                on conflict (place_id) do update
+                set payload = excluded.payload,
+                    fetched_at = excluded.fetched_at
+                """, new MapSqlParameterSource()
+                .addValue("placeId", placeId)
+                .addValue("payload", payload));
+        return details;
+    }
+
+    private Entry<CachedPage> lookupSearch(String key) {
+        Entry<CachedPage> local = searchEntries.get(key);
+        if (local != null) {
+            return local;
+        }
+        try {
+            List<Entry<CachedPage>> rows = jdbc.query(
+                    "select place_ids, next_page_token, fetched_at from places_search_cache where cache_key = :key",
+                    new MapSqlParameterSource("key", key),
+                    (rs, rowNum) -> new Entry<>(new CachedPage(placeIds(rs.getArray("place_ids")), rs.getString("next_page_token")),
+                            fetchedAt(rs), "shared"));
+            if (rows.isEmpty()) {
+                return null;
+            }
+            Entry<CachedPage> shared = rows.get(0);
+            searchEntries.put(key, new Entry<>(shared.value(), shared.fetchedAt(), "local"));
+            return shared;
+        } catch (DataAccessException ex) {
+            log.debug("Shared Places search cache unavailable. key='{}'", key, ex);
+            return null;
+        }
+    }
+
+    private Entry<PlaceDetails> lookupDetails(String placeId) {
+        Entry<PlaceDetails> local = detailsEntries.get(placeId);
+        if (local != null) {
+            return local;
+        }
+        try {
+            List<Entry<PlaceDetails>> rows = jdbc.query(
+                    "select payload::text as payload, fetched_at from places_details_cache where place_id = :placeId",
+                    new MapSqlParameterSource("placeId", placeId),
+                    (rs, rowNum) -> new Entry<>(readDetails(rs.getString("payload")), fetchedAt(rs), "shared"));
+            if (rows.isEmpty()) {
+                return null;
+            }
+            Entry<PlaceDetails> shared = rows.get(0);
+            detailsEntries.put(placeId, new Entry<>(shared.value(), shared.fetchedAt(), "local"));
+            return shared;
+        } catch (DataAccessException | IllegalStateException ex) {
+            log.debug("Shared Places details cache unavailable. placeId='{}'", placeId, ex);
+            return null;
+        }
+    }
+
+    private List<PlaceSearchResult> hydrate(List<String> placeIds) {
+        if (placeIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, PlaceSearchResult> byPlaceId = new HashMap<>();
+        try {
+            jdbc.query("""
+                    select google_place_id, name, address, lat, lng, rating, rating_count
+                    from stores
+                    where google_place_id in (:placeIds)
+                    """, new MapSqlParameterSource("placeIds", placeIds), rs -> {
+                PlaceSearchResult place = new PlaceSearchResult();
+                place.setPlaceId(rs.getString("google_place_id"));
+                place.setName(rs.getString("name"));
+                place.setAddress(rs.getString("address"));
+                place.setLat(rs.getObject("lat", Double.class));
+                place.setLng(rs.getObject("lng", Double.class));
+                place.setRating(rs.getObject("rating", Double.class));
+                place.setRatingCount(rs.getObject("rating_count", Integer.class));
+                byPlaceId.put(place.getPlaceId(), place);
+            });
+        } catch (DataAccessException ex) {
+            log.debug("Could not hydrate cached Places search results", ex);
+            return null;
+        }
+        List<PlaceSearchResult> ordered = new ArrayList<>(placeIds.size());
+        for (String placeId : placeIds) {
+            PlaceSearchResult place = byPlaceId.get(placeId);
+            if (place == null) {
+                return null;
+            }
+            ordered.add(place);
+        }
+        return ordered;
+    }
+
+    private <T> T singleFlight(String key, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void refreshAsync(String key, Supplier<?> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    mine.complete(loader.get());
+                } catch (RuntimeException ex) {
+                    mine.completeExceptionally(ex);
+                    log.warn("Background refresh of Google Places cache entry failed. key='{}'", key, ex);
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T await(CompletableFuture<Object> future) {
+        try {
+            return (T) future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void writeShared(String sql, MapSqlParameterSource params) {
+        try {
+            jdbc.update(sql, params);
+            if (sharedWrites.incrementAndGet() % PURGE_EVERY_WRITES == 0) {
+                purgeExpired();
+            }
+        } catch (DataAccessException ex) {
+            log.debug("Shared Places cache write failed", ex);
+        }
+    }
+
+    private void purgeExpired() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbc.update("delete from places_search_cache where fetched_at < :cutoff",
+                new MapSqlParameterSource("cutoff", now.minus(settings.getSearchTtl()).minus(settings.getStaleWindow())));
+        jdbc.update("delete from places_details_cache where fetched_at < :cutoff",
+                new MapSqlParameterSource("cutoff", now.minus(settings.getDetailsTtl()).minus(settings.getStaleWindow())));
+    }
+
+    private PlaceDetails readDetails(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, PlaceDetails.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable cached Google Places details", ex);
+        }
+    }
+
+    private List<String> placeIds(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        return List.of((String[]) array.getArray());
+    }
+
+    private Instant fetchedAt(ResultSet rs) throws SQLException {
+        return rs.getObject("fetched_at", OffsetDateTime.class).toInstant();
+    }
+
+    private List<PlaceSearchResult> first(List<PlaceSearchResult> results, int limit) {
+        return new ArrayList<>(results.subList(0, Math.min(Math.max(limit, 0), results.size())));
+    }
+
+    private void record(String operation, String result) {
+        meterRegistry.counter(REQUESTS_METRIC, "operation", operation, "result", result).increment();
+        if ("bypass".equals(result)) {
+            return;
+        }
+        lookups.computeIfAbsent(operation, ignored -> new LongAdder()).increment();
+        if (!"miss".equals(result)) {
+            hits.computeIfAbsent(operation, ignored -> new LongAdder()).increment();
+        }
+    }
+
+    private double hitRatio(String operation) {
+        LongAdder total = lookups.get(operation);
+        if (total == null || total.sum() == 0) {
+            return 0.0;
+        }
+        LongAdder hit = hits.get(operation);
+        return hit == null ? 0.0 : (double) hit.sum() / total.sum();
+    }
+
+    private static <V> Map<String, V> boundedLru(int maxEntries) {
+        int bound = Math.max(1, maxEntries);
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > bound;
+            }
+        });
+    }
+
+    private record CachedPage(List<String> placeIds, String nextPageToken) {}
+
+    private record Entry<T>(T value, Instant fetchedAt, String tier) {
+
+        boolean isFresh(Duration ttl, Instant now) {
+            return fetchedAt.plus(ttl).isAfter(now);
+        }
+
+        boolean isUsable(Duration ttl, Duration staleWindow, Instant now) {
+            return fetchedAt.plus(ttl).plus(staleWindow).isAfter(now);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.wrenchit.stores.google;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,14 +14,24 @@ import org.springframework.web.client.RestClient;
 
 import com.wrenchit.stores.config.GooglePlacesProperties;
 import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
 import com.wrenchit.stores.dto.PlaceSearchResult;
 
 @Component
 @ConditionalOnProperty(prefix = "wrenchit.google", name = "enabled", havingValue = "true")
 public class GooglePlacesClient implements PlacesClient {
 
+    private static final Duration PAGE_TOKEN_ACTIVATION_DELAY = Duration.ofSeconds(2);
+    private static final int MAX_TRACKED_PAGE_TOKENS = 1_000;
+
     private final RestClient restClient;
     private final GooglePlacesProperties properties;
+    private final Map<String, Instant> issuedPageTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+            return size() > MAX_TRACKED_PAGE_TOKENS;
+        }
+    });
 
     public GooglePlacesClient(RestClient restClient, GooglePlacesProperties properties) {
         this.restClient = restClient;
@@ -26,22 +40,45 @@ public class GooglePlacesClient implements PlacesClient {
 
     @Override
     public List<PlaceSearchResult> search(String query, int limit, boolean openNow) {
-        var response = restClient.get()
-                .uri(uriBuilder -> {
-                    var builder = uriBuilder
-                            .path("/textsearch/json")
-                            .queryParam("query", query)
-                            .queryParam("key", properties.getApiKey());
-                    if (openNow) {
-                        builder.queryParam("opennow", "true");
-                    }
-                    return builder.build();
-                })
-                .retrieve()
-                .body(GooglePlacesSearchResponse.class);
+        List<PlaceSearchResult> results = fetchPage(query, null, openNow).getResults();
+        return results.size() <= limit ? results : new ArrayList<>(results.subList(0, Math.max(limit, 0)));
+    }
+
+    @Override
+    public PlaceSearchPage searchPage(String query, int page, boolean openNow) {
+        PlaceSearchPage current = fetchPage(query, null, openNow);
+        for (int index = 0; index < page; index++) {
+            if (!current.hasNextPage()) {
+                return new PlaceSearchPage(List.of(), null);
+            }
+            current = fetchPage(query, current.getNextPageToken(), openNow);
+        }
+        return current;
+    }
 
+    @Override
+    public PlaceSearchPage fetchPage(String query, String pageToken, boolean openNow) {
+        GooglePlacesSearchResponse response = requestPage(query, pageToken, openNow, null, 0);
+        if (response != null && pageToken != null && "INVALID_REQUEST".equalsIgnoreCase(response.status)
+                && recentlyIssued(pageToken)) {
+            pauseForPageToken();
+            response = requestPage(query, pageToken, openNow, null, 0);
+        }
+        PlaceSearchPage page = toPage(response);
+        if (page.hasNextPage()) {
+            issuedPageTokens.put(page.getNextPageToken(), Instant.now());
+        }
+        return page;
+    }
+
+    @Override
+    public PlaceSearchPage searchArea(String query, double lat, double lng, int radiusMeters) {
+        return toPage(requestPage(query, null, false, lat + "," + lng, radiusMeters));
+    }
+
+    private PlaceSearchPage toPage(GooglePlacesSearchResponse response) {
         if (response == null) {
-            return List.of();
+            return new PlaceSearchPage(List.of(), null);
         }
         if (response.status != null
                 && !response.status.equalsIgnoreCase("OK")
@@ -49,7 +86,7 @@ public class GooglePlacesClient implements PlacesClient {
             throw new IllegalStateException("Google Places search failed with status: " + response.status);
         }
         if (response.results == null || response.results.isEmpty()) {
-            return List.of();
+            return new PlaceSearchPage(List.of(), null);
         }
 
         List<PlaceSearchResult> results = new ArrayList<>();
@@ -65,11 +102,45 @@ public class GooglePlacesClient implements PlacesClient {
             r.setRating(item.rating);
             r.setRatingCount(item.user_ratings_total);
             results.add(r);
-            if (results.size() >= limit) {
-                break;
-            }
         }
-        return results;
+        return new PlaceSearchPage(results, response.next_page_token);
+    }
+
+    private GooglePlacesSearchResponse requestPage(String query, String pageToken, boolean openNow, String location, int radiusMeters) {
+        return restClient.get()
+                .uri(uriBuilder -> {
+                    var builder = uriBuilder
+                            .path("/textsearch/json")
+                            .queryParam("query", query)
+                            .queryParam("key", properties.getApiKey());
+                    if (openNow) {
+                        builder.queryParam("opennow", "true");
+                    }
+                    if (pageToken != null) {
+                        builder.queryParam("pagetoken", pageToken);
+                    }
+                    if (location != null) {
+                        builder.queryParam("location", location)
+                                .queryParam("radius", radiusMeters);
+                    }
+                    return builder.build();
+                })
+                .retrieve()
+                .body(GooglePlacesSearchResponse.class);
+    }
+
+    private boolean recentlyIssued(String pageToken) {
+        Instant issuedAt = issuedPageTokens.get(pageToken);
+        return issuedAt != null && issuedAt.plus(PAGE_TOKEN_ACTIVATION_DELAY).isAfter(Instant.now());
+    }
+
+    private void pauseForPageToken() {
+        try {
+            Thread.sleep(PAGE_TOKEN_ACTIVATION_DELAY.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Google Places page token", ex);
+        }
     }
 
     @Override
@@ -82,6 +153,7 @@ public class GooglePlacesClient implements PlacesClient {
                                 "place_id",
                                 "name",
                                 "formatted_address",
+                                "address_components",
                                 "formatted_phone_number",
                                 "website",
                                 "geometry",
@@ -110,6 +182,24 @@ public class GooglePlacesClient implements PlacesClient {
         details.setAddress(item.formatted_address);
         details.setPhone(item.formatted_phone_number);
         details.setWebsite(item.website);
+        if (item.address_components != null) {
+            for (AddressComponent component : item.address_components) {
+                if (component.types == null) {
+                    continue;
+                }
+                if (component.types.contains("locality")) {
+                    details.setCity(component.long_name);
+                } else if (component.types.contains("postal_town") && details.getCity() == null) {
+                    details.setCity(component.long_name);
+                } else if (component.types.contains("administrative_area_level_1")) {
+                    details.setState(component.short_name);
+                } else if (component.types.contains("postal_code")) {
+                    details.setPostalCode(component.long_name);
+                } else if (component.types.contains("country")) {
+                    details.setCountry(component.short_name);
+                }
+            }
+        }
         if (item.geometry != null && item.geometry.location != null) {
             details.setLat(item.geometry.location.lat);
             details.setLng(item.geometry.location.lng);
@@ -122,6 +212,7 @@ public class GooglePlacesClient implements PlacesClient {
     static class GooglePlacesSearchResponse {
         public String status;
         public String error_message;
+        public String next_page_token;
         public List<SearchResultItem> results;
     }
 
@@ -146,12 +237,19 @@ public class GooglePlacesClient implements PlacesClient {
         public String formatted_address;
         public String formatted_phone_number;
         public String website;
+        public List<AddressComponent> address_components;
         public Double rating;
         public Integer user_ratings_total;
         public Geometry geometry;
         public Map<String, Object> opening_hours;
     }
 
+    static class AddressComponent {
+        public String long_name;
+        public String short_name;
+        public List<String> types;
+    }
+
     static class Geometry {
         public Location location;
     }
@@ -0,0 +1,146 @@
+package com.wrenchit.stores.google;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class PlacesCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int halfOpenCalls;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final Consumer<State> onTransition;
+    private final boolean[] failuresWindow;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private Instant openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public PlacesCircuitBreaker(int windowSize,
+                                int minimumCalls,
+                                int failureRateThreshold,
+                                int halfOpenCalls,
+                                Duration openDuration,
+                                Clock clock,
+                                Consumer<State> onTransition) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = Math.max(1, Math.min(failureRateThreshold, 100));
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.onTransition = onTransition;
+        this.failuresWindow = new boolean[this.windowSize];
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && openElapsed()) {
+            transition(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (halfOpenPermits <= 0) {
+                    yield false;
+                }
+                halfOpenPermits--;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> openElapsed();
+            case HALF_OPEN -> halfOpenPermits > 0;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= halfOpenCalls) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    public synchronized void onCancelled() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits = Math.min(halfOpenPermits + 1, halfOpenCalls);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == windowSize && failuresWindow[next]) {
+            failures--;
+        }
+        failuresWindow[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+    }
+
+    private void open() {
+        openedAt = clock.instant();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        Arrays.fill(failuresWindow, false);
+    }
+
+    private boolean openElapsed() {
+        return openedAt != null && !clock.instant().isBefore(openedAt.plus(openDuration));
+    }
+
+    private void transition(State target) {
+        if (state != target) {
+            state = target;
+            onTransition.accept(target);
+        }
+    }
+}
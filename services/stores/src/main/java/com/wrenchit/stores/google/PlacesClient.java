@@ -3,10 +3,24 @@ package com.wrenchit.stores.google;
 import java.util.List;
 
 import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
 import com.wrenchit.stores.dto.PlaceSearchResult;
 
 public interface PlacesClient {
+    int PAGE_SIZE = 20;
+    int MAX_PAGES = 3;
+
     List<PlaceSearchResult> search(String query, int limit, boolean openNow);
 
+    PlaceSearchPage searchPage(String query, int page, boolean openNow);
+
+    PlaceSearchPage fetchPage(String query, String pageToken, boolean openNow);
+
+    PlaceSearchPage searchArea(String query, double lat, double lng, int radiusMeters);
+
     PlaceDetails details(String placeId);
+
+    default boolean isAvailable() {
+        return true;
+    }
 }
@@ -0,0 +1,89 @@
+package com.wrenchit.stores.google;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wrenchit.stores.config.GooglePlacesProperties;
+
+@Component
+public class PlacesQuotaBudget {
+
+    public static final String BUCKET = "places";
+
+    private static final String LOCK_SQL = "select pg_advisory_xact_lock(hashtext(:lockName))";
+
+    private static final String REFILL_SQL = """
+            insert into places_quota_buckets as b (name, tokens, refilled_at)
+            values (:name, :capacity, now())
+            on conflict (name) do update
+            set tokens = least(:capacity, b.tokens + extract(epoch from now() - b.refilled_at) * :refillPerSecond),
+                refilled_at = now()
+            returning tokens
+            """;
+
+    private static final String ADJUST_SQL = """
+            update places_quota_buckets
+            set tokens = least(:capacity, greatest(tokens + :delta, 0))
+            where name = :name
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final GooglePlacesProperties.Refresh settings;
+
+    public PlacesQuotaBudget(NamedParameterJdbcTemplate jdbc,
+                             PlatformTransactionManager transactionManager,
+                             GooglePlacesProperties properties) {
+        this.jdbc = jdbc;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.settings = properties.getRefresh();
+    }
+
+    public int tryAcquire(int requested) {
+        if (requested <= 0) {
+            return 0;
+        }
+        Integer granted = transaction.execute(status -> {
+            lock();
+            Double tokens = jdbc.queryForObject(REFILL_SQL, new MapSqlParameterSource()
+                    .addValue("name", BUCKET)
+                    .addValue("capacity", (double) capacity())
+                    .addValue("refillPerSecond", Math.max(settings.getQuotaPerMinute(), 0) / 60.0), Double.class);
+            int available = tokens == null ? 0 : (int) Math.floor(tokens);
+            int taken = Math.min(requested, available);
+            if (taken > 0) {
+                adjust(-taken);
+            }
+            return taken;
+        });
+        return granted == null ? 0 : granted;
+    }
+
+    public void refund(int unused) {
+        if (unused <= 0) {
+            return;
+        }
+        transaction.executeWithoutResult(status -> {
+            lock();
+            adjust(unused);
+        });
+    }
+
+    private void lock() {
+        jdbc.query(LOCK_SQL, new MapSqlParameterSource("lockName", "wrenchit.places.quota." + BUCKET), rs -> null);
+    }
+
+    private void adjust(int delta) {
+        jdbc.update(ADJUST_SQL, new MapSqlParameterSource()
+                .addValue("name", BUCKET)
+                .addValue("capacity", (double) capacity())
+                .addValue("delta", (double) delta));
+    }
+
+    private int capacity() {
+        return Math.max(settings.getQuotaCapacity(), 1);
+    }
+}
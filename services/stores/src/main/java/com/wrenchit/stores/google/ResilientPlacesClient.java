@@ -0,0 +1,190 @@
+package com.wrenchit.stores.google;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+@ConditionalOnProperty(prefix = "wrenchit.google", name = "enabled", havingValue = "true")
+public class ResilientPlacesClient implements PlacesClient {
+
+    public static final String CALLS_METRIC = "wrenchit.places.resilience.calls";
+    public static final String CIRCUIT_STATE_METRIC = "wrenchit.places.circuit.state";
+    public static final String CIRCUIT_TRANSITIONS_METRIC = "wrenchit.places.circuit.transitions";
+    public static final String BULKHEAD_AVAILABLE_METRIC = "wrenchit.places.bulkhead.available";
+
+    private static final String SEARCH = "search";
+    private static final String DETAILS = "details";
+
+    private final GooglePlacesClient delegate;
+    private final GooglePlacesProperties.Resilience settings;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore bulkhead;
+    private final PlacesCircuitBreaker circuitBreaker;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ResilientPlacesClient(GooglePlacesClient delegate,
+                                 GooglePlacesProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.settings = properties.getResilience();
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(Math.max(1, settings.getMaxConcurrentCalls()));
+        this.circuitBreaker = new PlacesCircuitBreaker(settings.getSlidingWindowSize(), settings.getMinimumCalls(),
+                settings.getFailureRateThreshold(), settings.getHalfOpenCalls(), settings.getOpenDuration(), Clock.systemUTC(),
+                state -> meterRegistry.counter(CIRCUIT_TRANSITIONS_METRIC, "state", state.name().toLowerCase()).increment());
+        Gauge.builder(CIRCUIT_STATE_METRIC, circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Google Places circuit state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        Gauge.builder(BULKHEAD_AVAILABLE_METRIC, bulkhead, Semaphore::availablePermits)
+                .description("Google Places calls that can start before the bulkhead rejects")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<PlaceSearchResult> search(String query, int limit, boolean openNow) {
+        return call(SEARCH, () -> delegate.search(query, limit, openNow), false);
+    }
+
+    @Override
+    public PlaceSearchPage searchPage(String query, int page, boolean openNow) {
+        return call(SEARCH, () -> delegate.searchPage(query, page, openNow), false);
+    }
+
+    @Override
+    public PlaceSearchPage fetchPage(String query, String pageToken, boolean openNow) {
+        return call(SEARCH, () -> delegate.fetchPage(query, pageToken, openNow), false);
+    }
+
+    @Override
+    public PlaceSearchPage searchArea(String query, double lat, double lng, int radiusMeters) {
+        return call(SEARCH, () -> delegate.searchArea(query, lat, lng, radiusMeters), false);
+    }
+
+    @Override
+    public PlaceDetails details(String placeId) {
+        return call(DETAILS, () -> delegate.details(placeId), settings.isHedgeDetails());
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    public PlacesCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T call(String operation, Supplier<T> work, boolean hedge) {
+        if (!bulkhead.tryAcquire()) {
+            record(operation, "bulkhead_rejected");
+            throw new IllegalStateException("Google Places " + operation + " rejected: too many concurrent calls");
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            record(operation, "short_circuited");
+            throw new IllegalStateException("Google Places " + operation + " skipped: circuit is open");
+        }
+        long deadline = System.nanoTime() + settings.getCallTimeout().toNanos();
+        try {
+            CompletableFuture<T> outcome = start(work);
+            if (hedge) {
+                try {
+                    return succeeded(operation, outcome.get(settings.getHedgeDelay().toNanos(), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException slow) {
+                    if (bulkhead.tryAcquire()) {
+                        record(operation, "hedged");
+                        outcome = firstSuccessful(outcome, start(work));
+                    }
+                }
+            }
+            return succeeded(operation, outcome.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException ex) {
+            circuitBreaker.onFailure();
+            record(operation, "timeout");
+            throw new IllegalStateException("Google Places " + operation + " exceeded its deadline of "
+                    + settings.getCallTimeout().toMillis() + "ms", ex);
+        } catch (ExecutionException ex) {
+            circuitBreaker.onFailure();
+            record(operation, "failure");
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Google Places " + operation + " failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            circuitBreaker.onCancelled();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Google Places " + operation, ex);
+        }
+    }
+
+    private <T> CompletableFuture<T> start(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return work.get();
+                } finally {
+                    bulkhead.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            bulkhead.release();
+            throw ex;
+        }
+    }
+
+    private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        first.whenComplete((value, failure) -> {
+            if (failure == null) {
+                winner.complete(value);
+            } else if (second.isCompletedExceptionally()) {
+                winner.completeExceptionally(failure);
+            }
+        });
+        second.whenComplete((value, failure) -> {
+            if (failure == null) {
+                winner.complete(value);
+            } else if (first.isCompletedExceptionally()) {
+                winner.completeExceptionally(failure);
+            }
+        });
+        return winner;
+    }
+
+    private <T> T succeeded(String operation, T value) {
+        circuitBreaker.onSuccess();
+        record(operation, "success");
+        return value;
+    }
+
+    private void record(String operation, String outcome) {
+        meterRegistry.counter(CALLS_METRIC, "operation", operation, "outcome", outcome).increment();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
 import com.wrenchit.stores.dto.PlaceSearchResult;
 
 @Component
@@ -17,6 +18,21 @@ public class StubPlacesClient implements PlacesClient {
         return List.of();
     }
 
+    @Override
+    public PlaceSearchPage searchPage(String query, int page, boolean openNow) {
+        return new PlaceSearchPage(List.of(), null);
+    }
+
+    @Override
+    public PlaceSearchPage fetchPage(String query, String pageToken, boolean openNow) {
+        return new PlaceSearchPage(List.of(), null);
+    }
+
+    @Override
+    public PlaceSearchPage searchArea(String query, double lat, double lng, int radiusMeters) {
+        return new PlaceSearchPage(List.of(), null);
+    }
+
     @Override
     public PlaceDetails details(String placeId) {
         return null;
@@ -1,10 +1,11 @@
 package com.wrenchit.stores.repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -12,350 +13,25 @@ import org.springframework.data.repository.query.Param;
 
 import com.wrenchit.stores.entity.Store;
 
-public interface StoreRepository extends JpaRepository<Store, UUID> {
+public interface StoreRepository extends JpaRepository<Store, UUID>, StoreRepositoryCustom {
     Optional<Store> findByGooglePlaceId(String googlePlaceId);
 
-    List<Store> findByGooglePlaceIdIn(List<String> googlePlaceIds);
-
-    @Query(value = """
-            select *
-            from stores
-            where (search_vector @@ plainto_tsquery('english', :query)
-                   or similarity(name, :query) > :minSimilarity)
-              and (:minRating is null or rating >= :minRating)
-              and (:servicesContains is null or services_text ilike concat('%', :servicesContains, '%'))
-              and (:city is null or lower(city) = lower(:city))
-              and (:state is null or lower(state) = lower(:state))
-              and (
-                :priceRange is null
-                or exists (
-                  select 1
-                  from store_services ss
-                  where ss.store_id = stores.id
-                    and ss.base_price_cents is not null
-                  group by ss.store_id
-                  having (
-                    (:priceRange = '$' and avg(ss.base_price_cents) < 5000)
-                    or (:priceRange = '$$' and avg(ss.base_price_cents) >= 5000 and avg(ss.base_price_cents) < 15000)
-                    or (:priceRange = '$$$' and avg(ss.base_price_cents) >= 15000)
-                  )
-                )
-              )
-              and (:hasWebsite is null or (:hasWebsite = true and website is not null and website <> '') or (:hasWebsite = false and (website is null or website = '')))
-              and (:hasPhone is null or (:hasPhone = true and phone is not null and phone <> '') or (:hasPhone = false and (phone is null or phone = '')))
-            order by ts_rank(search_vector, plainto_tsquery('english', :query)) desc,
-                     similarity(name, :query) desc
-            limit :limit offset :offset
-            """, nativeQuery = true)
-    List<Store> searchLocal(@Param("query") String query,
-                            @Param("minSimilarity") double minSimilarity,
-                            @Param("minRating") Double minRating,
-                            @Param("servicesContains") String servicesContains,
-                            @Param("city") String city,
-                            @Param("state") String state,
-                            @Param("priceRange") String priceRange,
-                            @Param("hasWebsite") Boolean hasWebsite,
-                            @Param("hasPhone") Boolean hasPhone,
-                            @Param("limit") int limit,
-                            @Param("offset") int offset);
-
-    @Query(value = """
-            select count(*)
-            from stores
-            where (search_vector @@ plainto_tsquery('english', :query)
-                   or similarity(name, :query) > :minSimilarity)
-              and (:minRating is null or rating >= :minRating)
-              and (:servicesContains is null or services_text ilike concat('%', :servicesContains, '%'))
-              and (:city is null or lower(city) = lower(:city))
-              and (:state is null or lower(state) = lower(:state))
-              and (
-                :priceRange is null
-                or exists (
-                  select 1
-                  from store_services ss
-                  where ss.store_id = stores.id
-                    and ss.base_price_cents is not null
-                  group by ss.store_id
-                  having (
-                    (:priceRange = '$' and avg(ss.base_price_cents) < 5000)
-                    or (:priceRange = '$$' and avg(ss.base_price_cents) >= 5000 and avg(ss.base_price_cents) < 15000)
-                    or (:priceRange = '$$$' and avg(ss.base_price_cents) >= 15000)
-                  )
-                )
-              )
-              and (:hasWebsite is null or (:hasWebsite = true and website is not null and website <> '') or (:hasWebsite = false and (website is null or website = '')))
-              and (:hasPhone is null or (:hasPhone = true and phone is not null and phone <> '') or (:hasPhone = false and (phone is null or phone = '')))
-            """, nativeQuery = true)
-    long countLocal(@Param("query") String query,
-                    @Param("minSimilarity") double minSimilarity,
-                    @Param("minRating") Double minRating,
-                    @Param("servicesContains") String servicesContains,
-                    @Param("city") String city,
-                    @Param("state") String state,
-                    @Param("priceRange") String priceRange,
-                    @Param("hasWebsite") Boolean hasWebsite,
-                    @Param("hasPhone") Boolean hasPhone);
-
     @Query(value = """
-            select *
-            from stores
-            where lat is not null and lng is not null
-              and (:minRating is null or rating >= :minRating)
-              and (:servicesContains is null or services_text ilike concat('%', :servicesContains, '%'))
-              and (:city is null or lower(city) = lower(:city))
-              and (:state is null or lower(state) = lower(:state))
-              and (
-                :priceRange is null
-                or exists (
-                  select 1
-                  from store_services ss
-                  where ss.store_id = stores.id
-                    and ss.base_price_cents is not null
-                  group by ss.store_id
-                  having (
-                    (:priceRange = '$' and avg(ss.base_price_cents) < 5000)
-                    or (:priceRange = '$$' and avg(ss.base_price_cents) >= 5000 and avg(ss.base_price_cents) < 15000)
-                    or (:priceRange = '$$$' and avg(ss.base_price_cents) >= 15000)
-                  )
-                )
-              )
-              and (:hasWebsite is null or (:hasWebsite = true and website is not null and website <> '') or (:hasWebsite = false and (website is null or website = '')))
-              and (:hasPhone is null or (:hasPhone = true and phone is not null and phone <> '') or (:hasPhone = false and (phone is null or phone = '')))
-              and (
-                6371 * acos(
-                  cos(radians(:lat)) * cos(radians(lat)) * cos(radians(lng) - radians(:lng)) +
-                  sin(radians(:lat)) * sin(radians(lat))
-                )
-              ) <= :radiusKm
-            order by (
-                6371 * acos(
-                  cos(radians(:lat)) * cos(radians(lat)) * cos(radians(lng) - radians(:lng)) +
-                  sin(radians(:lat)) * sin(radians(lat))
-                )
-              ) asc
-            limit :limit offset :offset
+            select ps.store_id, ps.price_tier
+            from store_price_stats ps
+            where ps.store_id in (:storeIds)
+              and ps.price_tier is not null
             """, nativeQuery = true)
-    List<Store> searchWithinRadius(@Param("lat") double lat,
-                                   @Param("lng") double lng,
-                                   @Param("radiusKm") double radiusKm,
-                                   @Param("minRating") Double minRating,
-                                   @Param("servicesContains") String servicesContains,
-                                   @Param("city") String city,
-                                   @Param("state") String state,
-                                   @Param("priceRange") String priceRange,
-                                   @Param("hasWebsite") Boolean hasWebsite,
-                                   @Param("hasPhone") Boolean hasPhone,
-                                   @Param("limit") int limit,
-                                   @Param("offset") int offset);
+    List<Object[]> findPriceTiersByStoreIds(@Param("storeIds") List<UUID> storeIds);
 
     @Query(value = """
-            select count(*)
+            select google_place_id
             from stores
-            where lat is not null and lng is not null
-              and (:minRating is null or rating >= :minRating)
-              and (:servicesContains is null or services_text ilike concat('%', :servicesContains, '%'))
-              and (:city is null or lower(city) = lower(:city))
-              and (:state is null or lower(state) = lower(:state))
-              and (
-                :priceRange is null
-                or exists (
-                  select 1
-                  from store_services ss
-                  where ss.store_id = stores.id
-                    and ss.base_price_cents is not null
-                  group by ss.store_id
-                  having (
-                    (:priceRange = '$' and avg(ss.base_price_cents) < 5000)
-                    or (:priceRange = '$$' and avg(ss.base_price_cents) >= 5000 and avg(ss.base_price_cents) < 15000)
-                    or (:priceRange = '$$$' and avg(ss.base_price_cents) >= 15000)
-                  )
-                )
-              )
-              and (:hasWebsite is null or (:hasWebsite = true and website is not null and website <> '') or (:hasWebsite = false and (website is null or website = '')))
-              and (:hasPhone is null or (:hasPhone = true and phone is not null and phone <> '') or (:hasPhone = false and (phone is null or phone = '')))
-              and (
-                6371 * acos(
-                  cos(radians(:lat)) * cos(radians(lat)) * cos(radians(lng) - radians(:lng)) +
-                  sin(radians(:lat)) * sin(radians(lat))
-                )
-              ) <= :radiusKm
-            """, nativeQuery = true)
-    long countWithinRadius(@Param("lat") double lat,
-                           @Param("lng") double lng,
-                           @Param("radiusKm") double radiusKm,
-                           @Param("minRating") Double minRating,
-                           @Param("servicesContains") String servicesContains,
-                           @Param("city") String city,
-                           @Param("state") String state,
-                           @Param("priceRange") String priceRange,
-                           @Param("hasWebsite") Boolean hasWebsite,
-                           @Param("hasPhone") Boolean hasPhone);
-
-    @Query(value = """
-            select *
-            from stores
-            where lat is not null and lng is not null
-              and (search_vector @@ plainto_tsquery('english', :query)
-                   or similarity(name, :query) > :minSimilarity)
-              and (:minRating is null or rating >= :minRating)
-              and (:servicesContains is null or services_text ilike concat('%', :servicesContains, '%'))
-              and (:city is null or lower(city) = lower(:city))
-              and (:state is null or lower(state) = lower(:state))
-              and (
-                :priceRange is null
-                or exists (
-                  select 1
-                  from store_services ss
-                  where ss.store_id = stores.id
-                    and ss.base_price_cents is not null
-                  group by ss.store_id
-                  having (
-                    (:priceRange = '$' and avg(ss.base_price_cents) < 5000)
-                    or (:priceRange = '$$' and avg(ss.base_price_cents) >= 5000 and avg(ss.base_price_cents) < 15000)
-                    or (:priceRange = '$$$' and avg(ss.base_price_cents) >= 15000)
-                  )
-                )
-              )
-              and (:hasWebsite is null or (:hasWebsite = true and website is not null and website <> '') or (:hasWebsite = false and (website is null or website = '')))
-              and (:hasPhone is null or (:hasPhone = true and phone is not null and phone <> '') or (:hasPhone = false and (phone is null or phone = '')))
-              and (
-                6371 * acos(
-                  cos(radians(:lat)) * cos(radians(lat)) * cos(radians(lng) - radians(:lng)) +
-                  sin(radians(:lat)) * sin(radians(lat))
-                )
-              ) <= :radiusKm
-            order by ts_rank(search_vector, plainto_tsquery('english', :query)) desc,
-                     similarity(name, :query) desc
-            limit :limit offset :offset
-            """, nativeQuery = true)
-    List<Store> searchLocalWithinRadius(@Param("query") String query,
-                                        @Param("minSimilarity") double minSimilarity,
-                                        @Param("lat") double lat,
-                                        @Param("lng") double lng,
-                                        @Param("radiusKm") double radiusKm,
-                                        @Param("minRating") Double minRating,
-                                        @Param("servicesContains") String servicesContains,
-                                        @Param("city") String city,
-                                        @Param("state") String state,
-                                        @Param("priceRange") String priceRange,
-                                        @Param("hasWebsite") Boolean hasWebsite,
-                                        @Param("hasPhone") Boolean hasPhone,
-                                        @Param("limit") int limit,
-                                        @Param("offset") int offset);
-
-    @Query(value = """
-            select count(*)
-            from stores
-            where lat is not null and lng is not null
-              and (search_vector @@ plainto_tsquery('english', :query)
-                   or similarity(name, :query) > :minSimilarity)
-              and (:minRating is null or rating >= :minRating)
-              and (:servicesContains is null or services_text ilike concat('%', :servicesContains, '%'))
-              and (:city is null or lower(city) = lower(:city))
-              and (:state is null or lower(state) = lower(:state))
-              and (
-                :priceRange is null
-                or exists (
-                  select 1
-                  from store_services ss
-                  where ss.store_id = stores.id
-                    and ss.base_price_cents is not null
-                  group by ss.store_id
-                  having (
-                    (:priceRange = '$' and avg(ss.base_price_cents) < 5000)
-                    or (:priceRange = '$$' and avg(ss.base_price_cents) >= 5000 and avg(ss.base_price_cents) < 15000)
-                    or (:priceRange = '$$$' and avg(ss.base_price_cents) >= 15000)
-                  )
-                )
-              )
-              and (:hasWebsite is null or (:hasWebsite = true and website is not null and website <> '') or (:hasWebsite = false and (website is null or website = '')))
-              and (:hasPhone is null or (:hasPhone = true and phone is not null and phone <> '') or (:hasPhone = false and (phone is null or phone = '')))
-              and (
-                6371 * acos(
-                  cos(radians(:lat)) * cos(radians(lat)) * cos(radians(lng) - radians(:lng)) +
-                  sin(radians(:lat)) * sin(radians(lat))
-                )
-              ) <= :radiusKm
-            """, nativeQuery = true)
-    long countLocalWithinRadius(@Param("query") String query,
-                                @Param("minSimilarity") double minSimilarity,
-                                @Param("lat") double lat,
-                                @Param("lng") double lng,
-                                @Param("radiusKm") double radiusKm,
-                                @Param("minRating") Double minRating,
-                                @Param("servicesContains") String servicesContains,
-                                @Param("city") String city,
-                                @Param("state") String state,
-                                @Param("priceRange") String priceRange,
-                                @Param("hasWebsite") Boolean hasWebsite,
-                                @Param("hasPhone") Boolean hasPhone);
-
-    @Query("""
-            select s
-            from Store s
-            where (:minRating is null or s.rating >= :minRating)
-              and (
-                :servicesContains is null
-                or lower(coalesce(s.servicesText, '')) like concat('%', lower(cast(:servicesContains as string)), '%')
-              )
-              and (:city is null or lower(s.city) = lower(cast(:city as string)))
-              and (:state is null or lower(s.state) = lower(cast(:state as string)))
-              and (
-                :hasWebsite is null
-                or (:hasWebsite = true and s.website is not null and s.website <> '')
-                or (:hasWebsite = false and (s.website is null or s.website = ''))
-              )
-              and (
-                :hasPhone is null
-                or (:hasPhone = true and s.phone is not null and s.phone <> '')
-                or (:hasPhone = false and (s.phone is null or s.phone = ''))
-              )
-            """)
-    Page<Store> searchAllFiltered(@Param("minRating") Double minRating,
-                                  @Param("servicesContains") String servicesContains,
-                                  @Param("city") String city,
-                                  @Param("state") String state,
-                                  @Param("hasWebsite") Boolean hasWebsite,
-                                  @Param("hasPhone") Boolean hasPhone,
-                                  Pageable pageable);
-
-    @Query("""
-            select s
-            from Store s
-            where (:minRating is null or s.rating >= :minRating)
-              and (
-                :servicesContains is null
-                or lower(coalesce(s.servicesText, '')) like concat('%', lower(cast(:servicesContains as string)), '%')
-              )
-              and (:city is null or lower(s.city) = lower(cast(:city as string)))
-              and (:state is null or lower(s.state) = lower(cast(:state as string)))
-              and (
-                :hasWebsite is null
-                or (:hasWebsite = true and s.website is not null and s.website <> '')
-                or (:hasWebsite = false and (s.website is null or s.website = ''))
-              )
-              and (
-                :hasPhone is null
-                or (:hasPhone = true and s.phone is not null and s.phone <> '')
-                or (:hasPhone = false and (s.phone is null or s.phone = ''))
-              )
-            """)
-    List<Store> findAllFiltered(@Param("minRating") Double minRating,
-                                @Param("servicesContains") String servicesContains,
-                                @Param("city") String city,
-                                @Param("state") String state,
-                                @Param("hasWebsite") Boolean hasWebsite,
-                                @Param("hasPhone") Boolean hasPhone,
-                                org.springframework.data.domain.Sort sort);
-
-    @Query(value = """
-            select ss.store_id, avg(ss.base_price_cents)
-            from store_services ss
-            where ss.store_id in (:storeIds)
-              and ss.base_price_cents is not null
-            group by ss.store_id
+            where google_place_id in (:placeIds)
+              and (details_synced_at is null or details_synced_at < :syncedBefore)
             """, nativeQuery = true)
-    List<Object[]> findAverageServicePriceCentsByStoreIds(@Param("storeIds") List<UUID> storeIds);
+    List<String> findPlaceIdsNeedingDetails(@Param("placeIds") Collection<String> placeIds,
+                                            @Param("syncedBefore") OffsetDateTime syncedBefore);
 
     List<Store> findAllByOrderByRatingCountDesc(Pageable pageable);
 }
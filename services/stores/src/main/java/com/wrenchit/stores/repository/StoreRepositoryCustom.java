@@ -0,0 +1,17 @@
+package com.wrenchit.stores.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+
+public interface StoreRepositoryCustom {
+    List<StoreSearchRow> searchStores(StoreSearchQuery query, int limit, int offset);
+
+    long countStores(StoreSearchQuery query, Integer maxRows);
+
+    StoreUpsertResult upsertSearchResults(List<PlaceSearchResult> places);
+
+    List<UUID> applyDetails(List<PlaceDetails> details);
+}
@@ -0,0 +1,279 @@
+package com.wrenchit.stores.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+import com.wrenchit.stores.entity.Store;
+
+class StoreRepositoryImpl implements StoreRepositoryCustom {
+
+    private static final String UPSERT_SEARCH_RESULTS_SQL = """
+            with input as (
+                select *
+                from unnest(cast(:placeIds as text[]),
+                            cast(:names as text[]),
+                            cast(:addresses as text[]),
+                            cast(:lats as double precision[]),
+                            cast(:lngs as double precision[]),
+                            cast(:ratings as double precision[]),
+                            cast(:ratingCounts as integer[]))
+                     with ordinality as i(google_place_id, name, address, lat, lng, rating, rating_count, ord)
+            ),
+            upserted as (
+                insert into stores (google_place_id, name, address, lat, lng, rating, rating_count)
+                select google_place_id, name, address, lat, lng, rating, rating_count
+                from input
+                order by ord
+                on conflict (google_place_id) do update
+                set name = excluded.name,
+                    address = excluded.address,
+                    lat = excluded.lat,
+                    lng = excluded.lng,
+                    rating = excluded.rating,
+                    rating_count = excluded.rating_count,
+                    updated_at = now()
+                where (stores.name, stores.address, stores.lat, stores.lng, stores.rating, stores.rating_count)
+                      is distinct from
+                      (excluded.name, excluded.address, excluded.lat, excluded.lng, excluded.rating, excluded.rating_count)
+                returning id, google_place_id
+            )
+            select coalesce(u.id, s.id), u.id is not null
+            from input i
+            left join upserted u on u.google_place_id = i.google_place_id
+            left join stores s on s.google_place_id = i.google_place_id
+            order by i.ord
+            """;
+
+    private static final String APPLY_DETAILS_SQL = """
+            with input as (
+                select *
+                from unnest(cast(:placeIds as text[]),
+                            cast(:names as text[]),
+                            cast(:addresses as text[]),
+                            cast(:lats as double precision[]),
+                            cast(:lngs as double precision[]),
+                            cast(:ratings as double precision[]),
+                            cast(:ratingCounts as integer[]),
+                            cast(:phones as text[]),
+                            cast(:websites as text[]),
+                            cast(:cities as text[]),
+                            cast(:states as text[]),
+                            cast(:postalCodes as text[]),
+                            cast(:countries as text[]),
+                            cast(:servicesTexts as text[]))
+                     as i(google_place_id, name, address, lat, lng, rating, rating_count, phone, website, city, state, postal_code, country, services_text)
+            ),
+            merged as (
+                select s.id,
+                       coalesce(i.name, s.name) as name,
+                       coalesce(i.address, s.address) as address,
+                       coalesce(i.lat, s.lat) as lat,
+                       coalesce(i.lng, s.lng) as lng,
+                       coalesce(i.rating, s.rating) as rating,
+                       coalesce(i.rating_count, s.rating_count) as rating_count,
+                       coalesce(i.phone, s.phone) as phone,
+                       coalesce(i.website, s.website) as website,
+                       coalesce(i.city, s.city) as city,
+                       coalesce(i.state, s.state) as state,
+                       coalesce(i.postal_code, s.postal_code) as postal_code,
+                       coalesce(i.country, s.country) as country,
+                       coalesce(i.services_text, s.services_text) as services_text,
+                       (coalesce(i.name, s.name), coalesce(i.address, s.address), coalesce(i.lat, s.lat), coalesce(i.lng, s.lng),
+                        coalesce(i.rating, s.rating), coalesce(i.rating_count, s.rating_count), coalesce(i.phone, s.phone),
+                        coalesce(i.website, s.website), coalesce(i.city, s.city), coalesce(i.state, s.state),
+                        coalesce(i.postal_code, s.postal_code), coalesce(i.country, s.country), coalesce(i.services_text, s.services_text))
+                       is distinct from
+                       (s.name, s.address, s.lat, s.lng, s.rating, s.rating_count, s.phone, s.website,
+                        s.city, s.state, s.postal_code, s.country, s.services_text) as changed
+                from stores s
+                join input i on i.google_place_id = s.google_place_id
+            ),
+            updated as (
+                update stores s
+                set name = m.name,
+                    address = m.address,
+                    lat = m.lat,
+                    lng = m.lng,
+                    rating = m.rating,
+                    rating_count = m.rating_count,
+                    phone = m.phone,
+                    website = m.website,
+                    city = m.city,
+                    state = m.state,
+                    postal_code = m.postal_code,
+                    country = m.country,
+                    services_text = m.services_text,
+                    details_synced_at = now(),
+                    refresh_claimed_at = null,
+                    updated_at = case when m.changed then now() else s.updated_at end
+                from merged m
+                where s.id = m.id
+                returning s.id, m.changed
+            )
+            select id
+            from updated
+            where changed
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final StoreSearchSqlBuilder sqlBuilder;
+
+    StoreRepositoryImpl(StoreSearchSqlBuilder sqlBuilder) {
+        this.sqlBuilder = sqlBuilder;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<StoreSearchRow> searchStores(StoreSearchQuery query, int limit, int offset) {
+        StoreSearchSqlBuilder.Statement statement = sqlBuilder.select(query, limit, offset);
+        Query nativeQuery = entityManager.createNativeQuery(statement.sql(), StoreSearchRow.MAPPING);
+        statement.params().forEach(nativeQuery::setParameter);
+        List<Object[]> rows = nativeQuery.getResultList();
+        List<StoreSearchRow> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new StoreSearchRow((Store) row[0], (Double) row[1], (Double) row[2]));
+        }
+        return result;
+    }
+
+    @Override
+    public long countStores(StoreSearchQuery query, Integer maxRows) {
+        StoreSearchSqlBuilder.Statement statement = sqlBuilder.count(query, maxRows);
+        Query nativeQuery = entityManager.createNativeQuery(statement.sql());
+        statement.params().forEach(nativeQuery::setParameter);
+        return ((Number) nativeQuery.getSingleResult()).longValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public StoreUpsertResult upsertSearchResults(List<PlaceSearchResult> places) {
+        Map<String, PlaceSearchResult> byPlaceId = new LinkedHashMap<>();
+        for (PlaceSearchResult place : places) {
+            if (place != null && place.getPlaceId() != null) {
+                byPlaceId.putIfAbsent(place.getPlaceId(), place);
+            }
+        }
+        if (byPlaceId.isEmpty()) {
+            return StoreUpsertResult.EMPTY;
+        }
+        List<PlaceSearchResult> rows = new ArrayList<>(byPlaceId.values());
+        int size = rows.size();
+        String[] placeIds = new String[size];
+        String[] names = new String[size];
+        String[] addresses = new String[size];
+        Double[] lats = new Double[size];
+        Double[] lngs = new Double[size];
+        Double[] ratings = new Double[size];
+        Integer[] ratingCounts = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            PlaceSearchResult place = rows.get(i);
+            placeIds[i] = place.getPlaceId();
+            names[i] = place.getName();
+            addresses[i] = place.getAddress();
+            lats[i] = place.getLat();
+            lngs[i] = place.getLng();
+            ratings[i] = place.getRating();
+            ratingCounts[i] = place.getRatingCount();
+        }
+        List<Object[]> upserted = entityManager.createNativeQuery(UPSERT_SEARCH_RESULTS_SQL)
+                .setParameter("placeIds", placeIds)
+                .setParameter("names", names)
+                .setParameter("addresses", addresses)
+                .setParameter("lats", lats)
+                .setParameter("lngs", lngs)
+                .setParameter("ratings", ratings)
+                .setParameter("ratingCounts", ratingCounts)
+                .getResultList();
+        List<UUID> storeIds = new ArrayList<>(upserted.size());
+        List<UUID> changedIds = new ArrayList<>();
+        for (Object[] row : upserted) {
+            UUID id = row[0] instanceof UUID uuid ? uuid : UUID.fromString(row[0].toString());
+            storeIds.add(id);
+            if (Boolean.TRUE.equals(row[1])) {
+                changedIds.add(id);
+            }
+        }
+        return new StoreUpsertResult(storeIds, changedIds);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> applyDetails(List<PlaceDetails> details) {
+        Map<String, PlaceDetails> byPlaceId = new LinkedHashMap<>();
+        for (PlaceDetails detail : details) {
+            if (detail != null && detail.getPlaceId() != null) {
+                byPlaceId.put(detail.getPlaceId(), detail);
+            }
+        }
+        if (byPlaceId.isEmpty()) {
+            return List.of();
+        }
+        List<PlaceDetails> rows = new ArrayList<>(byPlaceId.values());
+        int size = rows.size();
+        String[] placeIds = new String[size];
+        String[] names = new String[size];
+        String[] addresses = new String[size];
+        Double[] lats = new Double[size];
+        Double[] lngs = new Double[size];
+        Double[] ratings = new Double[size];
+        Integer[] ratingCounts = new Integer[size];
+        String[] phones = new String[size];
+        String[] websites = new String[size];
+        String[] cities = new String[size];
+        String[] states = new String[size];
+        String[] postalCodes = new String[size];
+        String[] countries = new String[size];
+        String[] servicesTexts = new String[size];
+        for (int i = 0; i < size; i++) {
+            PlaceDetails detail = rows.get(i);
+            placeIds[i] = detail.getPlaceId();
+            names[i] = detail.getName();
+            addresses[i] = detail.getAddress();
+            lats[i] = detail.getLat();
+            lngs[i] = detail.getLng();
+            ratings[i] = detail.getRating();
+            ratingCounts[i] = detail.getRatingCount();
+            phones[i] = detail.getPhone();
+            websites[i] = detail.getWebsite();
+            cities[i] = detail.getCity();
+            states[i] = detail.getState();
+            postalCodes[i] = detail.getPostalCode();
+            countries[i] = detail.getCountry();
+            servicesTexts[i] = detail.getServices() == null || detail.getServices().isEmpty()
+                    ? null
+                    : String.join(", ", detail.getServices());
+        }
+        List<Object> ids = entityManager.createNativeQuery(APPLY_DETAILS_SQL)
+                .setParameter("placeIds", placeIds)
+                .setParameter("names", names)
+                .setParameter("addresses", addresses)
+                .setParameter("lats", lats)
+                .setParameter("lngs", lngs)
+                .setParameter("ratings", ratings)
+                .setParameter("ratingCounts", ratingCounts)
+                .setParameter("phones", phones)
+                .setParameter("websites", websites)
+                .setParameter("cities", cities)
+                .setParameter("states", states)
+                .setParameter("postalCodes", postalCodes)
+                .setParameter("countries", countries)
+                .setParameter("servicesTexts", servicesTexts)
+                .getResultList();
+        List<UUID> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            result.add(id instanceof UUID uuid ? uuid : UUID.fromString(id.toString()));
+        }
+        return result;
+    }
+}
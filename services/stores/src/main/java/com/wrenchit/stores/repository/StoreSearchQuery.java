@@ -0,0 +1,198 @@
+package com.wrenchit.stores.repository;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSearchCursor;
+import com.wrenchit.stores.dto.StoreSort;
+
+public final class StoreSearchQuery {
+
+    private final String text;
+    private final Double lat;
+    private final Double lng;
+    private final Double radiusKm;
+    private final Double minRating;
+    private final String servicesContains;
+    private final String city;
+    private final String state;
+    private final String priceRange;
+    private final Boolean hasWebsite;
+    private final Boolean hasPhone;
+    private final StoreSort sort;
+    private final SortDirection direction;
+    private final StoreSearchCursor cursor;
+    private final List<UUID> candidateIds;
+    private final Instant openAt;
+    private final List<UUID> serviceIds;
+    private final String serviceCategory;
+
+    public StoreSearchQuery(String text,
+                            Double lat,
+                            Double lng,
+                            Double radiusKm,
+                            Double minRating,
+                            String servicesContains,
+                            String city,
+                            String state,
+                            String priceRange,
+                            Boolean hasWebsite,
+                            Boolean hasPhone,
+                            StoreSort sort,
+                            SortDirection direction,
+                            StoreSearchCursor cursor) {
+        this(text, lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone, sort, direction,
+                cursor, null, null, null, null);
+    }
+
+    private StoreSearchQuery(String text,
+                             Double lat,
+                             Double lng,
+                             Double radiusKm,
+                             Double minRating,
+                             String servicesContains,
+                             String city,
+                             String state,
+                             String priceRange,
+                             Boolean hasWebsite,
+                             Boolean hasPhone,
+                             StoreSort sort,
+                             SortDirection direction,
+                             StoreSearchCursor cursor,
+                             List<UUID> candidateIds,
+                             Instant openAt,
+                             List<UUID> serviceIds,
+                             String serviceCategory) {
+        this.text = text;
+        this.lat = lat;
+        this.lng = lng;
+        this.radiusKm = radiusKm;
+        this.minRating = minRating;
+        this.servicesContains = servicesContains;
+        this.city = city;
+        this.state = state;
+        this.priceRange = priceRange;
+        this.hasWebsite = hasWebsite;
+        this.hasPhone = hasPhone;
+        this.sort = sort == null ? StoreSort.RELEVANCE : sort;
+        this.direction = direction == null ? SortDirection.DESC : direction;
+        this.cursor = cursor != null && cursor.isKeyset() ? cursor : null;
+        this.candidateIds = candidateIds == null ? null : List.copyOf(candidateIds);
+        this.openAt = openAt;
+        this.serviceIds = serviceIds == null || serviceIds.isEmpty() ? null : List.copyOf(new LinkedHashSet<>(serviceIds));
+        this.serviceCategory = serviceCategory;
+    }
+
+    public StoreSearchQuery withCandidateIds(List<UUID> candidateIds) {
+        return new StoreSearchQuery(text, lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone,
+                sort, direction, cursor, candidateIds, openAt, serviceIds, serviceCategory);
+    }
+
+    public StoreSearchQuery withOpenAt(Instant openAt) {
+        return new StoreSearchQuery(text, lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone,
+                sort, direction, cursor, candidateIds, openAt, serviceIds, serviceCategory);
+    }
+
+    public StoreSearchQuery withServiceFilter(List<UUID> serviceIds, String serviceCategory) {
+        return new StoreSearchQuery(text, lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone,
+                sort, direction, cursor, candidateIds, openAt, serviceIds, serviceCategory);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public Double getLng() {
+        return lng;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public Double getMinRating() {
+        return minRating;
+    }
+
+    public String getServicesContains() {
+        return servicesContains;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getPriceRange() {
+        return priceRange;
+    }
+
+    public Boolean getHasWebsite() {
+        return hasWebsite;
+    }
+
+    public Boolean getHasPhone() {
+        return hasPhone;
+    }
+
+    public StoreSort getSort() {
+        return sort;
+    }
+
+    public SortDirection getDirection() {
+        return direction;
+    }
+
+    public StoreSearchCursor getCursor() {
+        return cursor;
+    }
+
+    public List<UUID> getCandidateIds() {
+        return candidateIds;
+    }
+
+    public Instant getOpenAt() {
+        return openAt;
+    }
+
+    public List<UUID> getServiceIds() {
+        return serviceIds;
+    }
+
+    public String getServiceCategory() {
+        return serviceCategory;
+    }
+
+    public boolean hasServiceCatalogFilter() {
+        return serviceIds != null || serviceCategory != null;
+    }
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+
+    public boolean hasPoint() {
+        return lat != null && lng != null;
+    }
+
+    public boolean hasRadius() {
+        return hasPoint() && radiusKm != null && radiusKm > 0;
+    }
+
+    public boolean ordersByDistance() {
+        if (!hasPoint()) {
+            return false;
+        }
+        return sort == StoreSort.DISTANCE || (!hasText() && hasRadius());
+    }
+}
@@ -0,0 +1,8 @@
+package com.wrenchit.stores.repository;
+
+import com.wrenchit.stores.entity.Store;
+
+public record StoreSearchRow(Store store, Double primaryKey, Double secondaryKey) {
+
+    public static final String MAPPING = "StoreSearchRow";
+}
@@ -0,0 +1,242 @@
+package com.wrenchit.stores.repository;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSearchCursor;
+import com.wrenchit.stores.dto.StoreSort;
+
+@Component
+public class StoreSearchSqlBuilder {
+
+    private static final String RANK_EXPRESSION = "ts_rank(search_vector, plainto_tsquery('english', :query))";
+    private static final String SIMILARITY_EXPRESSION = "similarity(name, :query)";
+    private static final String ORIGIN_EXPRESSION = "ll_to_earth(:lat, :lng)";
+    private static final String POINT_EXPRESSION = "ll_to_earth(lat, lng)";
+    private static final String DISTANCE_EXPRESSION = POINT_EXPRESSION + " <-> " + ORIGIN_EXPRESSION;
+    private static final String NO_KEY = "null";
+    private static final String MINUTE_OF_WEEK_EXPRESSION = "(cast(extract(isodow from l.local_at) as int) - 1) * 1440"
+            + " + cast(extract(hour from l.local_at) as int) * 60 + cast(extract(minute from l.local_at) as int)";
+
+    public Statement select(StoreSearchQuery query, int limit, int offset) {
+        Map<String, Object> params = bindFilters(query);
+        params.put("limit", limit);
+        params.put("offset", offset);
+        bindOrdering(query, params, limit + offset);
+        return new Statement(renderSelect(query), params);
+    }
+
+    public Statement count(StoreSearchQuery query, Integer maxRows) {
+        Map<String, Object> params = bindFilters(query);
+        if (maxRows != null) {
+            params.put("maxRows", maxRows);
+        }
+        return new Statement(renderCount(query, maxRows != null), params);
+    }
+
+    private String renderSelect(StoreSearchQuery query) {
+        List<String> where = predicates(query);
+        Mode mode = mode(query);
+        boolean desc = mode == Mode.RANK || (mode == Mode.KEY && query.getDirection() == SortDirection.DESC);
+        String comparator = desc ? "<" : ">";
+        String order = desc ? " desc" : " asc";
+        String orderBy;
+        String keys;
+        switch (mode) {
+            case RANK -> {
+                if (query.getCursor() != null) {
+                    where.add("(" + RANK_EXPRESSION + ", " + SIMILARITY_EXPRESSION + ", id) < (:cursorRank, :cursorSimilarity, :cursorId)");
+                }
+                keys = keyColumns(RANK_EXPRESSION, SIMILARITY_EXPRESSION);
+                orderBy = RANK_EXPRESSION + " desc, " + SIMILARITY_EXPRESSION + " desc, id desc";
+            }
+            case DISTANCE -> {
+                if (query.getCursor() != null) {
+                    where.add("(" + DISTANCE_EXPRESSION + ", id) > (:cursorKey, :cursorId)");
+                }
+                return "select * from (select *, " + keyColumns(DISTANCE_EXPRESSION, NO_KEY) + " from stores" + whereClause(where)
+                        + " order by " + DISTANCE_EXPRESSION
+                        + " fetch first :nearestRows rows with ties) nearest"
+                        + " order by cursor_primary asc, id asc"
+                        + " limit :limit offset :offset";
+            }
+            default -> {
+                String key = keyExpression(query.getSort());
+                if (query.getCursor() != null) {
+                    where.add("(" + key + ", id) " + comparator + " (:cursorKey, :cursorId)");
+                }
+                keys = keyColumns(NO_KEY, NO_KEY);
+                orderBy = key + order + ", id" + order;
+            }
+        }
+        return "select *, " + keys + " from stores" + whereClause(where)
+                + " order by " + orderBy
+                + " limit :limit offset :offset";
+    }
+
+    private String renderCount(StoreSearchQuery query, boolean capped) {
+        return "select count(*) from (select 1 from stores" + whereClause(predicates(query))
+                + (capped ? " limit :maxRows" : "")
+                + ") capped";
+    }
+
+    private List<String> predicates(StoreSearchQuery query) {
+        List<String> where = new ArrayList<>();
+        if (query.hasText()) {
+            where.add("(search_vector @@ plainto_tsquery('english', :query) or name % :query)");
+        }
+        if (query.hasRadius() || query.ordersByDistance()) {
+            where.add("lat is not null and lng is not null");
+        }
+        if (query.getCandidateIds() != null) {
+            where.add("id = any(cast(:candidateIds as uuid[]))");
+        } else if (query.hasRadius()) {
+            where.add("earth_box(" + ORIGIN_EXPRESSION + ", :radiusMeters) @> " + POINT_EXPRESSION);
+            where.add("earth_distance(" + ORIGIN_EXPRESSION + ", " + POINT_EXPRESSION + ") <= :radiusMeters");
+        }
+        if (query.getMinRating() != null) {
+            where.add("rating >= :minRating");
+        }
+        if (query.getServicesContains() != null) {
+            where.add("services_text ilike :servicesPattern");
+        }
+        if (query.getCity() != null) {
+            where.add("lower(city) = lower(:city)");
+        }
+        if (query.getState() != null) {
+            where.add("lower(state) = lower(:state)");
+        }
+        if (query.getPriceRange() != null) {
+            where.add("id in (select ps.store_id from store_price_stats ps where ps.price_tier = :priceTier)");
+        }
+        if (query.getHasWebsite() != null) {
+            where.add(query.getHasWebsite()
+                    ? "website is not null and website <> ''"
+                    : "(website is null or website = '')");
+        }
+        if (query.getHasPhone() != null) {
+            where.add(query.getHasPhone()
+                    ? "phone is not null and phone <> ''"
+                    : "(phone is null or phone = '')");
+        }
+        if (query.getServiceIds() != null) {
+            where.add("id in (select ss.store_id from store_services ss where ss.service_id = any(cast(:serviceIds as uuid[]))"
+                    + " group by ss.store_id having count(*) = :serviceIdCount)");
+        }
+        if (query.getServiceCategory() != null) {
+            where.add("id in (select ss.store_id from store_services ss where ss.service_id in ("
+                    + "select sv.id from services sv where lower(sv.category) = :serviceCategory"
+                    + " union select sa.service_id from service_aliases sa where sa.alias = :serviceCategory))");
+        }
+        if (query.getOpenAt() != null) {
+            where.add("id in (select sp.store_id from shop_profiles sp"
+                    + " cross join lateral (select cast(:openAt as timestamptz) at time zone sp.hours_time_zone as local_at) l"
+                    + " where sp.open_minutes is not null and get_bit(sp.open_minutes, " + MINUTE_OF_WEEK_EXPRESSION + ") = 1)");
+        }
+        return where;
+    }
+
+    private Map<String, Object> bindFilters(StoreSearchQuery query) {
+        Map<String, Object> params = new HashMap<>();
+        if (query.hasText()) {
+            params.put("query", query.getText());
+        }
+        if (query.getCandidateIds() != null) {
+            params.put("candidateIds", query.getCandidateIds().stream().map(UUID::toString).toArray(String[]::new));
+        } else if (query.hasRadius()) {
+            params.put("lat", query.getLat());
+            params.put("lng", query.getLng());
+            params.put("radiusMeters", query.getRadiusKm() * 1000.0);
+        }
+        if (query.getMinRating() != null) {
+            params.put("minRating", query.getMinRating());
+        }
+        if (query.getServicesContains() != null) {
+            params.put("servicesPattern", "%" + escapeLike(query.getServicesContains()) + "%");
+        }
+        if (query.getCity() != null) {
+            params.put("city", query.getCity());
+        }
+        if (query.getState() != null) {
+            params.put("state", query.getState());
+        }
+        if (query.getPriceRange() != null) {
+            params.put("priceTier", query.getPriceRange());
+        }
+        if (query.getServiceIds() != null) {
+            params.put("serviceIds", query.getServiceIds().stream().map(UUID::toString).toArray(String[]::new));
+            params.put("serviceIdCount", query.getServiceIds().size());
+        }
+        if (query.getServiceCategory() != null) {
+            params.put("serviceCategory", query.getServiceCategory());
+        }
+        if (query.getOpenAt() != null) {
+            params.put("openAt", query.getOpenAt().atOffset(ZoneOffset.UTC));
+        }
+        return params;
+    }
+
+    private void bindOrdering(StoreSearchQuery query, Map<String, Object> params, int nearestRows) {
+        if (mode(query) == Mode.DISTANCE) {
+            params.put("lat", query.getLat());
+            params.put("lng", query.getLng());
+            params.put("nearestRows", nearestRows);
+        }
+        StoreSearchCursor cursor = query.getCursor();
+        if (cursor == null) {
+            return;
+        }
+        params.put("cursorId", cursor.getId());
+        switch (mode(query)) {
+            case RANK -> {
+                params.put("cursorRank", cursor.getPrimary());
+                params.put("cursorSimilarity", cursor.getSecondary());
+            }
+            case DISTANCE -> params.put("cursorKey", cursor.getPrimary());
+            default -> params.put("cursorKey", query.getSort() == StoreSort.NAME ? cursor.getText() : cursor.getPrimary());
+        }
+    }
+
+    private Mode mode(StoreSearchQuery query) {
+        if (query.ordersByDistance()) {
+            return Mode.DISTANCE;
+        }
+        return query.hasText() ? Mode.RANK : Mode.KEY;
+    }
+
+    private String keyExpression(StoreSort sort) {
+        return switch (sort) {
+            case RELEVANCE -> "rank_score";
+            case NAME -> "name";
+            case REVIEW_COUNT -> "coalesce(rating_count, -1)";
+            case RATING, DISTANCE -> "coalesce(rating, -1)";
+        };
+    }
+
+    private String keyColumns(String primary, String secondary) {
+        return "cast(" + primary + " as double precision) as cursor_primary, cast(" + secondary + " as double precision) as cursor_secondary";
+    }
+
+    private String whereClause(List<String> where) {
+        return where.isEmpty() ? "" : " where " + String.join(" and ", where);
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private enum Mode {
+        RANK,
+        DISTANCE,
+        KEY
+    }
+
+    public record Statement(String sql, Map<String, Object> params) {}
+}
@@ -0,0 +1,9 @@
+package com.wrenchit.stores.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public record StoreUpsertResult(List<UUID> storeIds, List<UUID> changedIds) {
+
+    public static final StoreUpsertResult EMPTY = new StoreUpsertResult(List.of(), List.of());
+}
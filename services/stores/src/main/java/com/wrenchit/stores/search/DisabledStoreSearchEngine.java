@@ -0,0 +1,29 @@
+package com.wrenchit.stores.search;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+
+@Component
+@ConditionalOnProperty(prefix = "wrenchit.search.lucene", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class DisabledStoreSearchEngine implements StoreSearchEngine {
+
+    @Override
+    public Optional<StoreSearchHits> search(StoreSearchQuery query, int limit, int offset, IncludeTotal includeTotal) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void storesChanged(Collection<UUID> storeIds) {
+    }
+
+    @Override
+    public void rebuild() {
+    }
+}
@@ -0,0 +1,542 @@
+package com.wrenchit.stores.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LatLonDocValuesField;
+import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+
+@Component
+@ConditionalOnProperty(prefix = "wrenchit.search.lucene", name = "enabled", havingValue = "true")
+public class LuceneStoreSearchEngine implements StoreSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LuceneStoreSearchEngine.class);
+
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String NAME = "name";
+    private static final String NAME_RAW = "name_raw";
+    private static final String NAME_SORT = "name_sort";
+    private static final String ADDRESS = "address";
+    private static final String PLACE = "place";
+    private static final String SERVICES = "services";
+    private static final String SERVICES_RAW = "services_raw";
+    private static final String CITY = "city";
+    private static final String STATE = "state";
+    private static final String PRICE_TIER = "price_tier";
+    private static final String HAS_WEBSITE = "has_website";
+    private static final String HAS_PHONE = "has_phone";
+    private static final String LOCATION = "location";
+    private static final String RATING = "rating";
+    private static final String RATING_COUNT = "rating_count";
+    private static final String RANK_SCORE = "rank_score";
+    private static final String WATERMARK = "watermark";
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private static final String DOCUMENT_SELECT = """
+            select s.id, s.name, s.address, s.city, s.state, s.postal_code, s.services_text, s.phone, s.website,
+                   s.lat, s.lng, s.rating, s.rating_count, s.rank_score, ps.price_tier
+            from stores s
+            left join store_price_stats ps on ps.store_id = s.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final Path indexPath;
+    private final Duration syncInterval;
+    private final Analyzer englishAnalyzer = new EnglishAnalyzer();
+    private final Analyzer standardAnalyzer = new StandardAnalyzer();
+    private final Analyzer indexAnalyzer = new PerFieldAnalyzerWrapper(englishAnalyzer, Map.of(NAME_RAW, standardAnalyzer));
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private OffsetDateTime watermark;
+    private volatile boolean ready;
+
+    public LuceneStoreSearchEngine(NamedParameterJdbcTemplate jdbc,
+                                   @Value("${wrenchit.search.lucene.index-path:/tmp/wrenchit-store-index}") Path indexPath,
+                                   @Value("${wrenchit.search.lucene.sync-interval:PT30S}") Duration syncInterval) {
+        this.jdbc = jdbc;
+        this.indexPath = indexPath;
+        this.syncInterval = syncInterval;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexPath);
+        directory = FSDirectory.open(indexPath);
+        writer = new IndexWriter(directory, new IndexWriterConfig(indexAnalyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        watermark = readWatermark();
+        if (!DirectoryReader.indexExists(directory)) {
+            writer.commit();
+        }
+        searcherManager = new SearcherManager(directory, null);
+        if (watermark != null) {
+            ready = true;
+            submit(this::catchUp);
+        } else {
+            submit(this::rebuild);
+        }
+        long intervalMillis = Math.max(syncInterval.toMillis(), 1_000L);
+        executor.scheduleWithFixedDelay(() -> runQuietly(this::catchUp), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        executor.shutdownNow();
+        synchronized (writeLock) {
+            ready = false;
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+            if (directory != null) {
+                directory.close();
+            }
+        }
+    }
+
+    @Override
+    public Optional<StoreSearchHits> search(StoreSearchQuery query, int limit, int offset, IncludeTotal includeTotal) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        try {
+            Query luceneQuery = toQuery(query);
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopFieldDocs top = searcher.search(luceneQuery, Math.max(offset + limit, 1), toSort(query));
+                List<UUID> storeIds = new ArrayList<>();
+                ScoreDoc[] docs = top.scoreDocs;
+                for (int i = offset; i < docs.length; i++) {
+                    String id = searcher.storedFields().document(docs[i].doc, Set.of(ID)).get(ID);
+                    storeIds.add(UUID.fromString(id));
+                }
+                IncludeTotal totalMode = includeTotal == null ? IncludeTotal.NONE : includeTotal;
+                return Optional.of(switch (totalMode) {
+                    case NONE -> new StoreSearchHits(storeIds, null, false);
+                    case EXACT -> new StoreSearchHits(storeIds, (long) searcher.count(luceneQuery), false);
+                    case ESTIMATE -> new StoreSearchHits(storeIds, top.totalHits.value,
+                            top.totalHits.relation == TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+                });
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Store index search failed; falling back to database search", ex);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void storesChanged(Collection<UUID> storeIds) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(new HashSet<>(storeIds));
+        submit(() -> reindex(ids));
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (writeLock) {
+            try {
+                OffsetDateTime startedAt = databaseNow();
+                writer.deleteAll();
+                UUID after = MIN_ID;
+                int indexed = 0;
+                while (true) {
+                    List<StoreDocument> batch = jdbc.query(
+                            DOCUMENT_SELECT + " where s.id > :after order by s.id limit :batchSize",
+                            new MapSqlParameterSource()
+                                    .addValue("after", after)
+                                    .addValue("batchSize", BATCH_SIZE),
+                            (rs, rowNum) -> toStoreDocument(rs));
+                    for (StoreDocument store : batch) {
+                        writer.addDocument(toDocument(store));
+                    }
+                    indexed += batch.size();
+                    if (batch.size() < BATCH_SIZE) {
+                        break;
+                    }
+                    after = batch.get(batch.size() - 1).id();
+                }
+                commit(startedAt);
+                ready = true;
+                log.info("Rebuilt store search index with {} stores", indexed);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private void catchUp() {
+        synchronized (writeLock) {
+            if (watermark == null) {
+                return;
+            }
+            OffsetDateTime startedAt = databaseNow();
+            List<UUID> changed = jdbc.queryForList("""
+                    select id from stores where updated_at > :since
+                    union
+                    select store_id from store_price_stats where updated_at > :since
+                    """, new MapSqlParameterSource("since", watermark.minus(WATERMARK_OVERLAP)), UUID.class);
+            try {
+                apply(changed);
+                commit(startedAt);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private void reindex(List<UUID> storeIds) {
+        synchronized (writeLock) {
+            try {
+                apply(storeIds);
+                commit(watermark);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private void apply(List<UUID> storeIds) throws IOException {
+        if (storeIds.isEmpty()) {
+            return;
+        }
+        Set<UUID> missing = new HashSet<>(storeIds);
+        for (int from = 0; from < storeIds.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = storeIds.subList(from, Math.min(from + BATCH_SIZE, storeIds.size()));
+            List<StoreDocument> stores = jdbc.query(DOCUMENT_SELECT + " where s.id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    (rs, rowNum) -> toStoreDocument(rs));
+            for (StoreDocument store : stores) {
+                writer.updateDocument(new Term(ID, store.id().toString()), toDocument(store));
+                missing.remove(store.id());
+            }
+        }
+        for (UUID id : missing) {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+        }
+    }
+
+    private void commit(OffsetDateTime nextWatermark) throws IOException {
+        if (nextWatermark != null) {
+            writer.setLiveCommitData(Map.of(WATERMARK, nextWatermark.toString()).entrySet());
+            watermark = nextWatermark;
+        }
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    private OffsetDateTime readWatermark() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : commitData) {
+            if (WATERMARK.equals(entry.getKey())) {
+                return OffsetDateTime.parse(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    private OffsetDateTime databaseNow() {
+        OffsetDateTime now = jdbc.queryForObject("select now()", new MapSqlParameterSource(), OffsetDateTime.class);
+        return now == null ? OffsetDateTime.now() : now;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> runQuietly(task));
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void runQuietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            log.warn("Store search index maintenance failed", ex);
+        }
+    }
+
+    private StoreDocument toStoreDocument(java.sql.ResultSet rs) throws java.sql.SQLException {
+        return new StoreDocument(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getString("address"),
+                rs.getString("city"),
+                rs.getString("state"),
+                rs.getString("postal_code"),
+                rs.getString("services_text"),
+                rs.getString("phone"),
+                rs.getString("website"),
+                rs.getObject("lat", Double.class),
+                rs.getObject("lng", Double.class),
+                rs.getObject("rating", Double.class),
+                rs.getObject("rating_count", Integer.class),
+                rs.getObject("rank_score", Double.class),
+                rs.getString("price_tier"));
+    }
+
+    private Document toDocument(StoreDocument store) {
+        Document doc = new Document();
+        String id = store.id().toString();
+        doc.add(new StringField(ID, id, Field.Store.YES));
+        doc.add(new SortedDocValuesField(ID_SORT, new BytesRef(id)));
+        String name = store.name() == null ? "" : store.name();
+        doc.add(new TextField(NAME, name, Field.Store.NO));
+        doc.add(new TextField(NAME_RAW, name, Field.Store.NO));
+        doc.add(new SortedDocValuesField(NAME_SORT, new BytesRef(name)));
+        addText(doc, ADDRESS, store.address());
+        addText(doc, PLACE, String.join(" ", nonNull(store.city()), nonNull(store.state()), nonNull(store.postalCode())));
+        addText(doc, SERVICES, store.servicesText());
+        if (store.servicesText() != null) {
+            doc.add(new StringField(SERVICES_RAW, lower(store.servicesText()), Field.Store.NO));
+        }
+        addKeyword(doc, CITY, store.city());
+        addKeyword(doc, STATE, store.state());
+        if (store.priceTier() != null) {
+            doc.add(new StringField(PRICE_TIER, store.priceTier(), Field.Store.NO));
+        }
+        doc.add(new StringField(HAS_WEBSITE, String.valueOf(hasValue(store.website())), Field.Store.NO));
+        doc.add(new StringField(HAS_PHONE, String.valueOf(hasValue(store.phone())), Field.Store.NO));
+        if (store.lat() != null && store.lng() != null) {
+            doc.add(new LatLonPoint(LOCATION, store.lat(), store.lng()));
+            doc.add(new LatLonDocValuesField(LOCATION, store.lat(), store.lng()));
+        }
+        if (store.rating() != null) {
+            doc.add(new DoublePoint(RATING, store.rating()));
+            doc.add(new DoubleDocValuesField(RATING, store.rating()));
+        }
+        if (store.ratingCount() != null) {
+            doc.add(new NumericDocValuesField(RATING_COUNT, store.ratingCount()));
+        }
+        if (store.rankScore() != null) {
+            doc.add(new DoubleDocValuesField(RANK_SCORE, store.rankScore()));
+        }
+        return doc;
+    }
+
+    private Query toQuery(StoreSearchQuery query) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(query.hasText() ? textQuery(query.getText()) : new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        if (query.hasRadius()) {
+            builder.add(LatLonPoint.newDistanceQuery(LOCATION, query.getLat(), query.getLng(), query.getRadiusKm() * 1000.0),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (query.ordersByDistance()) {
+            builder.add(new FieldExistsQuery(LOCATION), BooleanClause.Occur.FILTER);
+        }
+        if (query.getMinRating() != null) {
+            builder.add(DoublePoint.newRangeQuery(RATING, query.getMinRating(), Double.POSITIVE_INFINITY), BooleanClause.Occur.FILTER);
+        }
+        if (query.getServicesContains() != null) {
+            builder.add(new WildcardQuery(new Term(SERVICES_RAW, "*" + escapeWildcard(lower(query.getServicesContains())) + "*")),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (query.getCity() != null) {
+            builder.add(new TermQuery(new Term(CITY, lower(query.getCity()))), BooleanClause.Occur.FILTER);
+        }
+        if (query.getState() != null) {
+            builder.add(new TermQuery(new Term(STATE, lower(query.getState()))), BooleanClause.Occur.FILTER);
+        }
+        if (query.getPriceRange() != null) {
+            builder.add(new TermQuery(new Term(PRICE_TIER, query.getPriceRange())), BooleanClause.Occur.FILTER);
+        }
+        if (query.getHasWebsite() != null) {
+            builder.add(new TermQuery(new Term(HAS_WEBSITE, String.valueOf(query.getHasWebsite()))), BooleanClause.Occur.FILTER);
+        }
+        if (query.getHasPhone() != null) {
+            builder.add(new TermQuery(new Term(HAS_PHONE, String.valueOf(query.getHasPhone()))), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Query textQuery(String text) throws IOException {
+        List<String> stems = analyze(englishAnalyzer, NAME, text);
+        List<String> tokens = analyze(standardAnalyzer, NAME_RAW, text);
+        if (stems.isEmpty() && tokens.isEmpty()) {
+            return new MatchNoDocsQuery();
+        }
+        BooleanQuery.Builder either = new BooleanQuery.Builder();
+        if (!stems.isEmpty()) {
+            BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+            for (String stem : stems) {
+                BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+                anyField.add(new BoostQuery(new TermQuery(new Term(NAME, stem)), 4f), BooleanClause.Occur.SHOULD);
+                anyField.add(new BoostQuery(new TermQuery(new Term(ADDRESS, stem)), 2f), BooleanClause.Occur.SHOULD);
+                anyField.add(new TermQuery(new Term(PLACE, stem)), BooleanClause.Occur.SHOULD);
+                anyField.add(new BoostQuery(new TermQuery(new Term(SERVICES, stem)), 0.5f), BooleanClause.Occur.SHOULD);
+                allTerms.add(anyField.build(), BooleanClause.Occur.MUST);
+            }
+            either.add(allTerms.build(), BooleanClause.Occur.SHOULD);
+        }
+        if (!tokens.isEmpty()) {
+            BooleanQuery.Builder fuzzyName = new BooleanQuery.Builder();
+            for (String token : tokens) {
+                fuzzyName.add(fuzzyTerm(token), BooleanClause.Occur.MUST);
+            }
+            either.add(fuzzyName.build(), BooleanClause.Occur.SHOULD);
+        }
+        either.setMinimumNumberShouldMatch(1);
+        return either.build();
+    }
+
+    private Query fuzzyTerm(String token) {
+        Term term = new Term(NAME_RAW, token);
+        if (token.length() <= 2) {
+            return new TermQuery(term);
+        }
+        return new FuzzyQuery(term, token.length() <= 5 ? 1 : 2, 1);
+    }
+
+    private Sort toSort(StoreSearchQuery query) {
+        if (query.ordersByDistance()) {
+            return new Sort(LatLonDocValuesField.newDistanceSort(LOCATION, query.getLat(), query.getLng()),
+                    new SortField(ID_SORT, SortField.Type.STRING));
+        }
+        if (query.hasText()) {
+            return new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.STRING, true));
+        }
+        boolean reverse = query.getDirection() == SortDirection.DESC;
+        SortField key;
+        if (query.getSort() == StoreSort.NAME) {
+            key = new SortField(NAME_SORT, SortField.Type.STRING, reverse);
+        } else if (query.getSort() == StoreSort.RELEVANCE) {
+            key = new SortField(RANK_SCORE, SortField.Type.DOUBLE, reverse);
+            key.setMissingValue(0.0);
+        } else if (query.getSort() == StoreSort.REVIEW_COUNT) {
+            key = new SortField(RATING_COUNT, SortField.Type.LONG, reverse);
+            key.setMissingValue(-1L);
+        } else {
+            key = new SortField(RATING, SortField.Type.DOUBLE, reverse);
+            key.setMissingValue(-1.0);
+        }
+        return new Sort(key, new SortField(ID_SORT, SortField.Type.STRING, reverse));
+    }
+
+    private List<String> analyze(Analyzer analyzer, String field, String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    private void addText(Document doc, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private void addKeyword(Document doc, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            doc.add(new StringField(field, lower(value.trim()), Field.Store.NO));
+        }
+    }
+
+    private boolean hasValue(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+    private String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private String escapeWildcard(String value) {
+        return value.replace("\\", "\\\\").replace("*", "\\*").replace("?", "\\?");
+    }
+}
@@ -0,0 +1,49 @@
+package com.wrenchit.stores.search;
+
+public final class RegionTiles {
+
+    public static final int MAX_RADIUS_METERS = 50_000;
+
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    private static final double MIN_TILE_KM = 0.5;
+
+    private final double south;
+    private final double west;
+    private final int rows;
+    private final int cols;
+    private final double latStep;
+    private final double lngStep;
+    private final int radiusMeters;
+
+    public RegionTiles(double south, double west, double north, double east, double tileKm) {
+        if (!(north > south) || !(east > west) || south < -90 || north > 90 || west < -180 || east > 180) {
+            throw new IllegalArgumentException("Region bounds must satisfy south < north and west < east.");
+        }
+        double size = Math.max(tileKm, MIN_TILE_KM);
+        double kmPerDegreeLng = Math.max(KM_PER_DEGREE_LAT * Math.cos(Math.toRadians((south + north) / 2)), 1e-6);
+        this.south = south;
+        this.west = west;
+        this.rows = Math.max(1, (int) Math.ceil((north - south) * KM_PER_DEGREE_LAT / size));
+        this.cols = Math.max(1, (int) Math.ceil((east - west) * kmPerDegreeLng / size));
+        this.latStep = (north - south) / rows;
+        this.lngStep = (east - west) / cols;
+        double heightKm = latStep * KM_PER_DEGREE_LAT;
+        double widthKm = lngStep * kmPerDegreeLng;
+        this.radiusMeters = (int) Math.min(MAX_RADIUS_METERS, Math.ceil(Math.hypot(heightKm, widthKm) / 2 * 1000));
+    }
+
+    public int size() {
+        return rows * cols;
+    }
+
+    public Tile tile(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IllegalArgumentException("Tile index out of range: " + index);
+        }
+        int row = index / cols;
+        int col = index % cols;
+        return new Tile(index, south + (row + 0.5) * latStep, west + (col + 0.5) * lngStep, radiusMeters);
+    }
+
+    public record Tile(int index, double lat, double lng, int radiusMeters) {}
+}
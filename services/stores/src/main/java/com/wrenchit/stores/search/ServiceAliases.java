@@ -0,0 +1,22 @@
+package com.wrenchit.stores.search;
+
+import java.util.Locale;
+
+public final class ServiceAliases {
+
+    public static final int MAX_ALIAS_LENGTH = 120;
+
+    private ServiceAliases() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return normalized.length() > MAX_ALIAS_LENGTH ? normalized.substring(0, MAX_ALIAS_LENGTH) : normalized;
+    }
+}
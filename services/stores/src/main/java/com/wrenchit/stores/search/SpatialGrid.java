@@ -0,0 +1,401 @@
+package com.wrenchit.stores.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+public final class SpatialGrid {
+
+    public static final double EARTH_RADIUS_METERS = 6_378_168.0;
+
+    private static final Comparator<SpatialMatch> BY_DISTANCE = Comparator.comparingDouble(SpatialMatch::distance)
+            .thenComparing(SpatialMatch::storeId, SpatialGrid::compareIds);
+
+    private final UUID[] ids;
+    private final double[] lats;
+    private final double[] lngs;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final double cellDegrees;
+    private final int rows;
+    private final int cols;
+    private final long[] cellKeys;
+    private final int[] cellStarts;
+    private final int[] entries;
+    private final long[] sortedHigh;
+    private final long[] sortedLow;
+    private final int[] sortedOrdinals;
+
+    private SpatialGrid(UUID[] ids, double[] lats, double[] lngs, double cellDegrees) {
+        this.ids = ids;
+        this.lats = lats;
+        this.lngs = lngs;
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180.0 / cellDegrees);
+        this.cols = (int) Math.ceil(360.0 / cellDegrees);
+        int size = ids.length;
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = (cellKey(row(lats[i]), col(lngs[i])) << 32) | i;
+        }
+        Arrays.sort(packed);
+        long[] keys = new long[size];
+        int[] starts = new int[size + 1];
+        this.entries = new int[size];
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.zs = new double[size];
+        int cells = 0;
+        for (int i = 0; i < size; i++) {
+            long key = packed[i] >>> 32;
+            int ordinal = (int) packed[i];
+            double latRad = Math.toRadians(lats[ordinal]);
+            double lngRad = Math.toRadians(lngs[ordinal]);
+            entries[i] = ordinal;
+            xs[i] = EARTH_RADIUS_METERS * Math.cos(latRad) * Math.cos(lngRad);
+            ys[i] = EARTH_RADIUS_METERS * Math.cos(latRad) * Math.sin(lngRad);
+            zs[i] = EARTH_RADIUS_METERS * Math.sin(latRad);
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = size;
+        this.cellKeys = Arrays.copyOf(keys, cells);
+        this.cellStarts = Arrays.copyOf(starts, cells + 1);
+        this.sortedOrdinals = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparing(ordinal -> ids[ordinal]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.sortedHigh = new long[size];
+        this.sortedLow = new long[size];
+        for (int i = 0; i < size; i++) {
+            sortedHigh[i] = ids[sortedOrdinals[i]].getMostSignificantBits();
+            sortedLow[i] = ids[sortedOrdinals[i]].getLeastSignificantBits();
+        }
+    }
+
+    public static SpatialGrid build(UUID[] ids, double[] lats, double[] lngs, double cellDegrees) {
+        if (ids.length != lats.length || ids.length != lngs.length) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length");
+        }
+        if (!(cellDegrees >= 0.01) || cellDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be between 0.01 and 90 degrees");
+        }
+        return new SpatialGrid(ids, lats, lngs, cellDegrees);
+    }
+
+    public static SpatialGrid empty(double cellDegrees) {
+        return build(new UUID[0], new double[0], new double[0], cellDegrees);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public double cellDegrees() {
+        return cellDegrees;
+    }
+
+    public SpatialGrid withChanges(Map<UUID, double[]> upserts, Set<UUID> removals) {
+        int capacity = ids.length + upserts.size();
+        UUID[] nextIds = new UUID[capacity];
+        double[] nextLats = new double[capacity];
+        double[] nextLngs = new double[capacity];
+        int size = 0;
+        for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+            UUID id = ids[ordinal];
+            if (upserts.containsKey(id) || removals.contains(id)) {
+                continue;
+            }
+            nextIds[size] = id;
+            nextLats[size] = lats[ordinal];
+            nextLngs[size] = lngs[ordinal];
+            size++;
+        }
+        for (Map.Entry<UUID, double[]> upsert : upserts.entrySet()) {
+            nextIds[size] = upsert.getKey();
+            nextLats[size] = upsert.getValue()[0];
+            nextLngs[size] = upsert.getValue()[1];
+            size++;
+        }
+        return new SpatialGrid(Arrays.copyOf(nextIds, size), Arrays.copyOf(nextLats, size), Arrays.copyOf(nextLngs, size),
+                cellDegrees);
+    }
+
+    public boolean contains(UUID id, double lat, double lng) {
+        int ordinal = ordinalOf(id);
+        return ordinal >= 0 && lats[ordinal] == lat && lngs[ordinal] == lng;
+    }
+
+    public boolean contains(UUID id) {
+        return ordinalOf(id) >= 0;
+    }
+
+    public List<SpatialMatch> withinRadius(double lat, double lng, double radiusKm) {
+        double radiusMeters = radiusKm * 1000.0;
+        double angular = Math.min(radiusMeters / EARTH_RADIUS_METERS, Math.PI);
+        double maxChord = 2 * EARTH_RADIUS_METERS * Math.sin(angular / 2);
+        double[] origin = point(lat, lng);
+        double latDelta = Math.toDegrees(angular);
+        int minRow = row(Math.max(-90.0, lat - latDelta));
+        int maxRow = row(Math.min(90.0, lat + latDelta));
+        double maxAbsLat = Math.min(90.0, Math.abs(lat) + latDelta);
+        List<SpatialMatch> matches = new ArrayList<>();
+        for (int row = minRow; row <= maxRow; row++) {
+            forEachColumnRange(row, lng, lngDelta(latDelta, maxAbsLat), (from, to) -> {
+                for (int cell = from; cell < to; cell++) {
+                    for (int e = cellStarts[cell]; e < cellStarts[cell + 1]; e++) {
+                        double distance = chord(origin, e);
+                        if (distance <= maxChord) {
+                            matches.add(new SpatialMatch(ids[entries[e]], distance));
+                        }
+                    }
+                }
+            });
+        }
+        matches.sort(BY_DISTANCE);
+        return matches;
+    }
+
+    public List<SpatialMatch> nearest(double lat, double lng, int n, SpatialMatch after) {
+        if (n <= 0 || ids.length == 0) {
+            return List.of();
+        }
+        double[] origin = point(lat, lng);
+        PriorityQueue<SpatialMatch> best = new PriorityQueue<>(BY_DISTANCE.reversed());
+        int centerRow = row(lat);
+        int centerCol = col(lng);
+        int lookups = 0;
+        for (int ring = 0; ; ring++) {
+            int width = Math.min(2 * ring + 1, cols);
+            int previousWidth = ring == 0 ? 0 : Math.min(2 * ring - 1, cols);
+            for (int row = Math.max(0, centerRow - ring); row <= Math.min(rows - 1, centerRow + ring); row++) {
+                if (ring == 0 || row == centerRow - ring || row == centerRow + ring) {
+                    lookups += collectNearest(row, centerCol - ring, width, origin, n, after, best);
+                } else if (previousWidth < cols) {
+                    if (width == cols) {
+                        lookups += collectNearest(row, centerCol + ring, cols - previousWidth, origin, n, after, best);
+                    } else {
+                        lookups += collectNearest(row, centerCol - ring, 1, origin, n, after, best);
+                        lookups += collectNearest(row, centerCol + ring, 1, origin, n, after, best);
+                    }
+                }
+            }
+            boolean coversAll = centerRow - ring <= 0 && centerRow + ring >= rows - 1 && width == cols;
+            if (coversAll || (best.size() == n && best.peek().distance() <= coveredChord(lat, ring))) {
+                break;
+            }
+            if (lookups > cellKeys.length) {
+                best.clear();
+                for (int e = 0; e < entries.length; e++) {
+                    offer(e, chord(origin, e), n, after, best);
+                }
+                break;
+            }
+        }
+        List<SpatialMatch> result = new ArrayList<>(best);
+        result.sort(BY_DISTANCE);
+        return result;
+    }
+
+    private int collectNearest(int row, int startCol, int count, double[] origin, int n, SpatialMatch after,
+                               PriorityQueue<SpatialMatch> best) {
+        int from = Math.floorMod(startCol, cols);
+        int lookups = 0;
+        while (count > 0) {
+            int span = Math.min(count, cols - from);
+            int fromCell = lowerBound(cellKey(row, from));
+            int toCell = lowerBound(cellKey(row, from + span));
+            lookups += 2 + (toCell - fromCell);
+            for (int cell = fromCell; cell < toCell; cell++) {
+                for (int e = cellStarts[cell]; e < cellStarts[cell + 1]; e++) {
+                    offer(e, chord(origin, e), n, after, best);
+                }
+            }
+            count -= span;
+            from = 0;
+        }
+        return lookups;
+    }
+
+    private void offer(int entry, double distance, int n, SpatialMatch after, PriorityQueue<SpatialMatch> best) {
+        if ((after != null && distance < after.distance()) || (best.size() == n && distance > best.peek().distance())) {
+            return;
+        }
+        SpatialMatch match = new SpatialMatch(ids[entries[entry]], distance);
+        if (after != null && BY_DISTANCE.compare(match, after) <= 0) {
+            return;
+        }
+        if (best.size() < n) {
+            best.add(match);
+        } else if (BY_DISTANCE.compare(match, best.peek()) < 0) {
+            best.poll();
+            best.add(match);
+        }
+    }
+
+    public List<StorePoint> withinBounds(double south, double west, double north, double east) {
+        double minLat = Math.max(-90.0, Math.min(south, north));
+        double maxLat = Math.min(90.0, Math.max(south, north));
+        List<StorePoint> points = new ArrayList<>();
+        for (int row = row(minLat); row <= row(maxLat); row++) {
+            if (west <= east) {
+                collectBounds(row, col(west), col(east) + 1, minLat, maxLat, west, east, points);
+            } else {
+                collectBounds(row, col(west), cols, minLat, maxLat, west, 180.0, points);
+                collectBounds(row, 0, col(east) + 1, minLat, maxLat, -180.0, east, points);
+            }
+        }
+        return points;
+    }
+
+    public static int compareIds(UUID left, UUID right) {
+        int cmp = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    public double chordMeters(double lat, double lng, double otherLat, double otherLng) {
+        double[] origin = point(lat, lng);
+        double[] other = point(otherLat, otherLng);
+        double dx = origin[0] - other[0];
+        double dy = origin[1] - other[1];
+        double dz = origin[2] - other[2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private void collectBounds(int row, int fromCol, int toCol, double minLat, double maxLat, double west, double east,
+                               List<StorePoint> points) {
+        int from = lowerBound(cellKey(row, fromCol));
+        int to = lowerBound(cellKey(row, Math.min(toCol, cols)));
+        for (int cell = from; cell < to; cell++) {
+            for (int e = cellStarts[cell]; e < cellStarts[cell + 1]; e++) {
+                int ordinal = entries[e];
+                double lat = lats[ordinal];
+                double lng = lngs[ordinal];
+                if (lat >= minLat && lat <= maxLat && lng >= west && lng <= east) {
+                    points.add(new StorePoint(ids[ordinal], lat, lng));
+                }
+            }
+        }
+    }
+
+    private void forEachColumnRange(int row, double lng, double lngDelta, CellRange consumer) {
+        if (lngDelta >= 180.0) {
+            consumer.accept(lowerBound(cellKey(row, 0)), lowerBound(cellKey(row, cols)));
+            return;
+        }
+        int fromCol = (int) Math.floor((lng - lngDelta + 180.0) / cellDegrees);
+        int toCol = (int) Math.floor((lng + lngDelta + 180.0) / cellDegrees);
+        if (toCol - fromCol + 1 >= cols) {
+            consumer.accept(lowerBound(cellKey(row, 0)), lowerBound(cellKey(row, cols)));
+            return;
+        }
+        if (fromCol < 0) {
+            consumer.accept(lowerBound(cellKey(row, fromCol + cols)), lowerBound(cellKey(row, cols)));
+            fromCol = 0;
+        }
+        if (toCol >= cols) {
+            consumer.accept(lowerBound(cellKey(row, 0)), lowerBound(cellKey(row, toCol - cols + 1)));
+            toCol = cols - 1;
+        }
+        consumer.accept(lowerBound(cellKey(row, fromCol)), lowerBound(cellKey(row, toCol + 1)));
+    }
+
+    private double lngDelta(double latDelta, double maxAbsLat) {
+        if (maxAbsLat >= 89.9) {
+            return 180.0;
+        }
+        return Math.min(180.0, latDelta / Math.cos(Math.toRadians(maxAbsLat)));
+    }
+
+    private double coveredChord(double lat, int ring) {
+        double coveredDegrees = ring * cellDegrees;
+        double maxAbsLat = Math.min(90.0, Math.abs(lat) + coveredDegrees + cellDegrees);
+        double lngCovered = coveredDegrees * Math.cos(Math.toRadians(maxAbsLat));
+        double angular = Math.toRadians(Math.min(coveredDegrees, lngCovered));
+        return 2 * EARTH_RADIUS_METERS * Math.sin(Math.min(angular, Math.PI) / 2);
+    }
+
+    private double chord(double[] origin, int entry) {
+        double dx = origin[0] - xs[entry];
+        double dy = origin[1] - ys[entry];
+        double dz = origin[2] - zs[entry];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private double[] point(double lat, double lng) {
+        double latRad = Math.toRadians(lat);
+        double lngRad = Math.toRadians(lng);
+        return new double[] {
+                EARTH_RADIUS_METERS * Math.cos(latRad) * Math.cos(lngRad),
+                EARTH_RADIUS_METERS * Math.cos(latRad) * Math.sin(lngRad),
+                EARTH_RADIUS_METERS * Math.sin(latRad)
+        };
+    }
+
+    private int ordinalOf(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int lowIndex = 0;
+        int highIndex = sortedOrdinals.length - 1;
+        while (lowIndex <= highIndex) {
+            int mid = (lowIndex + highIndex) >>> 1;
+            int cmp = Long.compare(sortedHigh[mid], high);
+            if (cmp == 0) {
+                cmp = Long.compare(sortedLow[mid], low);
+            }
+            if (cmp < 0) {
+                lowIndex = mid + 1;
+            } else if (cmp > 0) {
+                highIndex = mid - 1;
+            } else {
+                return sortedOrdinals[mid];
+            }
+        }
+        return -1;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = cellKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cellKeys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int row(double lat) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((lat + 90.0) / cellDegrees)));
+    }
+
+    private int col(double lng) {
+        return Math.min(cols - 1, Math.max(0, (int) Math.floor((lng + 180.0) / cellDegrees)));
+    }
+
+    private long cellKey(int row, int col) {
+        return (long) row * cols + col;
+    }
+
+    @FunctionalInterface
+    private interface CellRange {
+        void accept(int fromCell, int toCell);
+    }
+
+    public record SpatialMatch(UUID storeId, double distance) {}
+
+    public record StorePoint(UUID storeId, double lat, double lng) {}
+}
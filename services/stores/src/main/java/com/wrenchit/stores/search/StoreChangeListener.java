@@ -0,0 +1,8 @@
+package com.wrenchit.stores.search;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface StoreChangeListener {
+    void storesChanged(Collection<UUID> storeIds);
+}
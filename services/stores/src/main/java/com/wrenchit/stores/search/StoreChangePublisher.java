@@ -0,0 +1,51 @@
+package com.wrenchit.stores.search;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class StoreChangePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreChangePublisher.class);
+
+    private final List<StoreChangeListener> listeners;
+
+    public StoreChangePublisher(List<StoreChangeListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    public void storesChanged(Collection<UUID> storeIds) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(new LinkedHashSet<>(storeIds));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyListeners(ids);
+                }
+            });
+        } else {
+            notifyListeners(ids);
+        }
+    }
+
+    private void notifyListeners(List<UUID> storeIds) {
+        for (StoreChangeListener listener : listeners) {
+            try {
+                listener.storesChanged(storeIds);
+            } catch (RuntimeException ex) {
+                log.warn("Store change listener {} failed", listener.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.wrenchit.stores.search;
+
+import java.util.UUID;
+
+public record StoreDocument(UUID id,
+                            String name,
+                            String address,
+                            String city,
+                            String state,
+                            String postalCode,
+                            String servicesText,
+                            String phone,
+                            String website,
+                            Double lat,
+                            Double lng,
+                            Double rating,
+                            Integer ratingCount,
+                            Double rankScore,
+                            String priceTier) {}
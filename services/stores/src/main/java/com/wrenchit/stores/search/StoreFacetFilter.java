@@ -0,0 +1,22 @@
+package com.wrenchit.stores.search;
+
+public record StoreFacetFilter(Double minRating,
+                               String servicesContains,
+                               String city,
+                               String state,
+                               String priceRange,
+                               Boolean hasWebsite,
+                               Boolean hasPhone,
+                               Double lat,
+                               Double lng,
+                               Double radiusKm) {
+
+    public boolean hasRadius() {
+        return lat != null && lng != null && radiusKm != null && radiusKm > 0;
+    }
+
+    public boolean hasAttributeFilters() {
+        return minRating != null || servicesContains != null || city != null || state != null || priceRange != null
+                || hasWebsite != null || hasPhone != null;
+    }
+}
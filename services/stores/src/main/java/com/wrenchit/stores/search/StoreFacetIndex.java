@@ -0,0 +1,445 @@
+package com.wrenchit.stores.search;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StoreFacetIndex implements StoreChangeListener {
+
+    public static final String CITY = "city";
+    public static final String STATE = "state";
+    public static final String PRICE_RANGE = "priceRange";
+    public static final String HAS_WEBSITE = "hasWebsite";
+    public static final String HAS_PHONE = "hasPhone";
+    public static final String SERVICES = "services";
+    public static final String MIN_RATING = "minRating";
+
+    private static final Logger log = LoggerFactory.getLogger(StoreFacetIndex.class);
+
+    private static final List<String> VALUE_FACETS = List.of(CITY, STATE, PRICE_RANGE, HAS_WEBSITE, HAS_PHONE, SERVICES);
+    private static final List<Double> RATING_BUCKETS = List.of(4.5, 4.0, 3.5, 3.0);
+    private static final int MAX_FACET_VALUES = 20;
+    private static final int BATCH_SIZE = 1_000;
+    private static final double EARTH_RADIUS_KM = SpatialGrid.EARTH_RADIUS_METERS / 1000.0;
+
+    private static final String FACTS_SELECT = """
+            select s.id, s.city, s.state, s.website, s.phone, s.rating, s.services_text, s.lat, s.lng, ps.price_tier
+            from stores s
+            left join store_price_stats ps on ps.store_id = s.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-facet-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+
+    public StoreFacetIndex(NamedParameterJdbcTemplate jdbc,
+                           @Value("${wrenchit.search.facets.enabled:true}") boolean enabled,
+                           @Value("${wrenchit.search.facets.refresh-interval:PT10M}") Duration refreshInterval) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        submit(this::reload);
+        long intervalMillis = Math.max(refreshInterval.toMillis(), 1_000L);
+        executor.scheduleWithFixedDelay(() -> runQuietly(this::reload), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void reload() {
+        Snapshot next = new Snapshot();
+        for (StoreFacts store : jdbc.query(FACTS_SELECT, new MapSqlParameterSource(), (rs, rowNum) -> toFacts(rs))) {
+            next.put(store);
+        }
+        lock.writeLock().lock();
+        try {
+            snapshot = next;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void storesChanged(Collection<UUID> storeIds) {
+        if (!enabled || storeIds == null || storeIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(new HashSet<>(storeIds));
+        submit(() -> apply(ids));
+    }
+
+    public Optional<List<UUID>> filter(List<UUID> storeIds, StoreFacetFilter filter) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (UUID id : storeIds) {
+                Integer ordinal = snapshot.ordinals.get(id);
+                if (ordinal == null) {
+                    return Optional.empty();
+                }
+                candidates.add(ordinal);
+            }
+            RoaringBitmap matching = matching(snapshot, filter, null, RoaringBitmap.and(snapshot.all, candidates));
+            List<UUID> retained = new ArrayList<>();
+            for (UUID id : storeIds) {
+                if (matching.contains(snapshot.ordinals.get(id))) {
+                    retained.add(id);
+                }
+            }
+            return Optional.of(retained);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Map<String, Map<String, Long>>> facets(StoreFacetFilter filter, Collection<UUID> candidateIds) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = null;
+            if (candidateIds != null) {
+                candidates = new RoaringBitmap();
+                for (UUID id : candidateIds) {
+                    Integer ordinal = snapshot.ordinals.get(id);
+                    if (ordinal != null) {
+                        candidates.add(ordinal);
+                    }
+                }
+            }
+            RoaringBitmap scope = scope(snapshot, filter, candidates);
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (String facet : VALUE_FACETS) {
+                RoaringBitmap base = matching(snapshot, filter, facet, scope);
+                facets.put(facet, snapshot.fields.get(facet).counts(base));
+            }
+            RoaringBitmap ratingBase = matching(snapshot, filter, MIN_RATING, scope);
+            Map<String, Long> ratingCounts = new LinkedHashMap<>();
+            for (Map.Entry<Double, RoaringBitmap> bucket : snapshot.ratingBuckets.entrySet()) {
+                ratingCounts.put(String.valueOf(bucket.getKey()), (long) RoaringBitmap.andCardinality(ratingBase, bucket.getValue()));
+            }
+            facets.put(MIN_RATING, ratingCounts);
+            return Optional.of(facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(List<UUID> storeIds) {
+        Set<UUID> missing = new HashSet<>(storeIds);
+        List<StoreFacts> loaded = new ArrayList<>();
+        for (int from = 0; from < storeIds.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = storeIds.subList(from, Math.min(from + BATCH_SIZE, storeIds.size()));
+            loaded.addAll(jdbc.query(FACTS_SELECT + " where s.id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    (rs, rowNum) -> toFacts(rs)));
+        }
+        lock.writeLock().lock();
+        try {
+            for (StoreFacts store : loaded) {
+                snapshot.put(store);
+                missing.remove(store.id());
+            }
+            for (UUID id : missing) {
+                snapshot.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private RoaringBitmap scope(Snapshot current, StoreFacetFilter filter, RoaringBitmap candidates) {
+        RoaringBitmap scope = candidates == null ? current.all.clone() : RoaringBitmap.and(current.all, candidates);
+        if (!filter.hasRadius()) {
+            return scope;
+        }
+        RoaringBitmap nearby = new RoaringBitmap();
+        scope.forEach((int ordinal) -> {
+            StoreFacts store = current.facts.get(ordinal);
+            if (store.lat() != null && store.lng() != null
+                    && distanceKm(filter.lat(), filter.lng(), store.lat(), store.lng()) <= filter.radiusKm()) {
+                nearby.add(ordinal);
+            }
+        });
+        return nearby;
+    }
+
+    private RoaringBitmap matching(Snapshot current, StoreFacetFilter filter, String excluded, RoaringBitmap scope) {
+        RoaringBitmap result = scope.clone();
+        if (filter.city() != null && !CITY.equals(excluded)) {
+            result.and(current.fields.get(CITY).get(filter.city()));
+        }
+        if (filter.state() != null && !STATE.equals(excluded)) {
+            result.and(current.fields.get(STATE).get(filter.state()));
+        }
+        if (filter.priceRange() != null && !PRICE_RANGE.equals(excluded)) {
+            result.and(current.fields.get(PRICE_RANGE).get(filter.priceRange()));
+        }
+        if (filter.hasWebsite() != null && !HAS_WEBSITE.equals(excluded)) {
+            result.and(current.fields.get(HAS_WEBSITE).get(String.valueOf(filter.hasWebsite())));
+        }
+        if (filter.hasPhone() != null && !HAS_PHONE.equals(excluded)) {
+            result.and(current.fields.get(HAS_PHONE).get(String.valueOf(filter.hasPhone())));
+        }
+        if (filter.servicesContains() != null && !SERVICES.equals(excluded)) {
+            result.and(current.fields.get(SERVICES).containing(filter.servicesContains()));
+        }
+        if (filter.minRating() != null && !MIN_RATING.equals(excluded)) {
+            result.and(current.atLeast(filter.minRating()));
+        }
+        return result;
+    }
+
+    private StoreFacts toFacts(ResultSet rs) throws SQLException {
+        String website = rs.getString("website");
+        String phone = rs.getString("phone");
+        return new StoreFacts(
+                rs.getObject("id", UUID.class),
+                rs.getString("city"),
+                rs.getString("state"),
+                rs.getString("price_tier"),
+                website != null && !website.isBlank(),
+                phone != null && !phone.isBlank(),
+                rs.getObject("rating", Double.class),
+                serviceTerms(rs.getString("services_text")),
+                rs.getObject("lat", Double.class),
+                rs.getObject("lng", Double.class));
+    }
+
+    private List<String> serviceTerms(String servicesText) {
+        if (servicesText == null || servicesText.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : servicesText.split("[,;]")) {
+            if (!term.isBlank()) {
+                terms.add(term.trim());
+            }
+        }
+        return terms;
+    }
+
+    private double distanceKm(double lat, double lng, double storeLat, double storeLng) {
+        double dLat = Math.toRadians(storeLat - lat);
+        double dLng = Math.toRadians(storeLng - lng);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(storeLat)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> runQuietly(task));
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void runQuietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            log.warn("Store facet index refresh failed", ex);
+        }
+    }
+
+    private record StoreFacts(UUID id,
+                              String city,
+                              String state,
+                              String priceTier,
+                              boolean hasWebsite,
+                              boolean hasPhone,
+                              Double rating,
+                              List<String> services,
+                              Double lat,
+                              Double lng) {}
+
+    private static final class Snapshot {
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<StoreFacts> facts = new ArrayList<>();
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<String, FacetValues> fields = new HashMap<>();
+        private final Map<Double, RoaringBitmap> ratingBuckets = new LinkedHashMap<>();
+
+        private Snapshot() {
+            for (String facet : VALUE_FACETS) {
+                fields.put(facet, new FacetValues());
+            }
+            for (Double bucket : RATING_BUCKETS) {
+                ratingBuckets.put(bucket, new RoaringBitmap());
+            }
+        }
+
+        private void put(StoreFacts store) {
+            Integer ordinal = ordinals.get(store.id());
+            if (ordinal == null) {
+                ordinal = facts.size();
+                facts.add(store);
+                ordinals.put(store.id(), ordinal);
+            } else {
+                clear(ordinal);
+                facts.set(ordinal, store);
+            }
+            all.add(ordinal);
+            fields.get(CITY).add(store.city(), ordinal);
+            fields.get(STATE).add(store.state(), ordinal);
+            fields.get(PRICE_RANGE).add(store.priceTier(), ordinal);
+            fields.get(HAS_WEBSITE).add(String.valueOf(store.hasWebsite()), ordinal);
+            fields.get(HAS_PHONE).add(String.valueOf(store.hasPhone()), ordinal);
+            for (String service : store.services()) {
+                fields.get(SERVICES).add(service, ordinal);
+            }
+            if (store.rating() != null) {
+                for (Map.Entry<Double, RoaringBitmap> bucket : ratingBuckets.entrySet()) {
+                    if (store.rating() >= bucket.getKey()) {
+                        bucket.getValue().add(ordinal);
+                    }
+                }
+            }
+        }
+
+        private void remove(UUID id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                clear(ordinal);
+                facts.set(ordinal, null);
+            }
+        }
+
+        private void clear(int ordinal) {
+            all.remove(ordinal);
+            for (FacetValues values : fields.values()) {
+                values.remove(ordinal);
+            }
+            for (RoaringBitmap bucket : ratingBuckets.values()) {
+                bucket.remove(ordinal);
+            }
+        }
+
+        private RoaringBitmap atLeast(double minRating) {
+            RoaringBitmap bucket = ratingBuckets.get(minRating);
+            if (bucket != null) {
+                return bucket;
+            }
+            RoaringBitmap matching = new RoaringBitmap();
+            all.forEach((int ordinal) -> {
+                Double rating = facts.get(ordinal).rating();
+                if (rating != null && rating >= minRating) {
+                    matching.add(ordinal);
+                }
+            });
+            return matching;
+        }
+    }
+
+    private static final class FacetValues {
+        private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        private final Map<String, String> labels = new HashMap<>();
+
+        private void add(String value, int ordinal) {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            String key = key(value);
+            bitmaps.computeIfAbsent(key, ignored -> new RoaringBitmap()).add(ordinal);
+            labels.putIfAbsent(key, value.trim());
+        }
+
+        private void remove(int ordinal) {
+            for (RoaringBitmap bitmap : bitmaps.values()) {
+                bitmap.remove(ordinal);
+            }
+        }
+
+        private RoaringBitmap get(String value) {
+            RoaringBitmap bitmap = bitmaps.get(key(value));
+            return bitmap == null ? new RoaringBitmap() : bitmap;
+        }
+
+        private RoaringBitmap containing(String fragment) {
+            String needle = key(fragment);
+            RoaringBitmap matching = new RoaringBitmap();
+            for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+                if (entry.getKey().contains(needle)) {
+                    matching.or(entry.getValue());
+                }
+            }
+            return matching;
+        }
+
+        private Map<String, Long> counts(RoaringBitmap base) {
+            List<Map.Entry<String, Long>> counted = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+                long count = RoaringBitmap.andCardinality(base, entry.getValue());
+                if (count > 0) {
+                    counted.add(Map.entry(labels.get(entry.getKey()), count));
+                }
+            }
+            counted.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : counted.subList(0, Math.min(counted.size(), MAX_FACET_VALUES))) {
+                counts.put(entry.getKey(), entry.getValue());
+            }
+            return counts;
+        }
+
+        private static String key(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
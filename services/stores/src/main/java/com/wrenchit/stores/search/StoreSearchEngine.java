@@ -0,0 +1,12 @@
+package com.wrenchit.stores.search;
+
+import java.util.Optional;
+
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+
+public interface StoreSearchEngine extends StoreChangeListener {
+    Optional<StoreSearchHits> search(StoreSearchQuery query, int limit, int offset, IncludeTotal includeTotal);
+
+    void rebuild();
+}
@@ -0,0 +1,6 @@
+package com.wrenchit.stores.search;
+
+import java.util.List;
+import java.util.UUID;
+
+public record StoreSearchHits(List<UUID> storeIds, Long total, boolean totalEstimated) {}
@@ -0,0 +1,215 @@
+package com.wrenchit.stores.search;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.wrenchit.stores.search.SpatialGrid.SpatialMatch;
+import com.wrenchit.stores.search.SpatialGrid.StorePoint;
+
+@Component
+public class StoreSpatialIndex implements StoreChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreSpatialIndex.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String COORDINATES_SELECT = "select id, lat, lng from stores where lat is not null and lng is not null";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final boolean enabled;
+    private final double cellDegrees;
+    private final Duration refreshInterval;
+    private final Duration rebuildDelay;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-spatial-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<UUID, double[]> pendingUpserts = new HashMap<>();
+    private final Set<UUID> pendingRemovals = new HashSet<>();
+
+    private volatile SpatialGrid grid;
+    private boolean rebuildScheduled;
+
+    public StoreSpatialIndex(NamedParameterJdbcTemplate jdbc,
+                             @Value("${wrenchit.search.spatial.enabled:true}") boolean enabled,
+                             @Value("${wrenchit.search.spatial.cell-degrees:0.1}") double cellDegrees,
+                             @Value("${wrenchit.search.spatial.refresh-interval:PT10M}") Duration refreshInterval,
+                             @Value("${wrenchit.search.spatial.rebuild-delay:PT5S}") Duration rebuildDelay) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.cellDegrees = cellDegrees;
+        this.refreshInterval = refreshInterval;
+        this.rebuildDelay = rebuildDelay;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        submit(this::reload);
+        long intervalMillis = Math.max(refreshInterval.toMillis(), 1_000L);
+        executor.scheduleWithFixedDelay(() -> runQuietly(this::reload), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return grid != null;
+    }
+
+    public int size() {
+        SpatialGrid current = grid;
+        return current == null ? 0 : current.size();
+    }
+
+    public Optional<List<SpatialMatch>> withinRadius(double lat, double lng, double radiusKm) {
+        SpatialGrid current = grid;
+        return current == null ? Optional.empty() : Optional.of(current.withinRadius(lat, lng, radiusKm));
+    }
+
+    public Optional<List<SpatialMatch>> nearest(double lat, double lng, int n, SpatialMatch after) {
+        SpatialGrid current = grid;
+        return current == null ? Optional.empty() : Optional.of(current.nearest(lat, lng, n, after));
+    }
+
+    public Optional<List<StorePoint>> withinBounds(double south, double west, double north, double east) {
+        SpatialGrid current = grid;
+        return current == null ? Optional.empty() : Optional.of(current.withinBounds(south, west, north, east));
+    }
+
+    public void reload() {
+        Coordinates coordinates = new Coordinates();
+        jdbc.query(COORDINATES_SELECT, new MapSqlParameterSource(),
+                rs -> {
+                    coordinates.add(rs.getObject("id", UUID.class), rs.getDouble("lat"), rs.getDouble("lng"));
+                });
+        pendingUpserts.clear();
+        pendingRemovals.clear();
+        grid = coordinates.build(cellDegrees);
+    }
+
+    @Override
+    public void storesChanged(Collection<UUID> storeIds) {
+        if (!enabled || storeIds == null || storeIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(new HashSet<>(storeIds));
+        submit(() -> stage(ids));
+    }
+
+    private void stage(List<UUID> storeIds) {
+        SpatialGrid current = grid;
+        if (current == null) {
+            return;
+        }
+        Set<UUID> missing = new HashSet<>(storeIds);
+        boolean changed = false;
+        for (int from = 0; from < storeIds.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = storeIds.subList(from, Math.min(from + BATCH_SIZE, storeIds.size()));
+            List<Object[]> rows = jdbc.query(COORDINATES_SELECT + " and id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    (rs, rowNum) -> new Object[] {rs.getObject("id", UUID.class), rs.getDouble("lat"), rs.getDouble("lng")});
+            for (Object[] row : rows) {
+                UUID id = (UUID) row[0];
+                double lat = (double) row[1];
+                double lng = (double) row[2];
+                missing.remove(id);
+                if (!current.contains(id, lat, lng)) {
+                    pendingUpserts.put(id, new double[] {lat, lng});
+                    pendingRemovals.remove(id);
+                    changed = true;
+                }
+            }
+        }
+        for (UUID id : missing) {
+            if (current.contains(id) || pendingUpserts.containsKey(id)) {
+                pendingUpserts.remove(id);
+                pendingRemovals.add(id);
+                changed = true;
+            }
+        }
+        if (changed && !rebuildScheduled) {
+            rebuildScheduled = true;
+            try {
+                executor.schedule(() -> runQuietly(this::applyPending), rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+    }
+
+    private void applyPending() {
+        rebuildScheduled = false;
+        SpatialGrid current = grid;
+        if (current == null || (pendingUpserts.isEmpty() && pendingRemovals.isEmpty())) {
+            return;
+        }
+        grid = current.withChanges(Map.copyOf(pendingUpserts), Set.copyOf(pendingRemovals));
+        pendingUpserts.clear();
+        pendingRemovals.clear();
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> runQuietly(task));
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void runQuietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            log.warn("Store spatial index refresh failed", ex);
+        }
+    }
+
+    private static final class Coordinates {
+        private UUID[] ids = new UUID[1024];
+        private double[] lats = new double[1024];
+        private double[] lngs = new double[1024];
+        private int size;
+
+        private void add(UUID id, double lat, double lng) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                lngs = Arrays.copyOf(lngs, capacity);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lngs[size] = lng;
+            size++;
+        }
+
+        private SpatialGrid build(double cellDegrees) {
+            return SpatialGrid.build(Arrays.copyOf(ids, size), Arrays.copyOf(lats, size), Arrays.copyOf(lngs, size), cellDegrees);
+        }
+    }
+}
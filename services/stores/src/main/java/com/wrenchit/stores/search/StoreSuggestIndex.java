@@ -0,0 +1,367 @@
+package com.wrenchit.stores.search;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StoreSuggestIndex implements StoreChangeListener {
+
+    public static final String STORE = "store";
+    public static final String CITY = "city";
+    public static final String SERVICE = "service";
+
+    private static final Logger log = LoggerFactory.getLogger(StoreSuggestIndex.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int PRECOMPUTED_PREFIX_LENGTH = 2;
+    private static final int PRECOMPUTED_CANDIDATES = 64;
+    private static final int MAX_WORD_STARTS = 4;
+    private static final double GEO_SCALE_KM = 25.0;
+    private static final double LEADING_MATCH_BOOST = 1.5;
+    private static final double EARTH_RADIUS_KM = SpatialGrid.EARTH_RADIUS_METERS / 1000.0;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String STORES_SELECT = "select id, name, city, lat, lng, rating_count from stores";
+    private static final String SERVICES_SQL = """
+            select sv.name,
+                   coalesce(sum(s.rating_count), 0) + count(distinct ss.store_id) as weight
+            from services sv
+            join store_services ss on ss.service_id = sv.id
+            join stores s on s.id = ss.store_id
+            group by sv.name
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+    private final Duration rebuildDelay;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-suggest-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<UUID, StoreTerms> stores = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+    private boolean rebuildScheduled;
+
+    public StoreSuggestIndex(NamedParameterJdbcTemplate jdbc,
+                             @Value("${wrenchit.search.suggest.enabled:true}") boolean enabled,
+                             @Value("${wrenchit.search.suggest.refresh-interval:PT30M}") Duration refreshInterval,
+                             @Value("${wrenchit.search.suggest.rebuild-delay:PT5S}") Duration rebuildDelay) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+        this.rebuildDelay = rebuildDelay;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        submit(this::reload);
+        long intervalMillis = Math.max(refreshInterval.toMillis(), 1_000L);
+        executor.scheduleWithFixedDelay(() -> runQuietly(this::reload), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public List<StoreSuggestion> suggest(String prefix, int limit, Double lat, Double lng) {
+        Snapshot current = snapshot;
+        String key = normalize(prefix);
+        if (current == null || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return current.lookup(key, limit, lat, lng);
+    }
+
+    public void reload() {
+        stores.clear();
+        jdbc.query(STORES_SELECT, new MapSqlParameterSource(), rs -> {
+            StoreTerms terms = terms(rs.getObject("id", UUID.class), rs.getString("name"), rs.getString("city"),
+                    rs.getObject("lat", Double.class), rs.getObject("lng", Double.class), rs.getObject("rating_count", Integer.class));
+            stores.put(terms.id(), terms);
+        });
+        rebuild();
+    }
+
+    @Override
+    public void storesChanged(Collection<UUID> storeIds) {
+        if (!enabled || storeIds == null || storeIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(new HashSet<>(storeIds));
+        submit(() -> stage(ids));
+    }
+
+    private void stage(List<UUID> storeIds) {
+        if (snapshot == null) {
+            return;
+        }
+        for (int from = 0; from < storeIds.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = storeIds.subList(from, Math.min(from + BATCH_SIZE, storeIds.size()));
+            Set<UUID> missing = new HashSet<>(chunk);
+            jdbc.query(STORES_SELECT + " where id in (:ids)", new MapSqlParameterSource("ids", chunk), rs -> {
+                StoreTerms terms = terms(rs.getObject("id", UUID.class), rs.getString("name"), rs.getString("city"),
+                        rs.getObject("lat", Double.class), rs.getObject("lng", Double.class), rs.getObject("rating_count", Integer.class));
+                stores.put(terms.id(), terms);
+                missing.remove(terms.id());
+            });
+            for (UUID id : missing) {
+                stores.remove(id);
+            }
+        }
+        if (!rebuildScheduled) {
+            rebuildScheduled = true;
+            try {
+                executor.schedule(() -> runQuietly(this::rebuild), rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+    }
+
+    private void rebuild() {
+        rebuildScheduled = false;
+        List<Suggestion> suggestions = new ArrayList<>(stores.size());
+        Map<String, CityTerms> cities = new LinkedHashMap<>();
+        for (StoreTerms store : stores.values()) {
+            if (store.name() != null && !normalize(store.name()).isEmpty()) {
+                suggestions.add(new Suggestion(STORE, store.name(), store.id(), store.city(), store.lat(), store.lng(), store.weight()));
+            }
+            if (store.city() != null && !normalize(store.city()).isEmpty()) {
+                cities.computeIfAbsent(normalize(store.city()), ignored -> new CityTerms(store.city().trim())).add(store);
+            }
+        }
+        for (CityTerms city : cities.values()) {
+            suggestions.add(city.toSuggestion());
+        }
+        jdbc.query(SERVICES_SQL, new MapSqlParameterSource(), rs -> {
+            String name = rs.getString("name");
+            if (name != null && !normalize(name).isEmpty()) {
+                suggestions.add(new Suggestion(SERVICE, name.trim(), null, null, null, null, rs.getLong("weight")));
+            }
+        });
+        snapshot = new Snapshot(suggestions);
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> runQuietly(task));
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void runQuietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            log.warn("Store suggest index refresh failed", ex);
+        }
+    }
+
+    private static StoreTerms terms(UUID id, String name, String city, Double lat, Double lng, Integer ratingCount) {
+        return new StoreTerms(id, name, city, lat, lng, ratingCount == null ? 0L : Math.max(0, ratingCount));
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFKD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static double distanceKm(double lat, double lng, double otherLat, double otherLng) {
+        double dLat = Math.toRadians(otherLat - lat);
+        double dLng = Math.toRadians(otherLng - lng);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(otherLat)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private record StoreTerms(UUID id, String name, String city, Double lat, Double lng, long weight) {}
+
+    private record Suggestion(String type, String text, UUID storeId, String city, Double lat, Double lng, long weight) {}
+
+    private static final class CityTerms {
+        private final String label;
+        private long weight;
+        private double latSum;
+        private double lngSum;
+        private int located;
+
+        private CityTerms(String label) {
+            this.label = label;
+        }
+
+        private void add(StoreTerms store) {
+            weight += store.weight() + 1;
+            if (store.lat() != null && store.lng() != null) {
+                latSum += store.lat();
+                lngSum += store.lng();
+                located++;
+            }
+        }
+
+        private Suggestion toSuggestion() {
+            Double lat = located == 0 ? null : latSum / located;
+            Double lng = located == 0 ? null : lngSum / located;
+            return new Suggestion(CITY, label, null, label, lat, lng, weight);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Suggestion[] suggestions;
+        private final String[] labels;
+        private final double[] baseScores;
+        private final String[] keys;
+        private final int[] keyEntries;
+        private final Map<String, int[]> precomputed = new HashMap<>();
+
+        private Snapshot(List<Suggestion> entries) {
+            this.suggestions = entries.toArray(Suggestion[]::new);
+            this.labels = new String[suggestions.length];
+            this.baseScores = new double[suggestions.length];
+            List<String> keyList = new ArrayList<>();
+            List<Integer> entryList = new ArrayList<>();
+            for (int i = 0; i < suggestions.length; i++) {
+                labels[i] = normalize(suggestions[i].text());
+                baseScores[i] = 1.0 + Math.log1p(suggestions[i].weight());
+                int starts = 0;
+                for (int pos = 0; pos < labels[i].length() && starts < MAX_WORD_STARTS; pos++) {
+                    if (pos == 0 || labels[i].charAt(pos - 1) == ' ') {
+                        keyList.add(labels[i].substring(pos));
+                        entryList.add(i);
+                        starts++;
+                    }
+                }
+            }
+            Integer[] order = new Integer[keyList.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing((Integer i) -> keyList.get(i)).thenComparing(i -> entryList.get(i)));
+            this.keys = new String[order.length];
+            this.keyEntries = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = keyList.get(order[i]);
+                keyEntries[i] = entryList.get(order[i]);
+            }
+            precompute();
+        }
+
+        private void precompute() {
+            Set<String> prefixes = new HashSet<>();
+            for (String key : keys) {
+                for (int length = 1; length <= Math.min(PRECOMPUTED_PREFIX_LENGTH, key.length()); length++) {
+                    prefixes.add(key.substring(0, length));
+                }
+            }
+            for (String prefix : prefixes) {
+                int[] candidates = candidates(prefix);
+                Integer[] boxed = Arrays.stream(candidates).boxed().toArray(Integer[]::new);
+                Arrays.sort(boxed, Comparator.comparingDouble((Integer entry) -> -baseScores[entry]));
+                int keep = Math.min(PRECOMPUTED_CANDIDATES, boxed.length);
+                int[] top = new int[keep];
+                for (int i = 0; i < keep; i++) {
+                    top[i] = boxed[i];
+                }
+                precomputed.put(prefix, top);
+            }
+        }
+
+        private List<StoreSuggestion> lookup(String key, int limit, Double lat, Double lng) {
+            int[] candidates = key.length() <= PRECOMPUTED_PREFIX_LENGTH
+                    ? precomputed.getOrDefault(key, new int[0])
+                    : candidates(key);
+            boolean geo = lat != null && lng != null;
+            double[] scores = new double[candidates.length];
+            Integer[] order = new Integer[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                int entry = candidates[i];
+                double score = baseScores[entry];
+                if (labels[entry].startsWith(key)) {
+                    score *= LEADING_MATCH_BOOST;
+                }
+                Suggestion suggestion = suggestions[entry];
+                if (geo && suggestion.lat() != null && suggestion.lng() != null) {
+                    score *= 1.0 + 1.0 / (1.0 + distanceKm(lat, lng, suggestion.lat(), suggestion.lng()) / GEO_SCALE_KM);
+                }
+                scores[i] = score;
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -scores[i])
+                    .thenComparing(i -> labels[candidates[i]]));
+            List<StoreSuggestion> results = new ArrayList<>(Math.min(limit, order.length));
+            for (int i = 0; i < order.length && results.size() < limit; i++) {
+                Suggestion suggestion = suggestions[candidates[order[i]]];
+                results.add(new StoreSuggestion(suggestion.type(), suggestion.text(), suggestion.storeId(), suggestion.city(),
+                        suggestion.lat(), suggestion.lng()));
+            }
+            return results;
+        }
+
+        private int[] candidates(String prefix) {
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            Set<Integer> seen = new HashSet<>();
+            int[] entries = new int[to - from];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                if (seen.add(keyEntries[i])) {
+                    entries[size++] = keyEntries[i];
+                }
+            }
+            return Arrays.copyOf(entries, size);
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
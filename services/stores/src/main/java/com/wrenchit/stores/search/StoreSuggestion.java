@@ -0,0 +1,10 @@
+package com.wrenchit.stores.search;
+
+import java.util.UUID;
+
+public record StoreSuggestion(String type,
+                              String text,
+                              UUID storeId,
+                              String city,
+                              Double lat,
+                              Double lng) {}
@@ -0,0 +1,114 @@
+package com.wrenchit.stores.search;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class WeeklyOpenHours {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private static final Pattern TIME = Pattern.compile("^(\\d{1,2})(?:[:.](\\d{2}))?\\s*([ap])?\\.?\\s*(?:m\\.?)?$");
+
+    private WeeklyOpenHours() {
+    }
+
+    public static Optional<String> compile(Map<String, ?> hours) {
+        if (hours == null || hours.isEmpty()) {
+            return Optional.empty();
+        }
+        BitSet open = new BitSet(MINUTES_PER_WEEK);
+        boolean parsedAny = false;
+        for (Map.Entry<String, ?> entry : hours.entrySet()) {
+            DayOfWeek day = parseDay(entry.getKey());
+            if (day == null || !(entry.getValue() instanceof Map<?, ?> window)) {
+                continue;
+            }
+            String openText = Objects.toString(window.get("open"), "").trim();
+            String closeText = Objects.toString(window.get("close"), "").trim();
+            if (openText.isEmpty() || openText.equalsIgnoreCase("closed")) {
+                parsedAny = true;
+                continue;
+            }
+            Integer from = parseMinute(openText);
+            Integer to = parseMinute(closeText);
+            if (from == null || to == null) {
+                continue;
+            }
+            parsedAny = true;
+            int dayStart = (day.getValue() - 1) * MINUTES_PER_DAY;
+            int length = to > from ? to - from : MINUTES_PER_DAY - from + to;
+            for (int minute = 0; minute < length; minute++) {
+                open.set((dayStart + from + minute) % MINUTES_PER_WEEK);
+            }
+        }
+        if (!parsedAny) {
+            return Optional.empty();
+        }
+        StringBuilder bits = new StringBuilder(MINUTES_PER_WEEK);
+        for (int minute = 0; minute < MINUTES_PER_WEEK; minute++) {
+            bits.append(open.get(minute) ? '1' : '0');
+        }
+        return Optional.of(bits.toString());
+    }
+
+    public static int minuteOfWeek(Instant at, ZoneId zone) {
+        ZonedDateTime local = at.atZone(zone);
+        return (local.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + local.getHour() * 60 + local.getMinute();
+    }
+
+    public static boolean isOpen(String bits, Instant at, ZoneId zone) {
+        return bits != null && bits.length() == MINUTES_PER_WEEK && bits.charAt(minuteOfWeek(at, zone)) == '1';
+    }
+
+    private static DayOfWeek parseDay(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().equals(normalized) || (normalized.length() >= 3 && day.name().startsWith(normalized))) {
+                return day;
+            }
+        }
+        return null;
+    }
+
+    private static Integer parseMinute(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("midnight")) {
+            return 0;
+        }
+        if (normalized.equals("noon")) {
+            return 12 * 60;
+        }
+        Matcher matcher = TIME.matcher(normalized);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int hour = Integer.parseInt(matcher.group(1));
+        int minute = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+        String meridiem = matcher.group(3);
+        if (minute > 59) {
+            return null;
+        }
+        if (meridiem != null) {
+            if (hour < 1 || hour > 12) {
+                return null;
+            }
+            hour = hour % 12 + (meridiem.equals("p") ? 12 : 0);
+        } else if (hour > 24 || (hour == 24 && minute > 0)) {
+            return null;
+        }
+        return (hour * 60 + minute) % MINUTES_PER_DAY;
+    }
+}
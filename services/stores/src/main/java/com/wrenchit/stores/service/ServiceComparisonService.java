@@ -0,0 +1,189 @@
+package com.wrenchit.stores.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.wrenchit.stores.dto.ServiceCompareSort;
+import com.wrenchit.stores.dto.ServiceQuote;
+import com.wrenchit.stores.dto.ServiceQuotePage;
+import com.wrenchit.stores.search.ServiceAliases;
+
+@Service
+public class ServiceComparisonService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final int UNPRICED = Integer.MAX_VALUE;
+    private static final String CURSOR_VERSION = "v1";
+
+    private static final String SERVICE_LOOKUP = """
+            select id
+            from (
+              select id, 0 as priority from services where lower(name) = :term
+              union all
+              select service_id, 1 from service_aliases where alias = :term
+            ) matches
+            order by priority
+            limit 1
+            """;
+
+    private static final String ORIGIN_EXPRESSION = "ll_to_earth(:lat, :lng)";
+    private static final String POINT_EXPRESSION = "ll_to_earth(s.lat, s.lng)";
+    private static final String DISTANCE_EXPRESSION = "earth_distance(" + ORIGIN_EXPRESSION + ", " + POINT_EXPRESSION + ")";
+    private static final String RATING_EXPRESSION = "coalesce(rs.rating_sum::double precision / nullif(rs.review_count, 0), s.rating, 0)";
+    private static final String PRICE_EXPRESSION = "coalesce(ss.base_price_cents, " + UNPRICED + ")";
+    private static final String VALUE_EXPRESSION = "case when ss.base_price_cents > 0"
+            + " then s.rank_score * 10000.0 / ss.base_price_cents else 0 end";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ServiceComparisonService(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public ServiceQuotePage compare(String service,
+                                    Double lat,
+                                    Double lng,
+                                    Double radiusKm,
+                                    ServiceCompareSort sort,
+                                    int limit,
+                                    String cursor) {
+        String term = ServiceAliases.normalize(service);
+        if (term == null) {
+            throw new IllegalArgumentException("service is required");
+        }
+        ServiceCompareSort safeSort = sort == null ? ServiceCompareSort.PRICE : sort;
+        boolean hasPoint = lat != null && lng != null;
+        if ((lat == null) != (lng == null)) {
+            throw new IllegalArgumentException("lat and lng must be provided together.");
+        }
+        if (radiusKm != null && !hasPoint) {
+            throw new IllegalArgumentException("radiusKm requires lat and lng.");
+        }
+        if (safeSort == ServiceCompareSort.DISTANCE && !hasPoint) {
+            throw new IllegalArgumentException("Sorting by distance requires lat and lng.");
+        }
+        int safeLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor after = decode(cursor, safeSort);
+
+        List<UUID> serviceIds = jdbc.query(SERVICE_LOOKUP, new MapSqlParameterSource("term", term),
+                (rs, rowNum) -> rs.getObject("id", UUID.class));
+        if (serviceIds.isEmpty()) {
+            return new ServiceQuotePage(service.trim(), List.of(), safeLimit, false, null);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("serviceId", serviceIds.get(0))
+                .addValue("fetch", safeLimit + 1);
+        List<String> where = new ArrayList<>();
+        where.add("ss.service_id = :serviceId");
+        if (hasPoint) {
+            params.addValue("lat", lat).addValue("lng", lng);
+        }
+        if (radiusKm != null || safeSort == ServiceCompareSort.DISTANCE) {
+            where.add("s.lat is not null and s.lng is not null");
+        }
+        if (radiusKm != null) {
+            params.addValue("radiusMeters", radiusKm * 1000.0);
+            where.add("earth_box(" + ORIGIN_EXPRESSION + ", :radiusMeters) @> " + POINT_EXPRESSION);
+            where.add(DISTANCE_EXPRESSION + " <= :radiusMeters");
+        }
+        String key = keyExpression(safeSort);
+        boolean descending = safeSort == ServiceCompareSort.RATING || safeSort == ServiceCompareSort.VALUE;
+        if (after != null) {
+            where.add("(" + key + ", ss.store_id) " + (descending ? "<" : ">") + " (:cursorKey, :cursorId)");
+            params.addValue("cursorKey", safeSort == ServiceCompareSort.PRICE ? (Object) (int) Math.round(after.key()) : after.key())
+                    .addValue("cursorId", after.storeId());
+        }
+        String direction = descending ? " desc" : " asc";
+        String sql = "select s.id, s.name,"
+                + " coalesce(nullif(trim(concat_ws(', ', s.city, s.state)), ''), s.address, 'Location unavailable') as location,"
+                + " " + RATING_EXPRESSION + " as rating,"
+                + " coalesce(nullif(rs.review_count, 0), s.rating_count, 0) as review_count,"
+                + " ss.base_price_cents, ss.duration_minutes,"
+                + " s.verified_receipt_count > 0 as has_verified_mechanic,"
+                + " " + (hasPoint ? DISTANCE_EXPRESSION : "cast(null as double precision)") + " as distance_meters,"
+                + " " + key + " as sort_key"
+                + " from store_services ss"
+                + " join stores s on s.id = ss.store_id"
+                + " left join store_rating_stats rs on rs.store_id = s.id"
+                + " where " + String.join(" and ", where)
+                + " order by " + key + direction + ", ss.store_id" + direction
+                + " limit :fetch";
+
+        List<Row> rows = jdbc.query(sql, params, (rs, rowNum) -> toRow(rs));
+        boolean hasMore = rows.size() > safeLimit;
+        List<Row> page = hasMore ? rows.subList(0, safeLimit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Row last = page.get(page.size() - 1);
+            nextCursor = encode(safeSort, last.sortKey(), last.quote().getStoreId());
+        }
+        return new ServiceQuotePage(service.trim(), page.stream().map(Row::quote).toList(), safeLimit, hasMore, nextCursor);
+    }
+
+    private String keyExpression(ServiceCompareSort sort) {
+        return switch (sort) {
+            case PRICE -> PRICE_EXPRESSION;
+            case RATING -> RATING_EXPRESSION;
+            case DISTANCE -> DISTANCE_EXPRESSION;
+            case VALUE -> VALUE_EXPRESSION;
+        };
+    }
+
+    private Row toRow(ResultSet rs) throws SQLException {
+        Double distanceMeters = rs.getObject("distance_meters", Double.class);
+        ServiceQuote quote = new ServiceQuote(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getString("location"),
+                rs.getDouble("rating"),
+                rs.getLong("review_count"),
+                rs.getObject("base_price_cents", Integer.class),
+                rs.getObject("duration_minutes", Integer.class),
+                rs.getBoolean("has_verified_mechanic"),
+                distanceMeters == null ? null : distanceMeters / 1000.0);
+        return new Row(quote, rs.getDouble("sort_key"));
+    }
+
+    private String encode(ServiceCompareSort sort, double key, UUID storeId) {
+        String raw = CURSOR_VERSION + "|" + sort.name() + "|" + key + "|" + storeId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decode(String token, ServiceCompareSort sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        ServiceCompareSort cursorSort;
+        Cursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length < 4 || !CURSOR_VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            cursorSort = ServiceCompareSort.valueOf(parts[1]);
+            cursor = new Cursor(Double.parseDouble(parts[2]), UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor.", ex);
+        }
+        if (cursorSort != sort) {
+            throw new IllegalArgumentException("Cursor does not match this comparison.");
+        }
+        return cursor;
+    }
+
+    private record Row(ServiceQuote quote, double sortKey) {}
+
+    private record Cursor(double key, UUID storeId) {}
+}
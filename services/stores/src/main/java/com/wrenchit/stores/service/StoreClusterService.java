@@ -0,0 +1,156 @@
+package com.wrenchit.stores.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.wrenchit.stores.dto.StoreCluster;
+
+@Service
+public class StoreClusterService {
+
+    public static final int MIN_ZOOM = 0;
+    public static final int MAX_ZOOM = 22;
+
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+    private static final int CELLS_PER_TILE = 4;
+    private static final int MAX_TILES = 256;
+    private static final String TILE_SQL = """
+            select least(greatest(floor(((s.lng + 180.0) / 360.0 * :tiles - :tileX) * :cells), 0), :cells - 1)::int as cell_x,
+                   least(greatest(floor(((1 - ln(tan(radians(m.lat)) + 1 / cos(radians(m.lat))) / pi()) / 2 * :tiles - :tileY) * :cells), 0),
+                         :cells - 1)::int as cell_y,
+                   count(*) as store_count,
+                   avg(s.lat) as lat,
+                   avg(s.lng) as lng,
+                   min(length(ps.price_tier)) as min_price_tier,
+                   max(s.rating) as best_rating,
+                   min(s.id::text) as first_id
+            from stores s
+            cross join lateral (select least(greatest(s.lat, -:maxLat), :maxLat) as lat) m
+            left join store_price_stats ps on ps.store_id = s.id
+            where s.lat >= :south and s.lat < :north
+              and s.lng >= :west and s.lng < :east
+            group by 1, 2
+            order by 1, 2
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final Duration cacheTtl;
+    private final Map<String, Tile> tiles;
+
+    public StoreClusterService(NamedParameterJdbcTemplate jdbc,
+                               @Value("${wrenchit.search.clusters.cache-ttl:PT1M}") Duration cacheTtl,
+                               @Value("${wrenchit.search.clusters.cache-size:4096}") int cacheSize) {
+        this.jdbc = jdbc;
+        this.cacheTtl = cacheTtl;
+        this.tiles = boundedLru(cacheSize);
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public List<StoreCluster> clusters(double south, double west, double north, double east, int zoom) {
+        if (zoom < MIN_ZOOM || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between " + MIN_ZOOM + " and " + MAX_ZOOM + ".");
+        }
+        if (south > north) {
+            throw new IllegalArgumentException("Bounding box south must not be greater than north.");
+        }
+        int tileCount = 1 << zoom;
+        int minY = tileY(Math.min(north, MAX_MERCATOR_LAT), tileCount);
+        int maxY = tileY(Math.max(south, -MAX_MERCATOR_LAT), tileCount);
+        int minX = tileX(west, tileCount);
+        int maxX = tileX(east, tileCount);
+        int columns = west <= east ? maxX - minX + 1 : tileCount - minX + maxX + 1;
+        columns = Math.min(columns, tileCount);
+        if ((long) columns * (maxY - minY + 1) > MAX_TILES) {
+            throw new IllegalArgumentException("Bounding box covers too many map tiles for this zoom level.");
+        }
+        List<StoreCluster> clusters = new ArrayList<>();
+        for (int column = 0; column < columns; column++) {
+            int x = (minX + column) % tileCount;
+            for (int y = minY; y <= maxY; y++) {
+                clusters.addAll(tile(zoom, x, y));
+            }
+        }
+        return clusters;
+    }
+
+    private List<StoreCluster> tile(int zoom, int x, int y) {
+        String key = zoom + "/" + x + "/" + y;
+        Instant now = Instant.now();
+        Tile cached = tiles.get(key);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return cached.clusters();
+        }
+        List<StoreCluster> clusters = loadTile(zoom, x, y);
+        tiles.put(key, new Tile(clusters, now.plus(cacheTtl)));
+        return clusters;
+    }
+
+    private List<StoreCluster> loadTile(int zoom, int x, int y) {
+        int tileCount = 1 << zoom;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tiles", (double) tileCount)
+                .addValue("tileX", x)
+                .addValue("tileY", y)
+                .addValue("cells", CELLS_PER_TILE)
+                .addValue("maxLat", MAX_MERCATOR_LAT)
+                .addValue("west", x * 360.0 / tileCount - 180.0)
+                .addValue("east", x + 1 == tileCount ? 180.000001 : (x + 1) * 360.0 / tileCount - 180.0)
+                .addValue("north", y == 0 ? 90.0 : tileLat(y, tileCount))
+                .addValue("south", y + 1 == tileCount ? -90.0 : tileLat(y + 1, tileCount));
+        return List.copyOf(jdbc.query(TILE_SQL, params, (rs, rowNum) -> {
+            long count = rs.getLong("store_count");
+            Integer priceTier = rs.getObject("min_price_tier", Integer.class);
+            String firstId = rs.getString("first_id");
+            return new StoreCluster(
+                    rs.getDouble("lat"),
+                    rs.getDouble("lng"),
+                    count,
+                    priceTier == null ? null : "$".repeat(priceTier),
+                    rs.getObject("best_rating", Double.class),
+                    count == 1 && firstId != null ? UUID.fromString(firstId) : null);
+        }));
+    }
+
+    private static int tileX(double lng, int tileCount) {
+        int x = (int) Math.floor((lng + 180.0) / 360.0 * tileCount);
+        return Math.min(tileCount - 1, Math.max(0, x));
+    }
+
+    private static int tileY(double lat, int tileCount) {
+        double latRad = Math.toRadians(lat);
+        double mercator = (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2;
+        int y = (int) Math.floor(mercator * tileCount);
+        return Math.min(tileCount - 1, Math.max(0, y));
+    }
+
+    private static double tileLat(int y, int tileCount) {
+        double n = Math.PI - 2 * Math.PI * y / tileCount;
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    private static Map<String, Tile> boundedLru(int maxEntries) {
+        int bound = Math.max(1, maxEntries);
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tile> eldest) {
+                return size() > bound;
+            }
+        });
+    }
+
+    private record Tile(List<StoreCluster> clusters, Instant expiresAt) {}
+}
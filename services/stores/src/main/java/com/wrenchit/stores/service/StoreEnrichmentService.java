@@ -0,0 +1,227 @@
+package com.wrenchit.stores.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.google.PlacesClient;
+import com.wrenchit.stores.google.PlacesQuotaBudget;
+import com.wrenchit.stores.repository.StoreRepository;
+import com.wrenchit.stores.search.StoreChangePublisher;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Service
+public class StoreEnrichmentService {
+
+    public static final String ENRICHMENT_METRIC = "wrenchit.places.enrichment";
+    public static final String QUEUE_METRIC = "wrenchit.places.enrichment.queue";
+
+    private static final Logger log = LoggerFactory.getLogger(StoreEnrichmentService.class);
+
+    private final StoreRepository storeRepository;
+    private final PlacesClient placesClient;
+    private final PlacesQuotaBudget quotaBudget;
+    private final StoreChangePublisher storeChangePublisher;
+    private final GooglePlacesProperties googlePlacesProperties;
+    private final GooglePlacesProperties.Enrichment settings;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate writeTransaction;
+    private final BlockingQueue<String> queue;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Semaphore fetchPermits;
+    private final ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-enrichment");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StoreEnrichmentService(StoreRepository storeRepository,
+                                  PlacesClient placesClient,
+                                  PlacesQuotaBudget quotaBudget,
+                                  StoreChangePublisher storeChangePublisher,
+                                  GooglePlacesProperties googlePlacesProperties,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.storeRepository = storeRepository;
+        this.placesClient = placesClient;
+        this.quotaBudget = quotaBudget;
+        this.storeChangePublisher = storeChangePublisher;
+        this.googlePlacesProperties = googlePlacesProperties;
+        this.settings = googlePlacesProperties.getEnrichment();
+        this.meterRegistry = meterRegistry;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+        this.fetchPermits = new Semaphore(Math.max(1, settings.getConcurrency()));
+        Gauge.builder(QUEUE_METRIC, queue, BlockingQueue::size)
+                .description("Google Places ids waiting for background details enrichment")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        long intervalMillis = Math.max(settings.getDrainInterval().toMillis(), 100L);
+        drainer.scheduleWithFixedDelay(this::drainQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        drainer.shutdownNow();
+        fetchers.shutdownNow();
+    }
+
+    public void enqueue(Collection<String> placeIds) {
+        if (!isEnabled() || placeIds == null || placeIds.isEmpty()) {
+            return;
+        }
+        int dropped = 0;
+        for (String placeId : placeIds) {
+            if (placeId == null || placeId.isBlank() || !pending.add(placeId)) {
+                continue;
+            }
+            if (!queue.offer(placeId)) {
+                pending.remove(placeId);
+                dropped++;
+            }
+        }
+        record("dropped", dropped);
+    }
+
+    private void requeue(List<String> placeIds) {
+        int dropped = 0;
+        for (String placeId : placeIds) {
+            if (!queue.offer(placeId)) {
+                pending.remove(placeId);
+                dropped++;
+            }
+        }
+        record("dropped", dropped);
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    public synchronized int drain() {
+        int enriched = 0;
+        while (!queue.isEmpty() && placesClient.isAvailable()) {
+            List<String> batch = new ArrayList<>();
+            queue.drainTo(batch, Math.max(1, settings.getBatchSize()));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<String> deferred = List.of();
+            try {
+                OffsetDateTime syncedBefore = OffsetDateTime.now().minus(settings.getRefreshAfter());
+                List<String> due = storeRepository.findPlaceIdsNeedingDetails(batch, syncedBefore);
+                record("skipped", batch.size() - due.size());
+                int granted = quotaBudget.tryAcquire(due.size());
+                deferred = List.copyOf(due.subList(granted, due.size()));
+                enriched += enrich(due.subList(0, granted));
+            } finally {
+                batch.removeAll(deferred);
+                pending.removeAll(batch);
+                requeue(deferred);
+            }
+            if (!deferred.isEmpty()) {
+                break;
+            }
+        }
+        return enriched;
+    }
+
+    private int enrich(List<String> due) {
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<PlaceDetails>> calls = due.stream()
+                .map(placeId -> CompletableFuture.supplyAsync(() -> fetch(placeId), fetchers))
+                .toList();
+        List<PlaceDetails> fetched = new ArrayList<>(calls.size());
+        for (CompletableFuture<PlaceDetails> call : calls) {
+            PlaceDetails details = call.join();
+            if (details != null) {
+                fetched.add(details);
+            }
+        }
+        if (fetched.isEmpty()) {
+            return 0;
+        }
+        List<UUID> storeIds = writeTransaction.execute(status -> storeRepository.applyDetails(fetched));
+        if (storeIds == null || storeIds.isEmpty()) {
+            return 0;
+        }
+        storeChangePublisher.storesChanged(storeIds);
+        record("enriched", storeIds.size());
+        return storeIds.size();
+    }
+
+    private PlaceDetails fetch(String placeId) {
+        try {
+            fetchPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            PlaceDetails details = placesClient.details(placeId);
+            if (details != null && details.getPlaceId() == null) {
+                details.setPlaceId(placeId);
+            }
+            return details;
+        } catch (RuntimeException ex) {
+            record("failed", 1);
+            log.debug("Google Places details enrichment failed. placeId='{}'", placeId, ex);
+            return null;
+        } finally {
+            fetchPermits.release();
+        }
+    }
+
+    private boolean isEnabled() {
+        return settings.isEnabled() && googlePlacesProperties.isEnabled()
+                && googlePlacesProperties.getApiKey() != null && !googlePlacesProperties.getApiKey().isBlank();
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            log.warn("Store details enrichment failed", ex);
+        }
+    }
+
+    private void record(String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter(ENRICHMENT_METRIC, "outcome", outcome).increment(amount);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.wrenchit.stores.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.wrenchit.stores.search.StoreChangeListener;
+import com.wrenchit.stores.search.StoreChangePublisher;
+
+@Service
+public class StoreRankService implements StoreChangeListener {
+
+    public static final double DEFAULT_PRIOR_RATING = 4.0;
+    public static final double RECEIPT_WEIGHT = 0.15;
+    public static final double RECENCY_WEIGHT = 0.3;
+    public static final Duration RECENCY_SCALE = Duration.ofDays(180);
+
+    private static final Logger log = LoggerFactory.getLogger(StoreRankService.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private static final String PRIOR_SELECT = """
+            select sum(coalesce(s.rating * s.rating_count, 0) + coalesce(rs.rating_sum, 0))
+                   / nullif(sum(coalesce(s.rating_count, 0) + coalesce(rs.review_count, 0)), 0)
+            from stores s
+            left join store_rating_stats rs on rs.store_id = s.id
+            where s.rating_count > 0 or rs.review_count > 0
+            """;
+
+    private static final String RANK_UPDATE = """
+            with signals as (
+              select s.id,
+                     coalesce(s.rating * s.rating_count, 0) + coalesce(rs.rating_sum, 0) as rating_sum,
+                     coalesce(s.rating_count, 0) + coalesce(rs.review_count, 0) as rating_count,
+                     s.verified_receipt_count as verified_receipts,
+                     rs.last_review_at
+              from stores s
+              left join store_rating_stats rs on rs.store_id = s.id
+              where s.id in (:ids)
+            ),
+            scored as (
+              select id,
+                     round(cast((:priorRating * :priorWeight + rating_sum) / (:priorWeight + rating_count)
+                       + :receiptWeight * ln(1 + verified_receipts)
+                       + :recencyWeight * coalesce(exp(greatest(-extract(epoch from now() - last_review_at) / :recencySeconds, -50)), 0)
+                       as numeric), 4) as rank_score
+              from signals
+            )
+            update stores s
+            set rank_score = scored.rank_score
+            from scored
+            where s.id = scored.id
+              and s.rank_score is distinct from scored.rank_score
+            returning s.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final StoreChangePublisher storeChangePublisher;
+    private final boolean enabled;
+    private final double priorWeight;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-rank");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ThreadLocal<Boolean> publishing = new ThreadLocal<>();
+
+    private volatile Double priorRating;
+
+    public StoreRankService(NamedParameterJdbcTemplate jdbc,
+                            @Value("${wrenchit.search.rank.enabled:true}") boolean enabled,
+                            @Value("${wrenchit.search.rank.prior-weight:10}") double priorWeight,
+                            @Value("${wrenchit.search.rank.refresh-interval:PT6H}") Duration refreshInterval,
+                            @Lazy StoreChangePublisher storeChangePublisher) {
+        this.jdbc = jdbc;
+        this.storeChangePublisher = storeChangePublisher;
+        this.enabled = enabled;
+        this.priorWeight = priorWeight;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        submit(this::refreshAll);
+        long intervalMillis = Math.max(refreshInterval.toMillis(), 60_000L);
+        executor.scheduleWithFixedDelay(() -> runQuietly(this::refreshAll), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void storesChanged(Collection<UUID> storeIds) {
+        if (!enabled || storeIds == null || storeIds.isEmpty() || publishing.get() != null) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(new HashSet<>(storeIds));
+        submit(() -> refresh(ids));
+    }
+
+    public int refresh(List<UUID> storeIds) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return 0;
+        }
+        double prior = priorRating == null ? loadPriorRating() : priorRating;
+        int updated = 0;
+        for (int from = 0; from < storeIds.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = storeIds.subList(from, Math.min(from + BATCH_SIZE, storeIds.size()));
+            List<UUID> changed = jdbc.queryForList(RANK_UPDATE, new MapSqlParameterSource()
+                    .addValue("ids", chunk)
+                    .addValue("priorRating", prior)
+                    .addValue("priorWeight", priorWeight)
+                    .addValue("receiptWeight", RECEIPT_WEIGHT)
+                    .addValue("recencyWeight", RECENCY_WEIGHT)
+                    .addValue("recencySeconds", (double) RECENCY_SCALE.toSeconds()), UUID.class);
+            publish(changed);
+            updated += changed.size();
+        }
+        return updated;
+    }
+
+    public int refreshAll() {
+        loadPriorRating();
+        int updated = 0;
+        UUID after = MIN_ID;
+        while (true) {
+            List<UUID> batch = jdbc.query("select id from stores where id > :after order by id limit :limit",
+                    new MapSqlParameterSource().addValue("after", after).addValue("limit", BATCH_SIZE),
+                    (rs, rowNum) -> rs.getObject("id", UUID.class));
+            if (batch.isEmpty()) {
+                break;
+            }
+            updated += refresh(batch);
+            after = batch.get(batch.size() - 1);
+        }
+        log.info("Refreshed store rank scores; {} changed", updated);
+        return updated;
+    }
+
+    private void publish(List<UUID> changed) {
+        publishing.set(Boolean.TRUE);
+        try {
+            storeChangePublisher.storesChanged(changed);
+        } finally {
+            publishing.remove();
+        }
+    }
+
+    private double loadPriorRating() {
+        Double mean = jdbc.queryForObject(PRIOR_SELECT, new MapSqlParameterSource(), Double.class);
+        double prior = mean == null ? DEFAULT_PRIOR_RATING : mean;
+        priorRating = prior;
+        return prior;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> runQuietly(task));
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void runQuietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            log.warn("Store rank refresh failed", ex);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.wrenchit.stores.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchResult;
+import com.wrenchit.stores.google.PlacesClient;
+import com.wrenchit.stores.google.PlacesQuotaBudget;
+import com.wrenchit.stores.repository.StoreRepository;
+import com.wrenchit.stores.repository.StoreUpsertResult;
+import com.wrenchit.stores.search.RegionTiles;
+import com.wrenchit.stores.search.StoreChangePublisher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Service
+public class StoreRefreshService {
+
+    public static final String REFRESH_METRIC = "wrenchit.places.refresh";
+
+    private static final Logger log = LoggerFactory.getLogger(StoreRefreshService.class);
+
+    private static final String CLAIM_STALE_SQL = """
+            update stores
+            set refresh_claimed_at = now()
+            where id in (
+              select id
+              from stores
+              where google_place_id is not null
+                and (details_synced_at is null or details_synced_at < :staleBefore)
+                and (refresh_claimed_at is null or refresh_claimed_at < :retryBefore)
+              order by details_synced_at is not null,
+                       ln(2 + coalesce(rating_count, 0)) * coalesce(extract(epoch from now() - details_synced_at), 1) desc,
+                       id
+              limit :limit
+              for update skip locked
+            )
+            returning google_place_id
+            """;
+
+    private static final String SWEEP_INIT_SQL = """
+            insert into places_sweep_progress (region)
+            values (:region)
+            on conflict (region) do nothing
+            """;
+
+    private static final String CLAIM_TILE_SQL = """
+            with claimed as (
+              select region, next_tile
+              from places_sweep_progress
+              where region = :region
+                and (next_tile > 0 or pass_completed_at is null or pass_completed_at < :passBefore)
+              for update
+            )
+            update places_sweep_progress p
+            set next_tile = case when c.next_tile + 1 >= :tileCount then 0 else c.next_tile + 1 end,
+                pass_completed_at = case when c.next_tile + 1 >= :tileCount then now() else p.pass_completed_at end,
+                updated_at = now()
+            from claimed c
+            where p.region = c.region
+            returning least(c.next_tile, :tileCount - 1)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final StoreRepository storeRepository;
+    private final PlacesClient placesClient;
+    private final PlacesQuotaBudget quotaBudget;
+    private final StoreChangePublisher storeChangePublisher;
+    private final StoreEnrichmentService storeEnrichmentService;
+    private final GooglePlacesProperties googlePlacesProperties;
+    private final GooglePlacesProperties.Refresh settings;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate writeTransaction;
+    private final List<SweepRegion> regions;
+    private final AtomicInteger regionCursor = new AtomicInteger();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StoreRefreshService(NamedParameterJdbcTemplate jdbc,
+                               StoreRepository storeRepository,
+                               PlacesClient placesClient,
+                               PlacesQuotaBudget quotaBudget,
+                               StoreChangePublisher storeChangePublisher,
+                               StoreEnrichmentService storeEnrichmentService,
+                               GooglePlacesProperties googlePlacesProperties,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.storeRepository = storeRepository;
+        this.placesClient = placesClient;
+        this.quotaBudget = quotaBudget;
+        this.storeChangePublisher = storeChangePublisher;
+        this.storeEnrichmentService = storeEnrichmentService;
+        this.googlePlacesProperties = googlePlacesProperties;
+        this.settings = googlePlacesProperties.getRefresh();
+        this.meterRegistry = meterRegistry;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.regions = toSweepRegions(settings.getRegions());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        long intervalMillis = Math.max(settings.getInterval().toMillis(), 1_000L);
+        executor.scheduleWithFixedDelay(this::runCycle, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public int refreshStale() {
+        if (!placesClient.isAvailable()) {
+            return 0;
+        }
+        int granted = quotaBudget.tryAcquire(Math.max(1, settings.getBatchSize()));
+        if (granted == 0) {
+            return 0;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        List<String> placeIds = jdbc.query(CLAIM_STALE_SQL, new MapSqlParameterSource()
+                        .addValue("staleBefore", now.minus(settings.getStaleAfter()))
+                        .addValue("retryBefore", now.minus(settings.getRetryAfter()))
+                        .addValue("limit", granted),
+                (rs, rowNum) -> rs.getString("google_place_id"));
+        quotaBudget.refund(granted - placeIds.size());
+
+        List<PlaceDetails> fetched = new ArrayList<>(placeIds.size());
+        for (String placeId : placeIds) {
+            try {
+                PlaceDetails details = placesClient.details(placeId);
+                if (details != null) {
+                    if (details.getPlaceId() == null) {
+                        details.setPlaceId(placeId);
+                    }
+                    fetched.add(details);
+                }
+            } catch (RuntimeException ex) {
+                record("stale", "failed", 1);
+                log.debug("Stale store refresh failed. placeId='{}'", placeId, ex);
+            }
+        }
+        if (fetched.isEmpty()) {
+            return 0;
+        }
+        List<UUID> storeIds = writeTransaction.execute(status -> storeRepository.applyDetails(fetched));
+        if (storeIds == null || storeIds.isEmpty()) {
+            return 0;
+        }
+        storeChangePublisher.storesChanged(storeIds);
+        record("stale", "refreshed", storeIds.size());
+        return storeIds.size();
+    }
+
+    public int sweepRegions() {
+        if (regions.isEmpty() || !placesClient.isAvailable()) {
+            return 0;
+        }
+        int remaining = Math.max(0, settings.getSweepTilesPerCycle());
+        int start = regionCursor.getAndIncrement();
+        int swept = 0;
+        for (int i = 0; i < regions.size() && remaining > 0; i++) {
+            SweepRegion region = regions.get(Math.floorMod(start + i, regions.size()));
+            while (remaining > 0) {
+                TileOutcome outcome = sweepNextTile(region);
+                if (outcome == TileOutcome.NO_QUOTA) {
+                    return swept;
+                }
+                if (outcome == TileOutcome.IDLE) {
+                    break;
+                }
+                remaining--;
+                swept++;
+            }
+        }
+        return swept;
+    }
+
+    private TileOutcome sweepNextTile(SweepRegion region) {
+        if (quotaBudget.tryAcquire(1) == 0) {
+            return TileOutcome.NO_QUOTA;
+        }
+        Integer index = claimTile(region);
+        if (index == null) {
+            quotaBudget.refund(1);
+            return TileOutcome.IDLE;
+        }
+        RegionTiles.Tile tile = region.tiles().tile(index);
+        List<PlaceSearchResult> places;
+        try {
+            places = placesClient.searchArea(region.query(), tile.lat(), tile.lng(), tile.radiusMeters()).getResults();
+        } catch (RuntimeException ex) {
+            record("sweep", "failed", 1);
+            log.warn("Region sweep failed. region='{}', tile={}", region.name(), index, ex);
+            return TileOutcome.SWEPT;
+        }
+        if (!places.isEmpty()) {
+            StoreUpsertResult upserted = writeTransaction.execute(status -> storeRepository.upsertSearchResults(places));
+            if (upserted != null) {
+                storeChangePublisher.storesChanged(upserted.changedIds());
+                record("sweep", "discovered", upserted.storeIds().size());
+            }
+            storeEnrichmentService.enqueue(places.stream().map(PlaceSearchResult::getPlaceId).toList());
+        }
+        return TileOutcome.SWEPT;
+    }
+
+    private Integer claimTile(SweepRegion region) {
+        jdbc.update(SWEEP_INIT_SQL, new MapSqlParameterSource("region", region.name()));
+        List<Integer> claimed = jdbc.query(CLAIM_TILE_SQL, new MapSqlParameterSource()
+                        .addValue("region", region.name())
+                        .addValue("tileCount", region.tiles().size())
+                        .addValue("passBefore", OffsetDateTime.now().minus(settings.getSweepInterval())),
+                (rs, rowNum) -> rs.getInt(1));
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    private void runCycle() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            refreshStale();
+            sweepRegions();
+        } catch (RuntimeException ex) {
+            log.warn("Store refresh cycle failed", ex);
+        }
+    }
+
+    private boolean isEnabled() {
+        return settings.isEnabled() && googlePlacesProperties.isEnabled()
+                && googlePlacesProperties.getApiKey() != null && !googlePlacesProperties.getApiKey().isBlank();
+    }
+
+    private List<SweepRegion> toSweepRegions(List<GooglePlacesProperties.Region> configured) {
+        List<SweepRegion> result = new ArrayList<>();
+        for (GooglePlacesProperties.Region region : configured) {
+            if (region.getName() == null || region.getName().isBlank()) {
+                throw new IllegalStateException("Every wrenchit.google.refresh.regions entry needs a name.");
+            }
+            try {
+                RegionTiles tiles = new RegionTiles(region.getSouth(), region.getWest(), region.getNorth(), region.getEast(),
+                        region.getTileKm());
+                String query = region.getQuery() == null || region.getQuery().isBlank() ? "auto repair" : region.getQuery().trim();
+                result.add(new SweepRegion(region.getName().trim(), query, tiles));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalStateException("Invalid sweep region '" + region.getName() + "': " + ex.getMessage(), ex);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private void record(String kind, String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter(REFRESH_METRIC, "kind", kind, "outcome", outcome).increment(amount);
+        }
+    }
+
+    private enum TileOutcome {
+        SWEPT,
+        IDLE,
+        NO_QUOTA
+    }
+
+    private record SweepRegion(String name, String query, RegionTiles tiles) {}
+}
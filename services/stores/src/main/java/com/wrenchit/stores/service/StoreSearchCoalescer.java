@@ -0,0 +1,174 @@
+package com.wrenchit.stores.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.wrenchit.stores.dto.IncludeTotal;
+import com.wrenchit.stores.dto.SortDirection;
+import com.wrenchit.stores.dto.StoreFilters;
+import com.wrenchit.stores.dto.StoreSearchCriteria;
+import com.wrenchit.stores.dto.StoreSearchResult;
+import com.wrenchit.stores.dto.StoreSort;
+import com.wrenchit.stores.search.StoreChangeListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class StoreSearchCoalescer implements StoreChangeListener {
+
+    public static final String METRIC_NAME = "wrenchit.stores.search.coalesced";
+
+    private static final int MAX_CACHED_RESULTS = 1_000;
+
+    private final StoreService storeService;
+    private final MeterRegistry meterRegistry;
+    private final long resultTtlNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Key, CompletableFuture<StoreSearchResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, CachedResult> results;
+
+    public StoreSearchCoalescer(@Lazy StoreService storeService,
+                                MeterRegistry meterRegistry,
+                                @Value("${wrenchit.stores.search.result-ttl:PT2S}") Duration resultTtl) {
+        this.storeService = storeService;
+        this.meterRegistry = meterRegistry;
+        this.resultTtlNanos = resultTtl.toNanos();
+        this.results = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+                return size() > MAX_CACHED_RESULTS;
+            }
+        });
+    }
+
+    public StoreSearchResult search(StoreSearchCriteria criteria) {
+        Key key = Key.of(criteria, generation.get());
+        if (resultTtlNanos > 0) {
+            CachedResult cached = results.get(key);
+            if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+                record("cached");
+                return cached.result();
+            }
+        }
+        CompletableFuture<StoreSearchResult> mine = new CompletableFuture<>();
+        CompletableFuture<StoreSearchResult> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            record("joined");
+            return await(existing);
+        }
+        record("executed");
+        try {
+            StoreSearchResult result = storeService.search(criteria);
+            if (resultTtlNanos > 0 && key.generation() == generation.get()) {
+                results.put(key, new CachedResult(result, System.nanoTime() + resultTtlNanos));
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Override
+    public void storesChanged(Collection<UUID> storeIds) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        results.clear();
+    }
+
+    private StoreSearchResult await(CompletableFuture<StoreSearchResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter(METRIC_NAME, "result", result).increment();
+    }
+
+    private record CachedResult(StoreSearchResult result, long expiresAtNanos) {}
+
+    private record Key(long generation,
+                       String query,
+                       int limit,
+                       int offset,
+                       StoreSort sort,
+                       SortDirection direction,
+                       Double lat,
+                       Double lng,
+                       Double radiusKm,
+                       Double minRating,
+                       String servicesContains,
+                       String city,
+                       String state,
+                       String priceRange,
+                       Boolean hasWebsite,
+                       Boolean hasPhone,
+                       Boolean openNow,
+                       Instant openAt,
+                       Set<UUID> serviceIds,
+                       String serviceCategory,
+                       String cursor,
+                       IncludeTotal includeTotal) {
+
+        static Key of(StoreSearchCriteria criteria, long generation) {
+            StoreFilters filters = criteria.getFilters();
+            return new Key(
+                    generation,
+                    normalize(criteria.getQuery()),
+                    criteria.getLimit(),
+                    criteria.getOffset(),
+                    criteria.getSort(),
+                    criteria.getDirection(),
+                    criteria.getLat(),
+                    criteria.getLng(),
+                    criteria.getRadiusKm(),
+                    filters == null ? null : filters.getMinRating(),
+                    filters == null ? null : normalize(filters.getServicesContains()),
+                    filters == null ? null : normalize(filters.getCity()),
+                    filters == null ? null : normalize(filters.getState()),
+                    filters == null ? null : normalize(filters.getPriceRange()),
+                    filters == null ? null : filters.getHasWebsite(),
+                    filters == null ? null : filters.getHasPhone(),
+                    filters == null ? null : filters.getOpenNow(),
+                    filters == null ? null : filters.getOpenAt(),
+                    filters == null || filters.getServiceIds() == null ? null : Set.copyOf(filters.getServiceIds()),
+                    filters == null ? null : normalize(filters.getServiceCategory()),
+                    criteria.getCursor(),
+                    criteria.getIncludeTotal());
+        }
+
+        private static String normalize(String value) {
+            if (value == null) {
+                return null;
+            }
+            String normalized = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            return normalized.isEmpty() ? null : normalized;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.wrenchit.stores.service;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.stereotype.Service;
+
+import com.wrenchit.stores.dto.StoreSearchCriteria;
+import com.wrenchit.stores.dto.StoreSearchResult;
+
+@Service
+public class StoreSearchStreamer {
+
+    private final StoreService storeService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public StoreSearchStreamer(StoreService storeService) {
+        this.storeService = storeService;
+    }
+
+    public StreamedSearch start(StoreSearchCriteria criteria) {
+        CompletableFuture<Optional<StoreSearchResult>> remote = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                remote.complete(storeService.searchRemote(criteria));
+            } catch (RuntimeException ex) {
+                remote.completeExceptionally(ex);
+            }
+        });
+        StoreSearchResult local;
+        try {
+            local = storeService.searchLocal(criteria);
+        } catch (RuntimeException ex) {
+            task.cancel(true);
+            throw ex;
+        }
+        CompletableFuture<Optional<StoreSearchResult>> merged =
+                remote.thenApply(result -> result.map(found -> storeService.mergeResults(found, local)));
+        merged.whenComplete((result, failure) -> {
+            if (failure instanceof CancellationException) {
+                task.cancel(true);
+            }
+        });
+        return new StreamedSearch(local, merged);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record StreamedSearch(StoreSearchResult local, CompletableFuture<Optional<StoreSearchResult>> merged) {}
+}
@@ -1,49 +1,101 @@
 package com.wrenchit.stores.service;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.wrenchit.stores.config.ConnectionHoldMetrics;
 import com.wrenchit.stores.config.GooglePlacesProperties;
+import com.wrenchit.stores.dto.IncludeTotal;
 import com.wrenchit.stores.dto.PlaceDetails;
+import com.wrenchit.stores.dto.PlaceSearchPage;
 import com.wrenchit.stores.dto.PlaceSearchResult;
 import com.wrenchit.stores.dto.SortDirection;
 import com.wrenchit.stores.dto.StoreFilters;
 import com.wrenchit.stores.dto.StoreSearchCriteria;
+import com.wrenchit.stores.dto.StoreSearchCursor;
 import com.wrenchit.stores.dto.StoreSearchResult;
 import com.wrenchit.stores.dto.StoreSort;
 import com.wrenchit.stores.entity.Store;
 import com.wrenchit.stores.google.PlacesClient;
 import com.wrenchit.stores.repository.StoreRepository;
+import com.wrenchit.stores.repository.StoreSearchQuery;
+import com.wrenchit.stores.repository.StoreSearchRow;
+import com.wrenchit.stores.repository.StoreUpsertResult;
+import com.wrenchit.stores.search.ServiceAliases;
+import com.wrenchit.stores.search.StoreChangePublisher;
+import com.wrenchit.stores.search.StoreFacetFilter;
+import com.wrenchit.stores.search.StoreFacetIndex;
+import com.wrenchit.stores.search.StoreSearchEngine;
+import com.wrenchit.stores.search.StoreSearchHits;
+import com.wrenchit.stores.search.StoreSpatialIndex;
+import com.wrenchit.stores.search.SpatialGrid;
+import com.wrenchit.stores.search.SpatialGrid.SpatialMatch;
 
 @Service
 public class StoreService {
 
-    private static final double DEFAULT_SIMILARITY = 0.25;
-    private static final int BUDGET_PRICE_MAX_CENTS = 5_000;
-    private static final int MODERATE_PRICE_MAX_CENTS = 15_000;
+    private static final int ESTIMATE_COUNT_CAP = 1_000;
+    private static final int MAX_SPATIAL_CANDIDATES = 5_000;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final String SEARCH_OPERATION = "search";
+    private static final String SYNC_DETAILS_OPERATION = "sync-details";
+    private static final String REMOTE_PHASE = "remote";
+    private static final String WRITE_PHASE = "write";
+    private static final String READ_PHASE = "read";
     private static final Logger log = LoggerFactory.getLogger(StoreService.class);
 
     private final StoreRepository storeRepository;
     private final PlacesClient placesClient;
     private final GooglePlacesProperties googlePlacesProperties;
+    private final ConnectionHoldMetrics connectionHoldMetrics;
+    private final StoreSearchEngine storeSearchEngine;
+    private final StoreFacetIndex storeFacetIndex;
+    private final StoreChangePublisher storeChangePublisher;
+    private final StoreSpatialIndex storeSpatialIndex;
+    private final StoreEnrichmentService storeEnrichmentService;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
 
     public StoreService(StoreRepository storeRepository,
                         PlacesClient placesClient,
-                        GooglePlacesProperties googlePlacesProperties) {
+                        GooglePlacesProperties googlePlacesProperties,
+                        PlatformTransactionManager transactionManager,
+                        ConnectionHoldMetrics connectionHoldMetrics,
+                        StoreSearchEngine storeSearchEngine,
+                        StoreFacetIndex storeFacetIndex,
+                        StoreChangePublisher storeChangePublisher,
+                        StoreSpatialIndex storeSpatialIndex,
+                        StoreEnrichmentService storeEnrichmentService) {
         this.storeRepository = storeRepository;
         this.placesClient = placesClient;
         this.googlePlacesProperties = googlePlacesProperties;
+        this.connectionHoldMetrics = connectionHoldMetrics;
+        this.storeSearchEngine = storeSearchEngine;
+        this.storeFacetIndex = storeFacetIndex;
+        this.storeChangePublisher = storeChangePublisher;
+        this.storeSpatialIndex = storeSpatialIndex;
+        this.storeEnrichmentService = storeEnrichmentService;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
     }
 
     public Optional<Store> getById(UUID id) {
@@ -87,8 +139,38 @@ public class StoreService {
         return ordered;
     }
 
-    @Transactional
     public StoreSearchResult search(StoreSearchCriteria criteria) {
+        return search(criteria, SearchMode.AUTO);
+    }
+
+    public StoreSearchResult searchLocal(StoreSearchCriteria criteria) {
+        return search(criteria, SearchMode.LOCAL);
+    }
+
+    public Optional<StoreSearchResult> searchRemote(StoreSearchCriteria criteria) {
+        return Optional.ofNullable(search(criteria, SearchMode.REMOTE));
+    }
+
+    public StoreSearchResult mergeResults(StoreSearchResult remote, StoreSearchResult local) {
+        Map<UUID, Store> merged = new LinkedHashMap<>();
+        for (Store store : remote.getStores()) {
+            merged.putIfAbsent(store.getId(), store);
+        }
+        for (Store store : local.getStores()) {
+            merged.putIfAbsent(store.getId(), store);
+        }
+        int limit = remote.getLimit();
+        List<Store> stores = new ArrayList<>(merged.values());
+        boolean hasMore = remote.isHasMore() || stores.size() > limit;
+        stores = firstPage(stores, limit);
+        String nextCursor = remote.getNextCursor() != null
+                ? remote.getNextCursor()
+                : hasMore ? StoreSearchCursor.ofOffset(remote.getOffset() + stores.size()).encode() : null;
+        return new StoreSearchResult(stores, limit, remote.getOffset(), remote.getTotal(), remote.isTotalEstimated(), hasMore,
+                nextCursor, remote.getFacets());
+    }
+
+    private StoreSearchResult search(StoreSearchCriteria criteria, SearchMode mode) {
         String query = criteria.getQuery();
         int limit = Math.max(1, Math.min(criteria.getLimit(), 100));
         int offset = Math.max(criteria.getOffset(), 0);
@@ -96,8 +178,19 @@ public class StoreService {
         Double lng = criteria.getLng();
         Double radiusKm = criteria.getRadiusKm();
         StoreFilters filters = criteria.getFilters();
+        IncludeTotal includeTotal = criteria.getIncludeTotal() == null ? IncludeTotal.NONE : criteria.getIncludeTotal();
 
-        boolean hasRadius = lat != null && lng != null && radiusKm != null && radiusKm > 0;
+        StoreSearchCursor after = StoreSearchCursor.decode(criteria.getCursor());
+        if (after != null && !after.isKeyset()) {
+            offset = after.getOffset();
+            after = null;
+        }
+        if (after != null) {
+            offset = 0;
+        }
+
+        boolean hasPoint = lat != null && lng != null;
+        boolean hasRadius = hasPoint && radiusKm != null && radiusKm > 0;
 
         Double minRating = filters != null ? filters.getMinRating() : null;
         String servicesContains = filters != null ? normalize(filters.getServicesContains()) : null;
@@ -107,99 +200,197 @@ public class StoreService {
         Boolean hasWebsite = filters != null ? filters.getHasWebsite() : null;
         Boolean hasPhone = filters != null ? filters.getHasPhone() : null;
         boolean openNow = filters != null && Boolean.TRUE.equals(filters.getOpenNow());
-
-        List<Store> stores;
-        long total;
-
-        if (query == null || query.isBlank()) {
-            if (hasRadius) {
-                stores = storeRepository.searchWithinRadius(lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone, limit, offset);
-                total = storeRepository.countWithinRadius(lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone);
-            } else {
-                Sort sortSpec = toSort(criteria.getSort(), criteria.getDirection(), hasRadius);
-                if (priceRange == null) {
-                    Page<Store> page = storeRepository.searchAllFiltered(
-                            minRating,
-                            servicesContains,
-                            city,
-                            state,
-                            hasWebsite,
-                            hasPhone,
-                            OffsetLimitPageable.of(limit, offset, sortSpec)
-                    );
-                    stores = page.getContent();
-                    total = page.getTotalElements();
-                } else {
-                    List<Store> all = storeRepository.findAllFiltered(
-                            minRating,
-                            servicesContains,
-                            city,
-                            state,
-                            hasWebsite,
-                            hasPhone,
-                            sortSpec
-                    );
-                    Map<UUID, String> ranges = getPriceRangesByIds(extractIds(all));
-                    List<Store> filtered = filterByPriceRange(all, ranges, priceRange);
-                    total = filtered.size();
-                    stores = paginate(filtered, offset, limit);
-                }
-            }
-        } else if (!hasRadius && googlePlacesProperties.isEnabled() && hasGoogleApiKeyConfigured()) {
+        Instant requestedOpenAt = filters != null ? filters.getOpenAt() : null;
+        Instant openAt = requestedOpenAt != null ? requestedOpenAt : openNow ? Instant.now() : null;
+        List<UUID> serviceIds = filters != null ? filters.getServiceIds() : null;
+        String serviceCategory = filters != null ? ServiceAliases.normalize(filters.getServiceCategory()) : null;
+
+        String text = query == null || query.isBlank() ? null : query;
+        StoreSort sort = toBrowseSort(criteria.getSort(), hasPoint);
+        SortDirection direction = criteria.getDirection() == SortDirection.ASC ? SortDirection.ASC : SortDirection.DESC;
+        StoreSearchQuery localQuery = new StoreSearchQuery(text, lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange,
+                hasWebsite, hasPhone, sort, direction, after).withOpenAt(openAt).withServiceFilter(serviceIds, serviceCategory);
+        StoreFacetFilter facetFilter = new StoreFacetFilter(minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone,
+                lat, lng, radiusKm);
+
+        boolean sqlOnlyFilters = openAt != null || localQuery.hasServiceCatalogFilter();
+        if (mode != SearchMode.LOCAL && text != null && !hasRadius && after == null && requestedOpenAt == null
+                && !localQuery.hasServiceCatalogFilter() && googlePlacesProperties.isEnabled() && hasGoogleApiKeyConfigured()
+                && placesClient.isAvailable()) {
             try {
-                int requestedLimit = Math.min(Math.max(limit + offset, limit), 100);
-                List<PlaceSearchResult> places = placesClient.search(query, requestedLimit, openNow);
-                List<String> placeIds = new ArrayList<>();
-                for (PlaceSearchResult place : places) {
-                    placeIds.add(place.getPlaceId());
-                    upsertFromSearchResult(place);
-                }
-                if (placeIds.isEmpty()) {
+                int page = offset / PlacesClient.PAGE_SIZE;
+                int skip = offset % PlacesClient.PAGE_SIZE;
+                PlaceSearchPage placesPage = connectionHoldMetrics.measure(SEARCH_OPERATION, REMOTE_PHASE,
+                        () -> placesClient.searchPage(text, page, openNow));
+                List<PlaceSearchResult> pageResults = placesPage.getResults();
+                int end = Math.min(skip + limit, pageResults.size());
+                List<PlaceSearchResult> places = skip < end ? pageResults.subList(skip, end) : List.of();
+                List<Store> stores;
+                List<UUID> storeIds;
+                if (places.isEmpty()) {
                     stores = List.of();
+                    storeIds = List.of();
                 } else {
-                    List<Store> matched = storeRepository.findByGooglePlaceIdIn(placeIds);
-                    stores = sortByPlaceIdOrder(matched, placeIds);
-                    stores = filterLocalAttributes(stores, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone);
+                    StoreUpsertResult upserted = inTransaction(SEARCH_OPERATION, WRITE_PHASE, writeTransaction,
+                            status -> storeRepository.upsertSearchResults(places));
+                    storeIds = upserted.storeIds();
+                    storeChangePublisher.storesChanged(upserted.changedIds());
+                    storeEnrichmentService.enqueue(places.stream().map(PlaceSearchResult::getPlaceId).toList());
+                    Optional<List<UUID>> indexedMatches = storeFacetIndex.filter(storeIds, facetFilter);
+                    stores = inTransaction(SEARCH_OPERATION, READ_PHASE, readTransaction, status -> indexedMatches.isPresent()
+                            ? getByIdsOrdered(indexedMatches.get())
+                            : filterLocalAttributes(getByIdsOrdered(storeIds), minRating, servicesContains, city, state, priceRange,
+                                    hasWebsite, hasPhone));
+                    if (localQuery.ordersByDistance()) {
+                        stores = sortByDistance(stores, lat, lng);
+                    }
                 }
-                total = stores.size();
-                stores = paginate(stores, offset, limit);
+                boolean morePages = placesPage.hasNextPage() && page + 1 < PlacesClient.MAX_PAGES;
+                TotalCount total = knownTotal(includeTotal, (long) page * PlacesClient.PAGE_SIZE + pageResults.size(), morePages);
+                boolean hasMore = end < pageResults.size() || morePages;
+                String nextCursor = hasMore
+                        ? StoreSearchCursor.ofOffset(page * PlacesClient.PAGE_SIZE + Math.max(end, skip)).encode()
+                        : null;
+                return new StoreSearchResult(stores, limit, offset, total.value(), total.estimated(), hasMore, nextCursor,
+                        facets(facetFilter, storeIds));
             } catch (RuntimeException ex) {
-                log.warn("Google Places search failed; falling back to local search. query='{}'", query, ex);
-                stores = storeRepository.searchLocal(query, DEFAULT_SIMILARITY, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone, limit, offset);
-                total = storeRepository.countLocal(query, DEFAULT_SIMILARITY, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone);
+                log.warn("Google Places search failed; falling back to local search. query='{}'", text, ex);
             }
-        } else {
-            if (hasRadius) {
-                stores = storeRepository.searchLocalWithinRadius(query, DEFAULT_SIMILARITY, lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone, limit, offset);
-                total = storeRepository.countLocalWithinRadius(query, DEFAULT_SIMILARITY, lat, lng, radiusKm, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone);
-            } else {
-                stores = storeRepository.searchLocal(query, DEFAULT_SIMILARITY, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone, limit, offset);
-                total = storeRepository.countLocal(query, DEFAULT_SIMILARITY, minRating, servicesContains, city, state, priceRange, hasWebsite, hasPhone);
+        }
+        if (mode == SearchMode.REMOTE) {
+            return null;
+        }
+
+        requireCursorKind(after, toCursorKind(localQuery));
+        StoreSearchQuery sqlQuery = localQuery;
+        if (hasPoint && localQuery.ordersByDistance() && !localQuery.hasText() && !sqlOnlyFilters) {
+            Optional<StoreSearchResult> spatial = searchSpatialIndex(localQuery, facetFilter, after, limit, offset, includeTotal);
+            if (spatial.isPresent()) {
+                return spatial.get();
+            }
+        }
+        if (hasRadius) {
+            Optional<List<SpatialMatch>> nearby = storeSpatialIndex.withinRadius(lat, lng, radiusKm);
+            if (nearby.isPresent() && nearby.get().size() <= MAX_SPATIAL_CANDIDATES) {
+                sqlQuery = localQuery.withCandidateIds(spatialIds(nearby.get()));
+            }
+        }
+
+        if (after == null && !sqlOnlyFilters) {
+            Optional<StoreSearchHits> hits = storeSearchEngine.search(localQuery, limit + 1, offset, includeTotal);
+            if (hits.isPresent()) {
+                return fromIndexHits(hits.get(), limit, offset, facets(facetFilter, null));
             }
         }
 
-        return new StoreSearchResult(stores, limit, offset, total);
+        StoreSearchQuery pageQuery = sqlQuery;
+        int pageOffset = offset;
+        Map<String, Map<String, Long>> facets = facets(facetFilter, null);
+        return inTransaction(SEARCH_OPERATION, READ_PHASE, readTransaction, status -> {
+            List<StoreSearchRow> rows = storeRepository.searchStores(pageQuery, limit + 1, pageOffset);
+            TotalCount total = countTotal(includeTotal, maxRows -> storeRepository.countStores(pageQuery, maxRows));
+            boolean hasMore = rows.size() > limit;
+            rows = firstPage(rows, limit);
+            String nextCursor = hasMore ? nextLocalCursor(localQuery, rows.get(rows.size() - 1)) : null;
+            List<Store> stores = rows.stream().map(StoreSearchRow::store).toList();
+            return new StoreSearchResult(stores, limit, pageOffset, total.value(), total.estimated(), hasMore, nextCursor, facets);
+        });
     }
 
-    @Transactional
     public Store syncDetails(String placeId) {
-        PlaceDetails details = placesClient.details(placeId);
+        PlaceDetails details = connectionHoldMetrics.measure(SYNC_DETAILS_OPERATION, REMOTE_PHASE,
+                () -> placesClient.details(placeId));
         if (details == null) {
             return null;
         }
-        return upsertFromDetails(details);
+        Store store = inTransaction(SYNC_DETAILS_OPERATION, WRITE_PHASE, writeTransaction, status -> upsertFromDetails(details));
+        storeChangePublisher.storesChanged(List.of(store.getId()));
+        return store;
     }
 
-    private Store upsertFromSearchResult(PlaceSearchResult place) {
-        Store store = storeRepository.findByGooglePlaceId(place.getPlaceId()).orElseGet(Store::new);
-        store.setGooglePlaceId(place.getPlaceId());
-        store.setName(place.getName());
-        store.setAddress(place.getAddress());
-        store.setLat(place.getLat());
-        store.setLng(place.getLng());
-        store.setRating(place.getRating());
-        store.setRatingCount(place.getRatingCount());
-        return storeRepository.save(store);
+    private Optional<StoreSearchResult> searchSpatialIndex(StoreSearchQuery localQuery,
+                                                           StoreFacetFilter facetFilter,
+                                                           StoreSearchCursor after,
+                                                           int limit,
+                                                           int offset,
+                                                           IncludeTotal includeTotal) {
+        boolean filtered = facetFilter.hasAttributeFilters();
+        Optional<List<SpatialMatch>> found;
+        if (localQuery.hasRadius()) {
+            found = storeSpatialIndex.withinRadius(localQuery.getLat(), localQuery.getLng(), localQuery.getRadiusKm());
+        } else if (!filtered) {
+            SpatialMatch afterMatch = after == null ? null : new SpatialMatch(after.getId(), after.getPrimary());
+            found = storeSpatialIndex.nearest(localQuery.getLat(), localQuery.getLng(), offset + limit + 1, afterMatch);
+        } else {
+            return Optional.empty();
+        }
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        List<SpatialMatch> matches = found.get();
+        if (filtered) {
+            Optional<List<UUID>> retained = storeFacetIndex.filter(spatialIds(matches), facetFilter);
+            if (retained.isEmpty()) {
+                return Optional.empty();
+            }
+            Set<UUID> kept = new HashSet<>(retained.get());
+            matches = matches.stream().filter(match -> kept.contains(match.storeId())).toList();
+        }
+        Long total = null;
+        if (includeTotal != IncludeTotal.NONE) {
+            total = localQuery.hasRadius() ? (long) matches.size() : (long) storeSpatialIndex.size();
+        }
+        int start = after == null || !localQuery.hasRadius() ? Math.min(offset, matches.size()) : firstAfter(matches, after);
+        int end = Math.min(start + limit, matches.size());
+        List<UUID> pageIds = spatialIds(matches.subList(start, end));
+        boolean hasMore = end < matches.size();
+        SpatialMatch last = end > start ? matches.get(end - 1) : null;
+        List<Store> stores = inTransaction(SEARCH_OPERATION, READ_PHASE, readTransaction, status -> getByIdsOrdered(pageIds));
+        String nextCursor = hasMore && last != null ? StoreSearchCursor.ofDistance(last.distance(), last.storeId()).encode() : null;
+        return Optional.of(new StoreSearchResult(stores, limit, offset, total, false, hasMore, nextCursor, facets(facetFilter, null)));
+    }
+
+    private int firstAfter(List<SpatialMatch> matches, StoreSearchCursor after) {
+        int low = 0;
+        int high = matches.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            SpatialMatch match = matches.get(mid);
+            int cmp = Double.compare(match.distance(), after.getPrimary());
+            if (cmp == 0) {
+                cmp = SpatialGrid.compareIds(match.storeId(), after.getId());
+            }
+            if (cmp <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<UUID> spatialIds(List<SpatialMatch> matches) {
+        List<UUID> ids = new ArrayList<>(matches.size());
+        for (SpatialMatch match : matches) {
+            ids.add(match.storeId());
+        }
+        return ids;
+    }
+
+    private Map<String, Map<String, Long>> facets(StoreFacetFilter filter, List<UUID> candidateIds) {
+        return storeFacetIndex.facets(filter, candidateIds).orElse(null);
+    }
+
+    private StoreSearchResult fromIndexHits(StoreSearchHits hits, int limit, int offset, Map<String, Map<String, Long>> facets) {
+        boolean hasMore = hits.storeIds().size() > limit;
+        List<UUID> pageIds = hasMore ? hits.storeIds().subList(0, limit) : hits.storeIds();
+        List<Store> stores = inTransaction(SEARCH_OPERATION, READ_PHASE, readTransaction, status -> getByIdsOrdered(pageIds));
+        String nextCursor = hasMore ? StoreSearchCursor.ofOffset(offset + limit).encode() : null;
+        return new StoreSearchResult(stores, limit, offset, hits.total(), hits.totalEstimated(), hasMore, nextCursor, facets);
+    }
+
+    private <T> T inTransaction(String operation, String phase, TransactionTemplate transaction, TransactionCallback<T> work) {
+        return connectionHoldMetrics.measure(operation, phase, () -> transaction.execute(work));
     }
 
     private Store upsertFromDetails(PlaceDetails details) {
@@ -213,39 +404,123 @@ public class StoreService {
         store.setLng(details.getLng());
         store.setRating(details.getRating());
         store.setRatingCount(details.getRatingCount());
+        if (details.getCity() != null) {
+            store.setCity(details.getCity());
+        }
+        if (details.getState() != null) {
+            store.setState(details.getState());
+        }
+        if (details.getPostalCode() != null) {
+            store.setPostalCode(details.getPostalCode());
+        }
+        if (details.getCountry() != null) {
+            store.setCountry(details.getCountry());
+        }
         if (details.getServices() != null && !details.getServices().isEmpty()) {
             store.setServicesText(String.join(", ", details.getServices()));
         }
+        store.setDetailsSyncedAt(OffsetDateTime.now());
         return storeRepository.save(store);
     }
 
-    private List<Store> sortByPlaceIdOrder(List<Store> stores, List<String> placeIds) {
-        List<Store> ordered = new ArrayList<>();
-        for (String placeId : placeIds) {
-            for (Store store : stores) {
-                if (placeId.equals(store.getGooglePlaceId())) {
-                    ordered.add(store);
-                    break;
-                }
-            }
+    private List<Store> sortByDistance(List<Store> stores, double lat, double lng) {
+        List<Store> sorted = new ArrayList<>(stores);
+        sorted.sort(Comparator.comparingDouble((Store store) -> distanceKm(lat, lng, store)).thenComparing(Store::getId));
+        return sorted;
+    }
+
+    private double distanceKm(double lat, double lng, Store store) {
+        if (store.getLat() == null || store.getLng() == null) {
+            return Double.MAX_VALUE;
         }
-        return ordered;
+        double dLat = Math.toRadians(store.getLat() - lat);
+        double dLng = Math.toRadians(store.getLng() - lng);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(store.getLat())) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
     }
 
-    private Sort toSort(StoreSort sort, SortDirection direction, boolean hasRadius) {
-        Sort.Direction dir = direction == SortDirection.DESC ? Sort.Direction.DESC : Sort.Direction.ASC;
-        StoreSort safeSort = sort == null ? StoreSort.RATING : sort;
-        if (safeSort == StoreSort.DISTANCE && !hasRadius) {
-            safeSort = StoreSort.RATING;
+    private StoreSort toBrowseSort(StoreSort sort, boolean hasPoint) {
+        StoreSort safeSort = sort == null ? StoreSort.RELEVANCE : sort;
+        if (safeSort == StoreSort.DISTANCE && !hasPoint) {
+            return StoreSort.RELEVANCE;
         }
-        return switch (safeSort) {
-            case NAME -> Sort.by(dir, "name");
-            case REVIEW_COUNT -> Sort.by(dir, "ratingCount");
-            case DISTANCE -> Sort.by(dir, "id");
-            case RATING -> Sort.by(dir, "rating");
+        return safeSort;
+    }
+
+    private StoreSearchCursor.Kind toCursorKind(StoreSearchQuery localQuery) {
+        if (localQuery.ordersByDistance()) {
+            return StoreSearchCursor.Kind.DISTANCE;
+        }
+        if (localQuery.hasText()) {
+            return StoreSearchCursor.Kind.RANK;
+        }
+        return toCursorKind(localQuery.getSort());
+    }
+
+    private StoreSearchCursor.Kind toCursorKind(StoreSort sort) {
+        return switch (sort) {
+            case RELEVANCE -> StoreSearchCursor.Kind.RELEVANCE;
+            case NAME -> StoreSearchCursor.Kind.NAME;
+            case REVIEW_COUNT -> StoreSearchCursor.Kind.REVIEW_COUNT;
+            case DISTANCE -> StoreSearchCursor.Kind.DISTANCE;
+            case RATING -> StoreSearchCursor.Kind.RATING;
+        };
+    }
+
+    private StoreSearchCursor toBrowseCursor(Store last, StoreSort sort) {
+        return switch (sort) {
+            case RELEVANCE -> StoreSearchCursor.ofRelevance(
+                    last.getRankScore() == null ? 0 : last.getRankScore(), last.getId());
+            case NAME -> StoreSearchCursor.ofName(last.getName(), last.getId());
+            case REVIEW_COUNT -> StoreSearchCursor.ofReviewCount(
+                    last.getRatingCount() == null ? -1 : last.getRatingCount(), last.getId());
+            case RATING, DISTANCE -> StoreSearchCursor.ofRating(
+                    last.getRating() == null ? -1 : last.getRating(), last.getId());
         };
     }
 
+    private String nextLocalCursor(StoreSearchQuery localQuery, StoreSearchRow last) {
+        UUID id = last.store().getId();
+        if (localQuery.ordersByDistance()) {
+            return last.primaryKey() == null ? null : StoreSearchCursor.ofDistance(last.primaryKey(), id).encode();
+        }
+        if (localQuery.hasText()) {
+            double rank = last.primaryKey() == null ? 0.0 : last.primaryKey();
+            double similarity = last.secondaryKey() == null ? 0.0 : last.secondaryKey();
+            return StoreSearchCursor.ofRank(rank, similarity, id).encode();
+        }
+        return toBrowseCursor(last.store(), localQuery.getSort()).encode();
+    }
+
+    private TotalCount countTotal(IncludeTotal includeTotal, Function<Integer, Long> counter) {
+        return switch (includeTotal) {
+            case NONE -> new TotalCount(null, false);
+            case EXACT -> new TotalCount(counter.apply(null), false);
+            case ESTIMATE -> {
+                long counted = counter.apply(ESTIMATE_COUNT_CAP);
+                yield new TotalCount(counted, counted >= ESTIMATE_COUNT_CAP);
+            }
+        };
+    }
+
+    private TotalCount knownTotal(IncludeTotal includeTotal, long size, boolean estimated) {
+        return includeTotal == IncludeTotal.NONE ? new TotalCount(null, false) : new TotalCount(size, estimated);
+    }
+
+    private <T> List<T> firstPage(List<T> rows, int limit) {
+        if (rows.size() <= limit) {
+            return rows;
+        }
+        return new ArrayList<>(rows.subList(0, limit));
+    }
+
+    private void requireCursorKind(StoreSearchCursor cursor, StoreSearchCursor.Kind expected) {
+        if (cursor != null && cursor.getKind() != expected) {
+            throw new IllegalArgumentException("Cursor does not match this search.");
+        }
+    }
+
     private String normalize(String value) {
         if (value == null) {
             return null;
@@ -305,19 +580,6 @@ public class StoreService {
         return filtered;
     }
 
-    private List<Store> filterByPriceRange(List<Store> stores, Map<UUID, String> ranges, String priceRange) {
-        if (stores == null || stores.isEmpty() || priceRange == null) {
-            return stores == null ? List.of() : stores;
-        }
-        List<Store> filtered = new ArrayList<>();
-        for (Store store : stores) {
-            if (priceRange.equals(ranges.get(store.getId()))) {
-                filtered.add(store);
-            }
-        }
-        return filtered;
-    }
-
     private List<UUID> extractIds(List<Store> stores) {
         if (stores == null || stores.isEmpty()) {
             return List.of();
@@ -331,21 +593,20 @@ public class StoreService {
         return ids;
     }
 
-    private Map<UUID, String> getPriceRangesByIds(List<UUID> storeIds) {
+    public Map<UUID, String> getPriceRangesByIds(List<UUID> storeIds) {
         if (storeIds == null || storeIds.isEmpty()) {
             return Map.of();
         }
 
         Map<UUID, String> ranges = new HashMap<>();
-        List<Object[]> rows = storeRepository.findAverageServicePriceCentsByStoreIds(storeIds);
+        List<Object[]> rows = storeRepository.findPriceTiersByStoreIds(storeIds);
         for (Object[] row : rows) {
             if (row == null || row.length < 2 || row[0] == null || row[1] == null) {
                 continue;
             }
             UUID storeId = asUuid(row[0]);
-            Integer avgCents = asRoundedCents(row[1]);
-            if (storeId != null && avgCents != null) {
-                ranges.put(storeId, toPriceRange(avgCents));
+            if (storeId != null) {
+                ranges.put(storeId, row[1].toString());
             }
         }
         return ranges;
@@ -376,42 +637,11 @@ public class StoreService {
         return null;
     }
 
-    private Integer asRoundedCents(Object value) {
-        if (value instanceof Number number) {
-            return (int) Math.round(number.doubleValue());
-        }
-        if (value instanceof String text) {
-            try {
-                return (int) Math.round(Double.parseDouble(text));
-            } catch (NumberFormatException ignored) {
-                return null;
-            }
-        }
-        return null;
+    private enum SearchMode {
+        AUTO,
+        LOCAL,
+        REMOTE
     }
 
-    private String toPriceRange(int avgCents) {
-        if (avgCents < BUDGET_PRICE_MAX_CENTS) {
-            return "$";
-        }
-        if (avgCents < MODERATE_PRICE_MAX_CENTS) {
-            return "$$";
-        }
-        return "$$$";
-    }
-
-    private List<Store> paginate(List<Store> stores, int offset, int limit) {
-        if (stores == null || stores.isEmpty()) {
-            return List.of();
-        }
-
-        int safeOffset = Math.max(offset, 0);
-        int safeLimit = Math.max(limit, 1);
-        if (safeOffset >= stores.size()) {
-            return List.of();
-        }
-
-        int end = Math.min(safeOffset + safeLimit, stores.size());
-        return new ArrayList<>(stores.subList(safeOffset, end));
-    }
+    private record TotalCount(Long value, boolean estimated) {}
 }
@@ -5,6 +5,8 @@ export function searchStores(params = {}) {
   if (params.q != null && params.q !== '') search.set('q', params.q);
   if (typeof params.limit === 'number') search.set('limit', String(params.limit));
   if (typeof params.offset === 'number') search.set('offset', String(params.offset));
+  if (params.cursor) search.set('cursor', params.cursor);
+  if (params.includeTotal) search.set('includeTotal', params.includeTotal);
   if (params.sort) search.set('sort', params.sort);
   if (params.direction) search.set('direction', params.direction);
   if (typeof params.lat === 'number') search.set('lat', String(params.lat));
@@ -43,8 +45,11 @@ export function listCompareServices() {
   return apiFetch('/stores/services');
 }
 
-export function compareStoresByService(service) {
+export function compareStoresByService(service, options = {}) {
   const search = new URLSearchParams();
   search.set('service', service);
+  if (options.sort) search.set('sort', options.sort);
+  if (options.limit) search.set('limit', String(options.limit));
+  if (options.cursor) search.set('cursor', options.cursor);
   return apiFetch(`/stores/compare-by-service?${search.toString()}`);
 }
@@ -13,11 +13,26 @@ function formatPrice(price) {
   return `$${price.toFixed(2)}`;
 }
 
+function toComparisonRow(store) {
+  return {
+    id: store.id,
+    name: store.name,
+    location: store.location,
+    rating: typeof store.rating === 'number' ? store.rating : 0,
+    reviewCount: typeof store.reviewCount === 'number' ? store.reviewCount : 0,
+    price: typeof store.price === 'number' ? store.price : null,
+    distanceLabel: '—',
+    hasVerifiedMechanic: Boolean(store.hasVerifiedMechanic),
+  };
+}
+
 export default function PriceComparisonPage() {
   const [serviceOptions, setServiceOptions] = useState([]);
   const [selectedService, setSelectedService] = useState('');
   const [comparisonRows, setComparisonRows] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
 
   useEffect(() => {
@@ -52,6 +67,7 @@ export default function PriceComparisonPage() {
   useEffect(() => {
     if (!selectedService) {
       setComparisonRows([]);
+      setNextCursor(null);
       return;
     }
 
@@ -61,25 +77,16 @@ export default function PriceComparisonPage() {
       setLoading(true);
       setError('');
       try {
-        const response = await compareStoresByService(selectedService);
+        const response = await compareStoresByService(selectedService, { sort: 'price' });
         if (cancelled) return;
 
-        const rows = (response?.stores ?? []).map((store) => ({
-          id: store.id,
-          name: store.name,
-          location: store.location,
-          rating: typeof store.rating === 'number' ? store.rating : 0,
-          reviewCount: typeof store.reviewCount === 'number' ? store.reviewCount : 0,
-          price: typeof store.price === 'number' ? store.price : null,
-          distanceLabel: '—',
-          hasVerifiedMechanic: Boolean(store.hasVerifiedMechanic),
-        }));
-
-        setComparisonRows(rows);
+        setComparisonRows((response?.stores ?? []).map(toComparisonRow));
+        setNextCursor(response?.nextCursor ?? null);
       } catch (err) {
         if (cancelled) return;
         setError(err instanceof Error ? err.message : 'Failed to load comparison.');
         setComparisonRows([]);
+        setNextCursor(null);
       } finally {
         if (!cancelled) setLoading(false);
       }
@@ -92,6 +99,21 @@ export default function PriceComparisonPage() {
     };
   }, [selectedService]);
 
+  async function handleLoadMore() {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    setError('');
+    try {
+      const response = await compareStoresByService(selectedService, { sort: 'price', cursor: nextCursor });
+      setComparisonRows((rows) => [...rows, ...(response?.stores ?? []).map(toComparisonRow)]);
+      setNextCursor(response?.nextCursor ?? null);
+    } catch (err) {
+      setError(err instanceof Error ? err.message : 'Failed to load more shops.');
+    } finally {
+      setLoadingMore(false);
+    }
+  }
+
   const sortedRows = useMemo(() => {
     const rows = [...comparisonRows];
     rows.sort((a, b) => {
@@ -123,7 +145,7 @@ export default function PriceComparisonPage() {
             onChange={(e) => setSelectedService(e.target.value)}
             className="form-select wt-input"
             style={{ maxWidth: '18rem' }}
-            disabled={serviceOptions.length === 0}
+            disabled={serviceOptions.length === 0 || loadingMore}
           >
             {serviceOptions.length === 0 ? (
               <option value="">No services available</option>
@@ -264,6 +286,18 @@ export default function PriceComparisonPage() {
               </tbody>
             </table>
           </div>
+          {!loading && nextCursor && (
+            <div className="px-4 py-3" style={{ borderTop: '1px solid #3A3652' }}>
+              <button
+                type="button"
+                className="btn btn-sm btn-wt-outline"
+                onClick={handleLoadMore}
+                disabled={loadingMore}
+              >
+                {loadingMore ? 'Loading...' : 'Load more shops'}
+              </button>
+            </div>
+          )}
         </div>
       </section>
 